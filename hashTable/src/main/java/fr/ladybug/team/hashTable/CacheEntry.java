@@ -0,0 +1,20 @@
+package fr.ladybug.team.hashTable;
+
+/** Element of {@link CachingHashTable} which is linked into a queue of its eviction policy */
+class CacheEntry {
+    final String key;
+    String value;
+    /** Moment after which the entry is expired by the ticker of the table, Long.MAX_VALUE if never */
+    long expiresAt;
+
+    /** The queue holding the entry, null if it is not in any */
+    EntryQueue queue;
+    CacheEntry previous;
+    CacheEntry next;
+
+    CacheEntry(String key, String value, long expiresAt) {
+        this.key = key;
+        this.value = value;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,205 @@
+package fr.ladybug.team.hashTable;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Hashtable bounded by capacity which evicts entries chosen by its eviction policy when it is full.
+ * Entries may have time to live, expired ones are dropped when they are met.
+ * Every operation takes O(1) time
+ */
+public class CachingHashTable {
+    /** Policy choosing which entry to evict */
+    public enum Eviction {
+        /** Least recently used entry is evicted */
+        LRU,
+        /** Least frequently used entry is evicted */
+        LFU,
+        /** New entries are admitted only if they are estimated to be more frequent than the ones they replace */
+        W_TINY_LFU
+    }
+
+    private static final long NEVER = Long.MAX_VALUE;
+
+    private final int capacity;
+    private final EvictionPolicy policy;
+    private final LongSupplier ticker;
+    private final ObjectObjectHashTable<String, CacheEntry> entries = new ObjectObjectHashTable<>();
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+    private long expirationCount = 0;
+
+    /**
+     * Constructs empty cache
+     * @param capacity maximal number of entries
+     * @param eviction policy choosing which entry to evict
+     */
+    public CachingHashTable(int capacity, Eviction eviction) {
+        this(capacity, eviction, System::nanoTime);
+    }
+
+    /**
+     * Constructs empty cache with certain source of time
+     * @param ticker source of time in nanoseconds used for expiration
+     */
+    CachingHashTable(int capacity, Eviction eviction, LongSupplier ticker) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.ticker = ticker;
+        switch (eviction) {
+            case LRU:
+                policy = new LruPolicy();
+                break;
+            case LFU:
+                policy = new LfuPolicy();
+                break;
+            default:
+                policy = new TinyLfuPolicy(capacity);
+        }
+    }
+
+    public int getSize() {
+        return entries.getSize();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    private boolean isExpired(CacheEntry entry) {
+        return entry.expiresAt != NEVER && entry.expiresAt - ticker.getAsLong() <= 0;
+    }
+
+    /** Finds the entry by key, drops it if it is expired */
+    private CacheEntry find(String key) {
+        CacheEntry entry = entries.get(key);
+        if (entry != null && isExpired(entry)) {
+            discard(entry);
+            expirationCount++;
+            return null;
+        }
+        return entry;
+    }
+
+    private void discard(CacheEntry entry) {
+        entries.remove(entry.key);
+        policy.onRemove(entry);
+    }
+
+    /**
+     * Checks whether key is contained by the table or not. Neither counters nor eviction order are affected,
+     * an expired entry is not dropped either
+     * @param key key it searches by
+     * @return boolean true if key is contained and not expired
+     */
+    public boolean contains(String key) {
+        CacheEntry entry = entries.get(key);
+        return entry != null && !isExpired(entry);
+    }
+
+    /**
+     * Gets value by key
+     * @param key the key it searches by
+     * @return value if exists, null otherwise
+     */
+    public String get(String key) {
+        CacheEntry entry = find(key);
+        if (entry == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        policy.onAccess(entry);
+        return entry.value;
+    }
+
+    /**
+     * Adds or changes value by key, the value never expires
+     * @param key the key value of which is to be changed or added
+     * @param value the value which is to be putted
+     * @return previous value of this key, null if doesn't exist
+     */
+    public String put(String key, String value) {
+        return put(key, value, NEVER);
+    }
+
+    /**
+     * Adds or changes value by key, the value expires after the certain time
+     * @param key the key value of which is to be changed or added
+     * @param value the value which is to be putted
+     * @param timeToLive time after which the value expires
+     * @param unit unit of the time to live
+     * @return previous value of this key, null if doesn't exist
+     */
+    public String put(String key, String value, long timeToLive, TimeUnit unit) {
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        long now = ticker.getAsLong();
+        long nanos = unit.toNanos(timeToLive);
+        long expiresAt = now + nanos;
+        if (((now ^ expiresAt) & (nanos ^ expiresAt)) < 0) {
+            expiresAt = NEVER;
+        }
+        return put(key, value, expiresAt);
+    }
+
+    private String put(String key, String value, long expiresAt) {
+        CacheEntry entry = find(key);
+        if (entry != null) {
+            String res = entry.value;
+            entry.value = value;
+            entry.expiresAt = expiresAt;
+            policy.onAccess(entry);
+            return res;
+        }
+
+        if (entries.getSize() == capacity) {
+            entries.remove(policy.evict().key);
+            evictionCount++;
+        }
+        entry = new CacheEntry(key, value, expiresAt);
+        entries.put(key, entry);
+        policy.onInsert(entry);
+        return null;
+    }
+
+    /**
+     * Removes element with specified key
+     * @param key the key value of which is to be removed
+     * @return last value by this key, null otherwise
+     */
+    public String remove(String key) {
+        CacheEntry entry = find(key);
+        if (entry == null) {
+            return null;
+        }
+        discard(entry);
+        return entry.value;
+    }
+
+    /** Removes all elements from the table, counters are kept */
+    public void clear() {
+        entries.clear();
+        policy.clear();
+    }
+}
@@ -0,0 +1,207 @@
+package fr.ladybug.team.hashTable;
+
+import fr.ladybug.team.hashTable.List.MapEntry;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+import static fr.ladybug.team.hashTable.ResizePolicy.EXPAND_FACTOR;
+import static fr.ladybug.team.hashTable.ResizePolicy.MAXIMAL_DENSITY;
+
+/**
+ * Thread-safe hashtable of strings with dynamic density.
+ * Lists of the hash-space are split into stripes, list number i belongs to stripe number i % STRIPES,
+ * and every stripe is guarded by its own lock, so operations on different stripes do not contend.
+ * Expansion takes all the locks, hence it is safe while other threads keep reading and writing
+ */
+public class ConcurrentHashTable {
+
+    /** Number of locks, the hash-space is always a multiple of it */
+    private static final int STRIPES = 16;
+    /** Lists of the hash-space, null stands for the empty list. Replaced only while all locks are held */
+    private volatile List[] lists;
+    private final ReentrantLock[] locks;
+    /** Number of elements in every stripe, guarded by the lock of the stripe */
+    private final int[] sizes;
+
+    private static int mod(int x, int y)
+    {
+        int res = x % y;
+        if (res < 0)
+        {
+            res += y;
+        }
+        return res;
+    }
+
+    /** Constructs empty table with hash-space equal to the number of stripes */
+    public ConcurrentHashTable() {
+        lists = new List[STRIPES];
+        locks = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        sizes = new int[STRIPES];
+    }
+
+    /**
+     * In case of high density expands hash-space
+     * @param expected the hash-space observed by the caller, nothing is done if somebody has already replaced it
+     */
+    private void expand(List[] expected) {
+        lockAll();
+        try {
+            if (lists != expected) {
+                return;
+            }
+            List[] newLists = new List[expected.length * EXPAND_FACTOR];
+            for (List list : expected) {
+                if (list == null) {
+                    continue;
+                }
+                for (MapEntry element : list.getData()) {
+                    int position = mod(element.key.hashCode(), newLists.length);
+                    if (newLists[position] == null) {
+                        newLists[position] = new List();
+                    }
+                    newLists[position].put(element.key, element.value);
+                }
+            }
+            lists = newLists;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    private void lockAll() {
+        for (ReentrantLock lock : locks) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = STRIPES - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    /** Sum of sizes of all stripes. Stripes are visited one by one, so concurrent changes may be partially seen */
+    public int getSize() {
+        int res = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i].lock();
+            try {
+                res += sizes[i];
+            } finally {
+                locks[i].unlock();
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Checks whether key is contained by the table or not
+     * @param key key it searches by
+     * @return boolean true if key is contained
+     */
+    public boolean contains(String key) {
+        int hash = key.hashCode();
+        ReentrantLock lock = locks[mod(hash, STRIPES)];
+        lock.lock();
+        try {
+            List list = lists[mod(hash, lists.length)];
+            return list != null && list.contains(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets value by key
+     * @param key the key it searches by
+     * @return value if exists, null otherwise
+     */
+    public String get(String key) {
+        int hash = key.hashCode();
+        ReentrantLock lock = locks[mod(hash, STRIPES)];
+        lock.lock();
+        try {
+            List list = lists[mod(hash, lists.length)];
+            return list == null ? null : list.get(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds or changes value by key
+     * @param key the key value of which is to be changed or added
+     * @param value the value which is to be putted
+     * @return previous value of this key, null if doesn't exist
+     */
+    public String put(String key, String value) {
+        int hash = key.hashCode();
+        int stripe = mod(hash, STRIPES);
+        List[] current;
+        String res;
+        boolean needsExpansion = false;
+        locks[stripe].lock();
+        try {
+            current = lists;
+            int position = mod(hash, current.length);
+            if (current[position] == null) {
+                current[position] = new List();
+            }
+            List list = current[position];
+            int listSizeBefore = list.getSize();
+            res = list.put(key, value);
+            if (list.getSize() > listSizeBefore) {
+                sizes[stripe]++;
+                needsExpansion = sizes[stripe] > current.length / STRIPES * MAXIMAL_DENSITY;
+            }
+        } finally {
+            locks[stripe].unlock();
+        }
+        if (needsExpansion) {
+            expand(current);
+        }
+        return res;
+    }
+
+    /**
+     * Removes element with specified key
+     * @param key the key value of which is to be removed
+     * @return last value by this key, null otherwise
+     */
+    public String remove(String key) {
+        int hash = key.hashCode();
+        int stripe = mod(hash, STRIPES);
+        locks[stripe].lock();
+        try {
+            List list = lists[mod(hash, lists.length)];
+            if (list == null) {
+                return null;
+            }
+            int listSizeBefore = list.getSize();
+            String res = list.remove(key);
+            if (list.getSize() < listSizeBefore) {
+                sizes[stripe]--;
+            }
+            return res;
+        } finally {
+            locks[stripe].unlock();
+        }
+    }
+
+    /** Removes all elements from the table, shrink to minimal size */
+    public void clear() {
+        lockAll();
+        try {
+            lists = new List[STRIPES];
+            for (int i = 0; i < STRIPES; i++) {
+                sizes[i] = 0;
+            }
+        } finally {
+            unlockAll();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package fr.ladybug.team.hashTable;
+
+/** Doubly-linked queue of cache entries, the first one is the least recently added */
+class EntryQueue {
+    /** Sentinel entry, its next is the first entry and its previous is the last one */
+    private final CacheEntry sentinel = new CacheEntry(null, null, 0);
+    private int size = 0;
+
+    EntryQueue() {
+        sentinel.previous = sentinel;
+        sentinel.next = sentinel;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    /** @return the first entry, null if the queue is empty */
+    CacheEntry peekFirst() {
+        return size == 0 ? null : sentinel.next;
+    }
+
+    void addLast(CacheEntry entry) {
+        entry.queue = this;
+        entry.previous = sentinel.previous;
+        entry.next = sentinel;
+        sentinel.previous.next = entry;
+        sentinel.previous = entry;
+        size++;
+    }
+
+    /** Removes the entry which is known to be in this queue */
+    void remove(CacheEntry entry) {
+        entry.previous.next = entry.next;
+        entry.next.previous = entry.previous;
+        entry.previous = null;
+        entry.next = null;
+        entry.queue = null;
+        size--;
+    }
+
+    /** Moves the entry which is known to be in this queue to its end */
+    void moveToLast(CacheEntry entry) {
+        remove(entry);
+        addLast(entry);
+    }
+
+    /** @return the removed first entry, null if the queue is empty */
+    CacheEntry pollFirst() {
+        CacheEntry entry = peekFirst();
+        if (entry != null) {
+            remove(entry);
+        }
+        return entry;
+    }
+}
@@ -0,0 +1,22 @@
+package fr.ladybug.team.hashTable;
+
+/** Strategy choosing which entries leave {@link CachingHashTable} when it is full. Every method is O(1) */
+interface EvictionPolicy {
+    /** Starts tracking the new entry */
+    void onInsert(CacheEntry entry);
+
+    /** Records the hit of the entry */
+    void onAccess(CacheEntry entry);
+
+    /** Stops tracking the entry which is removed from the table */
+    void onRemove(CacheEntry entry);
+
+    /**
+     * Chooses the entry to evict when the table is full and a new entry comes, and stops tracking it
+     * @return the entry to evict
+     */
+    CacheEntry evict();
+
+    /** Stops tracking all entries */
+    void clear();
+}
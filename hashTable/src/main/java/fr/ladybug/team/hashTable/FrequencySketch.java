@@ -0,0 +1,79 @@
+package fr.ladybug.team.hashTable;
+
+import java.util.Arrays;
+
+/**
+ * Count-min sketch estimating how often keys were seen recently.
+ * Counters are 4-bit and are halved once enough keys were recorded, so old popularity fades away
+ */
+class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAXIMAL_COUNT = 15;
+    private static final int[] SEEDS = {0x97cb3127, 0xb492b66f, 0x9ae16a3b, 0x4f6bdc4b};
+    /** Number of recorded keys between halvings per counter of a row */
+    private static final int SAMPLE_FACTOR = 10;
+
+    /** Every long holds 16 counters, a key uses one counter in each of 4 quarters of a long */
+    private final long[] table;
+    private final int sampleSize;
+    private int recorded = 0;
+
+    /** Constructs sketch good for the certain number of distinct popular keys */
+    FrequencySketch(int capacity) {
+        table = new long[Integer.highestOneBit(Math.max(1, capacity - 1)) << 1];
+        sampleSize = Math.max(capacity, 1) * SAMPLE_FACTOR;
+    }
+
+    private static int spread(int hash, int row) {
+        hash = (hash + SEEDS[row]) * SEEDS[row];
+        return hash ^ (hash >>> 16);
+    }
+
+    /** Bit offset of the counter of the key in the quarter of the long which belongs to the row */
+    private static int offset(int hash, int row) {
+        return (row << 4) + ((spread(hash, row) >>> 28) & 0xc);
+    }
+
+    private int slot(int hash, int row) {
+        return spread(hash, row) & (table.length - 1);
+    }
+
+    /** @return estimated number of times the key was recorded, at most 15 */
+    int frequency(Object key) {
+        int hash = key.hashCode();
+        int frequency = MAXIMAL_COUNT;
+        for (int row = 0; row < DEPTH; row++) {
+            int count = (int) ((table[slot(hash, row)] >>> offset(hash, row)) & MAXIMAL_COUNT);
+            frequency = Math.min(frequency, count);
+        }
+        return frequency;
+    }
+
+    /** Records one occurrence of the key */
+    void increment(Object key) {
+        int hash = key.hashCode();
+        for (int row = 0; row < DEPTH; row++) {
+            int slot = slot(hash, row);
+            int offset = offset(hash, row);
+            if (((table[slot] >>> offset) & MAXIMAL_COUNT) != MAXIMAL_COUNT) {
+                table[slot] += 1L << offset;
+            }
+        }
+        if (++recorded == sampleSize) {
+            halve();
+        }
+    }
+
+    /** Halves all counters at once, which is amortized O(1) since it happens once in a sample */
+    private void halve() {
+        recorded /= 2;
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & 0x7777777777777777L;
+        }
+    }
+
+    void clear() {
+        recorded = 0;
+        Arrays.fill(table, 0);
+    }
+}
@@ -0,0 +1,22 @@
+package fr.ladybug.team.hashTable;
+
+/** Strategy of hashing keys of the table */
+@FunctionalInterface
+public interface HashFunction {
+    /**
+     * Calculates hash of the key
+     * @param key the key to hash
+     * @return the hash
+     */
+    int hash(String key);
+
+    /**
+     * Creates hash function which distributes keys independently of this one.
+     * The table switches to it when too many keys collide
+     * @param seed random seed for the new function
+     * @return the new function, null if there is no such one
+     */
+    default HashFunction reseeded(int seed) {
+        return null;
+    }
+}
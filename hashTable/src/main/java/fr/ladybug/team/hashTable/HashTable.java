@@ -2,50 +2,200 @@ package fr.ladybug.team.hashTable;
 
 import fr.ladybug.team.hashTable.List.MapEntry;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static fr.ladybug.team.hashTable.ResizePolicy.EXPAND_FACTOR;
+import static fr.ladybug.team.hashTable.ResizePolicy.INITIAL_SPACE;
+import static fr.ladybug.team.hashTable.ResizePolicy.MAXIMAL_DENSITY;
+
 /** Hashtable of strings with dynamic density */
-public class HashTable {
-
-    /** Initial hash-space taken by the table */
-    private final int INITIAL_SPACE = 2;
-    /** Maximal average density of the table, where density = size / hash-space */
-    private final int MAXIMAL_DENSITY = 2;
-    /** A number representing the factor of hash-space expansion */
-    private final int EXPAND_FACTOR = 2;
+public class HashTable implements Iterable<Map.Entry<String, String>> {
+
+    /** Number of old lists moved to the new hash-space by every operation during incremental rehash */
+    private final int REHASH_STEP = 4;
+    /** Length of a list after which the keys are considered to be colliding on purpose and the table is reseeded */
+    private final int COLLISION_THRESHOLD = 16;
     private int size = 0;
+    /** Lists of the hash-space, null stands for the empty list which has not been needed yet */
     private List[] lists;
 
-    private static int mod(int x, int y)
-    {
-        int res = x % y;
-        if (res < 0)
-        {
-            res += y;
-        }
-        return res;
+    private final RehashMode rehashMode;
+    /** Hash-space being moved to {@link #lists} by incremental rehash, null if there is no rehash in progress */
+    private List[] oldLists;
+    /** Index of the first old list which has not been moved yet */
+    private int rehashIndex;
+    /** Whether some iterator may walk the current hash-space, then incremental rehash keeps its lists */
+    private boolean listsIterated = false;
+    /** Whether some iterator may walk {@link #oldLists}, then they are not dropped once moved */
+    private boolean oldListsIterated = false;
+
+    private HashFunction hashFunction;
+    /** Hash-space at the moment of the last reseed, the table is not reseeded twice at the same hash-space */
+    private int reseedSpace = 0;
+
+    /**
+     * Finds the position of the hash in hash-space, it is always a power of two so it is masked.
+     * Higher bits of the hash are spread to the lower ones, since only the lower ones are used by the mask
+     */
+    private static int index(int hash, int space) {
+        return (hash ^ (hash >>> 16)) & (space - 1);
     }
 
-    /** Constructs empty table with certain initial space */
+    /** Constructs empty table with certain initial space, which rebuilds itself at once on expansion */
     public HashTable() {
+        this(RehashMode.STOP_THE_WORLD);
+    }
+
+    /**
+     * Constructs empty table with certain initial space, which uses {@link StringHashFunction}
+     * @param rehashMode the way the table moves its elements on expansion
+     */
+    public HashTable(RehashMode rehashMode) {
+        this(rehashMode, new StringHashFunction());
+    }
+
+    /**
+     * Constructs empty table with certain initial space, which rebuilds itself at once on expansion
+     * @param hashFunction the function hashing the keys
+     */
+    public HashTable(HashFunction hashFunction) {
+        this(RehashMode.STOP_THE_WORLD, hashFunction);
+    }
+
+    /**
+     * Constructs empty table with certain initial space
+     * @param rehashMode the way the table moves its elements on expansion
+     * @param hashFunction the function hashing the keys. When some list becomes too long,
+     * the table switches to its reseeded version if there is one
+     */
+    public HashTable(RehashMode rehashMode, HashFunction hashFunction) {
+        this.rehashMode = rehashMode;
+        this.hashFunction = hashFunction;
         lists = new List[INITIAL_SPACE];
-        for (int i = 0; i < INITIAL_SPACE; i++) {
-            lists[i] = new List();
-        }
     }
 
     /** In case of high density expands hash-space */
+    private void expand() {
+        if (rehashMode == RehashMode.STOP_THE_WORLD) {
+            rebuild();
+            return;
+        }
+        finishRehash();
+        oldLists = lists;
+        oldListsIterated = listsIterated;
+        listsIterated = false;
+        rehashIndex = 0;
+        lists = new List[lists.length * EXPAND_FACTOR];
+    }
+
+    /** Moves all elements to the hash-space expanded at once */
     private void rebuild() {
+        rebuild(lists.length * EXPAND_FACTOR);
+    }
+
+    /** Moves all elements to the hash-space of the given size at once */
+    private void rebuild(int space) {
         List[] oldLists = lists;
-        lists = new List[lists.length * EXPAND_FACTOR];
-        for (int i = 0; i < lists.length; i++) {
-            lists[i] = new List();
-        }
+        lists = new List[space];
+        listsIterated = false;
         for (List list : oldLists) {
-            for (MapEntry element : list.getData()) {
-                put(element.key, element.value);
+            moveElements(list);
+        }
+    }
+
+    /** Moves elements of the old list to the current hash-space. They are known to be absent there */
+    private void moveElements(List list) {
+        if (list == null) {
+            return;
+        }
+        for (int i = 0; i < list.getSize(); i++) {
+            MapEntry element = list.getEntry(i);
+            obtainList(lists, index(hashFunction.hash(element.key), lists.length)).put(element.key, element.value);
+        }
+    }
+
+    /** Gets the list at the position, creating it if it has not been needed yet */
+    private static List obtainList(List[] lists, int position) {
+        if (lists[position] == null) {
+            lists[position] = new List();
+        }
+        return lists[position];
+    }
+
+    /**
+     * Switches to the reseeded hash function and moves all elements at once. It is done when some list is too long,
+     * which is almost impossible for random keys, so the keys are likely chosen to collide on purpose
+     */
+    private void reseed() {
+        if (reseedSpace == lists.length) {
+            return;
+        }
+        HashFunction reseeded = hashFunction.reseeded(ThreadLocalRandom.current().nextInt());
+        if (reseeded == null) {
+            return;
+        }
+        finishRehash();
+        reseedSpace = lists.length;
+        hashFunction = reseeded;
+        rebuild(lists.length);
+    }
+
+    /** Moves a bounded number of old lists to the new hash-space if incremental rehash is in progress */
+    private void rehashStep() {
+        if (oldLists == null) {
+            return;
+        }
+        for (int i = 0; i < REHASH_STEP && rehashIndex < oldLists.length; i++) {
+            moveElements(oldLists[rehashIndex]);
+            if (!oldListsIterated) {
+                oldLists[rehashIndex] = null;
             }
+            rehashIndex++;
+        }
+        if (rehashIndex == oldLists.length) {
+            oldLists = null;
         }
     }
 
+    /** Moves all the rest of old lists if incremental rehash is in progress */
+    private void finishRehash() {
+        while (oldLists != null) {
+            rehashStep();
+        }
+    }
+
+    /**
+     * Finds the list which holds the key, it is an old one if the key has not been moved yet
+     * @param key the key it searches by
+     * @param create whether the list is to be created if it has not been needed yet
+     * @return the list, null if it has not been needed yet and is not to be created
+     */
+    private List listOf(String key, boolean create) {
+        int hash = hashFunction.hash(key);
+        List[] holder = lists;
+        int position = index(hash, lists.length);
+        if (oldLists != null) {
+            int oldPosition = index(hash, oldLists.length);
+            if (oldPosition >= rehashIndex) {
+                holder = oldLists;
+                position = oldPosition;
+            }
+        }
+        return create ? obtainList(holder, position) : holder[position];
+    }
+
     public int getSize() {
         return size;
     }
@@ -56,8 +206,9 @@ public class HashTable {
      * @return boolean true if key is contained
      */
     public boolean contains(String key) {
-        int position = mod(key.hashCode(), lists.length);
-        return lists[position].contains(key);
+        rehashStep();
+        List list = listOf(key, false);
+        return list != null && list.contains(key);
     }
 
     /**
@@ -66,8 +217,9 @@ public class HashTable {
      * @return value if exists, null otherwise
      */
     public String get(String key) {
-        int position = mod(key.hashCode(), lists.length);
-        return lists[position].get(key);
+        rehashStep();
+        List list = listOf(key, false);
+        return list == null ? null : list.get(key);
     }
 
     /**
@@ -77,14 +229,17 @@ public class HashTable {
      * @return previous value of this key, null if doesn't exist
      */
     public String put(String key, String value) {
-        int position = mod(key.hashCode(), lists.length);
+        rehashStep();
+        List list = listOf(key, true);
 
-        boolean keyExistedBefore = lists[position].contains(key);
-        String res = lists[position].put(key, value);
-        if (!keyExistedBefore) {
+        int listSizeBefore = list.getSize();
+        String res = list.put(key, value);
+        if (list.getSize() > listSizeBefore) {
             size++;
             if (getSize() > lists.length * MAXIMAL_DENSITY)
-                rebuild();
+                expand();
+            else if (list.getSize() > COLLISION_THRESHOLD)
+                reseed();
         }
         return res;
     }
@@ -95,22 +250,293 @@ public class HashTable {
      * @return last value by this key, null otherwise
      */
     public String remove(String key) {
-        int position = mod(key.hashCode(), lists.length);
-        String res = lists[position].remove(key);
-        if (res != null) {
+        rehashStep();
+        List list = listOf(key, false);
+        if (list == null) {
+            return null;
+        }
+        int listSizeBefore = list.getSize();
+        String res = list.remove(key);
+        if (list.getSize() < listSizeBefore) {
             size--;
         }
         return res;
     }
 
+    /**
+     * Expands hash-space at once, so that the given number of elements fits without any further expansion
+     * @param expectedSize the number of elements the table is going to hold
+     */
+    public void ensureCapacity(int expectedSize) {
+        int space = lists.length;
+        while ((long) space * MAXIMAL_DENSITY < expectedSize) {
+            space *= EXPAND_FACTOR;
+        }
+        if (space > lists.length) {
+            finishRehash();
+            rebuild(space);
+        }
+    }
+
+    /**
+     * Adds or changes all elements of the map. Hash-space is expanded once in advance
+     * @param map the map elements of which are to be putted
+     */
+    public void putAll(Map<String, String> map) {
+        ensureCapacity(size + map.size());
+        for (var entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Adds or changes all elements produced by the iterator, the elements are not collected anywhere before.
+     * Hash-space is expanded once in advance according to the hint
+     * @param entries the iterator producing elements which are to be putted
+     * @param expectedCount expected number of elements, the table still expands itself if there are more of them
+     */
+    public void putAll(Iterator<? extends Map.Entry<String, String>> entries, int expectedCount) {
+        ensureCapacity(size + expectedCount);
+        while (entries.hasNext()) {
+            var entry = entries.next();
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Gets values of all the keys contained by the table
+     * @param keys the keys it searches by
+     * @return new table with the contained keys and their values
+     */
+    public HashTable getAll(Collection<String> keys) {
+        var res = new HashTable();
+        res.ensureCapacity(keys.size());
+        for (String key : keys) {
+            String value = get(key);
+            if (value != null || contains(key)) {
+                res.put(key, value);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Removes elements with all the keys
+     * @param keys the keys which are to be removed
+     * @return number of elements removed
+     */
+    public int removeAll(Collection<String> keys) {
+        int sizeBefore = size;
+        for (String key : keys) {
+            remove(key);
+        }
+        return sizeBefore - size;
+    }
+
     /** Removes all elements from the table, shrink to minimal size */
     public void clear() {
         size = 0;
+        oldLists = null;
         lists = new List[INITIAL_SPACE];
-        for (int i = 0; i < INITIAL_SPACE; i++) {
-            lists[i] = new List();
+        listsIterated = false;
+    }
+
+    /**
+     * Writes compact binary snapshot of the table: UTF-8 strings prefixed with their lengths,
+     * the dictionary of values if they repeat, and the checksum. The stream is not closed
+     * @param out the stream the snapshot is written to
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        HashTableSnapshot.write(this, out);
+    }
+
+    /**
+     * Reads the table from the snapshot written by {@link #writeTo(OutputStream)}.
+     * Hash-space is sized in advance, so the table is never expanded while it is read, except tables of more than
+     * 2^20 elements: a corrupted size must not make a huge allocation, so they are expanded once to their size
+     * when the first 2^20 elements have been read.
+     * If the stream supports mark, as buffered streams do, it is read exactly to the end of the snapshot
+     * @param in the stream the snapshot is read from, it is not closed
+     * @return the table which uses {@link StringHashFunction} and rebuilds itself at once on expansion
+     * @throws IOException if the stream fails, or it is not a snapshot, or the snapshot is corrupted
+     */
+    public static HashTable readFrom(InputStream in) throws IOException {
+        return HashTableSnapshot.read(in);
+    }
+
+    /**
+     * Performs the action for every element. Nothing is allocated or copied,
+     * so the action must not modify the table
+     * @param action the action which is to be performed
+     */
+    public void forEach(BiConsumer<? super String, ? super String> action) {
+        finishRehash();
+        for (List list : lists) {
+            if (list != null) {
+                list.forEach(action);
+            }
+        }
+    }
+
+    /**
+     * Gets weakly consistent iterator over the elements. It never fails whatever is done to the table.
+     * Elements contained by the table during the whole iteration are returned exactly once,
+     * elements added or removed during the iteration may be returned or not.
+     * Setting value of an entry changes the table until the hash-space is rebuilt
+     */
+    @Override
+    public Iterator<Map.Entry<String, String>> iterator() {
+        return new EntryIterator(spliterator());
+    }
+
+    /**
+     * Gets weakly consistent spliterator over the elements, which splits the hash-space into ranges of lists.
+     * It gives the same guarantees as {@link #iterator()}
+     */
+    @Override
+    public Spliterator<Map.Entry<String, String>> spliterator() {
+        finishRehash();
+        listsIterated = true;
+        return new EntrySpliterator(lists, 0, lists.length, size);
+    }
+
+    /** Gets sequential stream of the elements */
+    public Stream<Map.Entry<String, String>> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /** Gets parallel stream of the elements, the table must not be modified while the stream works */
+    public Stream<Map.Entry<String, String>> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Walks a range of lists of a hash-space, which is not changed anymore if the table moves to another one.
+     * Every list is copied to the buffer of the spliterator when it is reached, the buffer is reused for all lists,
+     * so elements removed from the list or shifted inside it later are still returned exactly once
+     */
+    private static class EntrySpliterator implements Spliterator<Map.Entry<String, String>> {
+        private final List[] lists;
+        private int index;
+        private final int fence;
+        private long estimatedSize;
+        private MapEntry[] buffer = new MapEntry[INITIAL_SPACE * MAXIMAL_DENSITY];
+        private int bufferSize = 0;
+        private int bufferIndex = 0;
+
+        private EntrySpliterator(List[] lists, int index, int fence, long estimatedSize) {
+            this.lists = lists;
+            this.index = index;
+            this.fence = fence;
+            this.estimatedSize = estimatedSize;
+        }
+
+        /** @return next element, null if there are no more of them */
+        private MapEntry poll() {
+            while (bufferIndex == bufferSize) {
+                if (index == fence) {
+                    return null;
+                }
+                List list = lists[index++];
+                bufferIndex = 0;
+                bufferSize = list == null ? 0 : list.getSize();
+                if (bufferSize > buffer.length) {
+                    buffer = new MapEntry[Math.max(bufferSize, buffer.length * 2)];
+                }
+                if (list != null) {
+                    list.copyData(buffer);
+                }
+            }
+            MapEntry entry = buffer[bufferIndex];
+            buffer[bufferIndex++] = null;
+            return entry;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Map.Entry<String, String>> action) {
+            MapEntry entry = poll();
+            if (entry == null) {
+                return false;
+            }
+            action.accept(entry);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Map.Entry<String, String>> action) {
+            for (MapEntry entry = poll(); entry != null; entry = poll()) {
+                action.accept(entry);
+            }
+        }
+
+        /** Gives the first half of the lists which have not been reached yet */
+        @Override
+        public Spliterator<Map.Entry<String, String>> trySplit() {
+            int middle = (index + fence) >>> 1;
+            if (middle <= index) {
+                return null;
+            }
+            estimatedSize >>>= 1;
+            var prefix = new EntrySpliterator(lists, index, middle, estimatedSize);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimatedSize;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.NONNULL;
         }
     }
 
+    /** Iterator over the elements which removes them from the table by their keys */
+    private class EntryIterator implements Iterator<Map.Entry<String, String>> {
+        private final EntrySpliterator entries;
+        private MapEntry next;
+        private MapEntry last;
+
+        private EntryIterator(Spliterator<Map.Entry<String, String>> entries) {
+            this.entries = (EntrySpliterator) entries;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = entries.poll();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            last = next;
+            next = null;
+            return last;
+        }
 
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            HashTable.this.remove(last.key);
+            last = null;
+        }
+    }
+
+    /**
+     * The way the table moves its elements to the expanded hash-space. Possible values:
+     * STOP_THE_WORLD -- all elements are moved by the operation which exceeded maximal density
+     * INCREMENTAL -- old and new hash-spaces live side by side and every operation moves a few old lists
+     */
+    public enum RehashMode {
+        STOP_THE_WORLD, INCREMENTAL
+    }
 }
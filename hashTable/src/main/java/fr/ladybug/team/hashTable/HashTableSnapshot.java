@@ -0,0 +1,327 @@
+package fr.ladybug.team.hashTable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Compact binary snapshot of {@link HashTable}. Layout:
+ * magic int, version byte, flags byte, number of elements,
+ * the dictionary of values if the flags say so (number of values and the values),
+ * then the elements (key, and value or its index in the dictionary),
+ * and CRC32 of everything before it as an int.
+ * Numbers are unsigned varints, ints are big-endian, strings are UTF-8 prefixed with byte length,
+ * value lengths and indices are shifted by one since 0 stands for null
+ */
+final class HashTableSnapshot {
+    private static final int MAGIC = 0x4c425348;
+    private static final int VERSION = 1;
+    private static final int DICTIONARY_FLAG = 1;
+    /** Maximal number of distinct values in percents of the size, for which the dictionary is written */
+    private static final int DICTIONARY_MAXIMAL_PERCENT = 50;
+    private static final int BUFFER_SIZE = 1 << 16;
+    /**
+     * Largest number of elements the table is presized for before they are read, sizes are not checked
+     * until the checksum is, so a corrupted one must not make a huge allocation.
+     * A larger table is expanded to its size once, when that many elements have been read
+     */
+    private static final int MAXIMAL_PRESIZE = 1 << 20;
+
+    private HashTableSnapshot() {
+    }
+
+    /**
+     * Builds the dictionary of values if they repeat enough
+     * @return index of every distinct value, null if they do not repeat enough
+     */
+    private static ObjectIntHashTable<String> buildDictionary(HashTable table) {
+        var dictionary = new ObjectIntHashTable<String>(-1);
+        long maximalSize = (long) table.getSize() * DICTIONARY_MAXIMAL_PERCENT / 100;
+        for (var entry : table) {
+            String value = entry.getValue();
+            if (value != null && !dictionary.contains(value)) {
+                if (dictionary.getSize() == maximalSize) {
+                    return null;
+                }
+                dictionary.put(value, dictionary.getSize());
+            }
+        }
+        return dictionary;
+    }
+
+    static void write(HashTable table, OutputStream out) throws IOException {
+        var encoder = new Encoder(out);
+        var dictionary = buildDictionary(table);
+
+        encoder.writeInt(MAGIC);
+        encoder.writeByte(VERSION);
+        encoder.writeByte(dictionary == null ? 0 : DICTIONARY_FLAG);
+        encoder.writeNumber(table.getSize());
+        if (dictionary != null) {
+            var values = new String[dictionary.getSize()];
+            for (var entry : table) {
+                String value = entry.getValue();
+                if (value != null) {
+                    values[dictionary.get(value)] = value;
+                }
+            }
+            encoder.writeNumber(values.length);
+            for (String value : values) {
+                encoder.writeString(value, 0);
+            }
+        }
+
+        for (var entry : table) {
+            encoder.writeString(entry.getKey(), 0);
+            String value = entry.getValue();
+            if (dictionary != null) {
+                encoder.writeNumber(value == null ? 0 : dictionary.get(value) + 1);
+            } else if (value == null) {
+                encoder.writeNumber(0);
+            } else {
+                encoder.writeString(value, 1);
+            }
+        }
+
+        encoder.writeInt(encoder.checksum());
+        encoder.flush();
+    }
+
+    /**
+     * Reads the snapshot. If the stream supports mark, as buffered streams do, it is read exactly to the end
+     * of the snapshot, otherwise some bytes following the snapshot may be consumed
+     */
+    static HashTable read(InputStream in) throws IOException {
+        var decoder = new Decoder(in);
+        if (decoder.readInt() != MAGIC) {
+            throw new IOException("The stream is not a hashtable snapshot");
+        }
+        if (decoder.readByte() != VERSION) {
+            throw new IOException("Unsupported version of hashtable snapshot");
+        }
+        int flags = decoder.readByte();
+        int size = decoder.readNumber();
+
+        List<String> dictionary = null;
+        if ((flags & DICTIONARY_FLAG) != 0) {
+            int dictionarySize = decoder.readNumber();
+            if (dictionarySize > size) {
+                throw new IOException("Hashtable snapshot is corrupted");
+            }
+            dictionary = new ArrayList<>(Math.min(dictionarySize, MAXIMAL_PRESIZE));
+            for (int i = 0; i < dictionarySize; i++) {
+                dictionary.add(decoder.readString(decoder.readNumber()));
+            }
+        }
+
+        var table = new HashTable();
+        table.ensureCapacity(Math.min(size, MAXIMAL_PRESIZE));
+        for (int i = 0; i < size; i++) {
+            if (i == MAXIMAL_PRESIZE) {
+                // so many elements have been read that the size is believable, hash-space is sized for all of them
+                table.ensureCapacity(size);
+            }
+            String key = decoder.readString(decoder.readNumber());
+            int code = decoder.readNumber();
+            String value = null;
+            if (dictionary != null) {
+                if (code > dictionary.size()) {
+                    throw new IOException("Hashtable snapshot is corrupted");
+                }
+                value = code == 0 ? null : dictionary.get(code - 1);
+            } else if (code != 0) {
+                value = decoder.readString(code - 1);
+            }
+            table.put(key, value);
+        }
+
+        int expected = decoder.checksum();
+        if (decoder.readInt() != expected || table.getSize() != size) {
+            throw new IOException("Hashtable snapshot is corrupted");
+        }
+        decoder.finish();
+        return table;
+    }
+
+    /** Writes through its own buffer, the checksum is computed over whole buffers */
+    private static class Encoder {
+        private final OutputStream out;
+        private final CRC32 checksum = new CRC32();
+        private byte[] buffer = new byte[BUFFER_SIZE];
+        private int position = 0;
+        /** Bytes of the buffer before this position are counted by the checksum */
+        private int checked = 0;
+
+        private Encoder(OutputStream out) {
+            this.out = out;
+        }
+
+        /** Makes room for the certain number of bytes */
+        private void ensure(int length) throws IOException {
+            if (buffer.length - position >= length) {
+                return;
+            }
+            flush();
+            if (length > buffer.length) {
+                buffer = new byte[length];
+            }
+        }
+
+        private void writeByte(int value) throws IOException {
+            ensure(1);
+            buffer[position++] = (byte) value;
+        }
+
+        private void writeInt(int value) throws IOException {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeNumber(int number) throws IOException {
+            ensure(5);
+            while ((number & ~0x7f) != 0) {
+                buffer[position++] = (byte) ((number & 0x7f) | 0x80);
+                number >>>= 7;
+            }
+            buffer[position++] = (byte) number;
+        }
+
+        /** Writes the string prefixed with its length plus the shift */
+        private void writeString(String string, int shift) throws IOException {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            writeNumber(bytes.length + shift);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        /** @return checksum of everything written so far, the following bytes are not counted anymore */
+        private int checksum() {
+            checksum.update(buffer, checked, position - checked);
+            checked = position;
+            return (int) checksum.getValue();
+        }
+
+        private void flush() throws IOException {
+            checksum.update(buffer, checked, position - checked);
+            out.write(buffer, 0, position);
+            position = 0;
+            checked = 0;
+            out.flush();
+        }
+    }
+
+    /** Reads through its own buffer, the checksum is computed over whole buffers */
+    private static class Decoder {
+        private final InputStream in;
+        private final CRC32 checksum = new CRC32();
+        private byte[] buffer = new byte[BUFFER_SIZE];
+        private int position = 0;
+        private int limit = 0;
+        /** Bytes of the buffer before this position are counted by the checksum */
+        private int checked = 0;
+        /** Number of bytes in the buffer before the last read, at which the stream is marked if it supports mark */
+        private int marked = 0;
+
+        private Decoder(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Reads the stream until the buffer holds the certain number of bytes.
+         * The buffer grows twice at most before every read, so a corrupted length ends with EOF
+         * rather than a huge allocation
+         */
+        private void ensure(int length) throws IOException {
+            if (limit - position >= length) {
+                return;
+            }
+            checksum.update(buffer, checked, position - checked);
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+            checked = 0;
+            while (limit < length) {
+                if (limit == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, (int) Math.min(length, 2L * buffer.length));
+                }
+                marked = limit;
+                if (in.markSupported()) {
+                    in.mark(buffer.length);
+                }
+                int read = in.read(buffer, limit, buffer.length - limit);
+                if (read < 0) {
+                    throw new EOFException("Hashtable snapshot is truncated");
+                }
+                limit += read;
+            }
+        }
+
+        private int readByte() throws IOException {
+            ensure(1);
+            return buffer[position++] & 0xff;
+        }
+
+        private int readInt() throws IOException {
+            ensure(4);
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value = (value << 8) | (buffer[position++] & 0xff);
+            }
+            return value;
+        }
+
+        private int readNumber() throws IOException {
+            int number = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int current = readByte();
+                number |= (current & 0x7f) << shift;
+                if ((current & 0x80) == 0) {
+                    if (number < 0) {
+                        break;
+                    }
+                    return number;
+                }
+            }
+            throw new IOException("Hashtable snapshot is corrupted");
+        }
+
+        private String readString(int length) throws IOException {
+            ensure(length);
+            String string = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return string;
+        }
+
+        /** @return checksum of everything read so far, the following bytes are not counted anymore */
+        private int checksum() {
+            checksum.update(buffer, checked, position - checked);
+            checked = position;
+            return (int) checksum.getValue();
+        }
+
+        /** Returns the bytes following the snapshot to the stream if it supports mark */
+        private void finish() throws IOException {
+            if (!in.markSupported() || limit == position) {
+                return;
+            }
+            in.reset();
+            long skipped = position - marked;
+            while (skipped > 0) {
+                long current = in.skip(skipped);
+                if (current <= 0) {
+                    throw new EOFException("Hashtable snapshot is truncated");
+                }
+                skipped -= current;
+            }
+        }
+    }
+}
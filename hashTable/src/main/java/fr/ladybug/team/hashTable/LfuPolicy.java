@@ -0,0 +1,90 @@
+package fr.ladybug.team.hashTable;
+
+/**
+ * Evicts the least frequently used entry, the least recently added one among equally frequent.
+ * Entries are kept in queues of equal frequency which are linked in order of growing frequency,
+ * so every operation moves an entry at most to the neighbouring queue
+ */
+class LfuPolicy implements EvictionPolicy {
+    /** Queue of the entries used the same number of times */
+    private static class FrequencyQueue extends EntryQueue {
+        private final int frequency;
+        private FrequencyQueue previous;
+        private FrequencyQueue next;
+
+        private FrequencyQueue(int frequency) {
+            this.frequency = frequency;
+        }
+    }
+
+    /** Sentinel queue, its next is the least frequent queue and its previous is the most frequent one */
+    private final FrequencyQueue sentinel = new FrequencyQueue(0);
+
+    LfuPolicy() {
+        clear();
+    }
+
+    /** Returns the queue of the frequency going right after the given one, creates it if needed */
+    private FrequencyQueue nextQueue(FrequencyQueue queue) {
+        int frequency = queue.frequency == Integer.MAX_VALUE ? queue.frequency : queue.frequency + 1;
+        if (queue.next.frequency == frequency) {
+            return queue.next;
+        }
+        if (frequency == queue.frequency) {
+            return queue;
+        }
+        var created = new FrequencyQueue(frequency);
+        created.previous = queue;
+        created.next = queue.next;
+        queue.next.previous = created;
+        queue.next = created;
+        return created;
+    }
+
+    /** Removes the entry from its queue and drops the queue if it is empty */
+    private void detach(CacheEntry entry) {
+        var queue = (FrequencyQueue) entry.queue;
+        queue.remove(entry);
+        if (queue.getSize() == 0) {
+            queue.previous.next = queue.next;
+            queue.next.previous = queue.previous;
+        }
+    }
+
+    @Override
+    public void onInsert(CacheEntry entry) {
+        nextQueue(sentinel).addLast(entry);
+    }
+
+    @Override
+    public void onAccess(CacheEntry entry) {
+        var queue = (FrequencyQueue) entry.queue;
+        var target = nextQueue(queue);
+        if (target == queue) {
+            queue.moveToLast(entry);
+        } else {
+            detach(entry);
+            target.addLast(entry);
+        }
+    }
+
+    @Override
+    public void onRemove(CacheEntry entry) {
+        detach(entry);
+    }
+
+    @Override
+    public CacheEntry evict() {
+        CacheEntry entry = sentinel.next.peekFirst();
+        if (entry != null) {
+            detach(entry);
+        }
+        return entry;
+    }
+
+    @Override
+    public void clear() {
+        sentinel.previous = sentinel;
+        sentinel.next = sentinel;
+    }
+}
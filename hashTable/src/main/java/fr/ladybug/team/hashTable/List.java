@@ -1,6 +1,9 @@
 package fr.ladybug.team.hashTable;
 
 import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
 
 /**
  * Autoexpandable key-value list of strings. Not autoshrinkable
@@ -104,6 +107,9 @@ public class List {
             }
         }
 
+        if (!shifting) {
+            return null;
+        }
         size--;
         data[size] = new MapEntry(null, null);
         return res;
@@ -113,6 +119,30 @@ public class List {
         return size;
     }
 
+    /**
+     * Performs the action for every element without copying internal array
+     * @param action the action which is to be performed
+     */
+    public void forEach(BiConsumer<? super String, ? super String> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(data[i].key, data[i].value);
+        }
+    }
+
+    /** Gets the element by index, which is less than size */
+    MapEntry getEntry(int index) {
+        return data[index];
+    }
+
+    /**
+     * Copies real elements to the beginning of the array. Removed elements are never reused by the list,
+     * so the copied ones keep their keys
+     * @param target the array which is at least of size of the list
+     */
+    void copyData(MapEntry[] target) {
+        System.arraycopy(data, 0, target, 0, size);
+    }
+
     /**
      * Copy-getter of internal array
      * @return Copy of internal array containing only real elements
@@ -121,14 +151,50 @@ public class List {
         return Arrays.copyOf(data, size);
     }
 
-    /** Key-value pair class */
-    class MapEntry {
+    /** Key-value pair class, changing the value of an element contained by the list changes the list */
+    static class MapEntry implements Map.Entry<String, String> {
         public MapEntry(String key, String value) {
             this.key = key;
             this.value = value;
         }
         public String key;
         public String value;
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String getValue() {
+            return value;
+        }
+
+        @Override
+        public String setValue(String value) {
+            String res = this.value;
+            this.value = value;
+            return res;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Map.Entry)) {
+                return false;
+            }
+            var entry = (Map.Entry<?, ?>) other;
+            return Objects.equals(key, entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
     }
 
 }
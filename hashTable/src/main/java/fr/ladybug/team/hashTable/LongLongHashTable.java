@@ -0,0 +1,197 @@
+package fr.ladybug.team.hashTable;
+
+import java.util.Arrays;
+
+import static fr.ladybug.team.hashTable.ResizePolicy.EXPAND_FACTOR;
+import static fr.ladybug.team.hashTable.ResizePolicy.INITIAL_SPACE;
+import static fr.ladybug.team.hashTable.ResizePolicy.MAXIMAL_DENSITY;
+
+/**
+ * Hashtable from long keys to long values with dynamic density. Neither keys nor values are ever boxed,
+ * absence of a value is reported by the missing value chosen at construction.
+ * Entries occupy the beginning of parallel arrays and lists of the hash-space are chained through entry numbers,
+ * so no objects are allocated per entry
+ */
+public class LongLongHashTable {
+
+    private final long missingValue;
+    private int size = 0;
+    /** Number plus one of the first entry of every list, 0 stands for the empty list */
+    private int[] heads;
+    /** Number plus one of the next entry of the same list, 0 stands for the end of the list */
+    private int[] next;
+    private long[] keys;
+    private long[] values;
+
+    /** Constructs empty table with certain initial space, the missing value is 0 */
+    public LongLongHashTable() {
+        this(0);
+    }
+
+    /**
+     * Constructs empty table with certain initial space
+     * @param missingValue the value returned when there is no value by the key
+     */
+    public LongLongHashTable(long missingValue) {
+        this.missingValue = missingValue;
+        allocate(INITIAL_SPACE);
+    }
+
+    /** Allocates the hash-space and room for as many entries as maximal density allows */
+    private void allocate(int space) {
+        int capacity = space * MAXIMAL_DENSITY;
+        heads = new int[space];
+        next = new int[capacity];
+        keys = new long[capacity];
+        values = new long[capacity];
+    }
+
+    /** Mixes all bits of the key, so keys differing in higher bits only do not share a list */
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    private int position(long key) {
+        return hash(key) & (heads.length - 1);
+    }
+
+    /** Finds number of the entry with the key, -1 if there is no such one */
+    private int find(long key) {
+        for (int entry = heads[position(key)]; entry != 0; entry = next[entry - 1]) {
+            if (keys[entry - 1] == key) {
+                return entry - 1;
+            }
+        }
+        return -1;
+    }
+
+    /** Adds the entry to the beginning of its list */
+    private void link(int entry) {
+        int position = position(keys[entry]);
+        next[entry] = heads[position];
+        heads[position] = entry + 1;
+    }
+
+    /** In case of high density expands hash-space. Entries stay in place, only the lists are rebuilt */
+    private void rebuild() {
+        int space = heads.length * EXPAND_FACTOR;
+        int capacity = space * MAXIMAL_DENSITY;
+        heads = new int[space];
+        next = new int[capacity];
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+        for (int entry = 0; entry < size; entry++) {
+            link(entry);
+        }
+    }
+
+    /**
+     * Removes the entry from its list and moves the last entry to its place,
+     * so the entries always occupy the beginning of the arrays
+     * @param previous number plus one of the previous entry of the list, 0 if the entry is the first one
+     */
+    private void unlink(int entry, int previous) {
+        if (previous == 0) {
+            heads[position(keys[entry])] = next[entry];
+        } else {
+            next[previous - 1] = next[entry];
+        }
+
+        size--;
+        int last = size;
+        if (entry != last) {
+            int position = position(keys[last]);
+            if (heads[position] == last + 1) {
+                heads[position] = entry + 1;
+            } else {
+                int current = heads[position];
+                while (next[current - 1] != last + 1) {
+                    current = next[current - 1];
+                }
+                next[current - 1] = entry + 1;
+            }
+            next[entry] = next[last];
+            keys[entry] = keys[last];
+            values[entry] = values[last];
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getMissingValue() {
+        return missingValue;
+    }
+
+    /**
+     * Checks whether key is contained by the table or not
+     * @param key key it searches by
+     * @return boolean true if key is contained
+     */
+    public boolean contains(long key) {
+        return find(key) != -1;
+    }
+
+    /**
+     * Gets value by key
+     * @param key the key it searches by
+     * @return value if exists, the missing value otherwise
+     */
+    public long get(long key) {
+        int entry = find(key);
+        return entry == -1 ? missingValue : values[entry];
+    }
+
+    /**
+     * Adds or changes value by key
+     * @param key the key value of which is to be changed or added
+     * @param value the value which is to be putted
+     * @return previous value of this key, the missing value if doesn't exist
+     */
+    public long put(long key, long value) {
+        int entry = find(key);
+        if (entry != -1) {
+            long res = values[entry];
+            values[entry] = value;
+            return res;
+        }
+
+        if (size == keys.length) {
+            rebuild();
+        }
+        keys[size] = key;
+        values[size] = value;
+        link(size);
+        size++;
+        return missingValue;
+    }
+
+    /**
+     * Removes element with specified key
+     * @param key the key value of which is to be removed
+     * @return last value by this key, the missing value otherwise
+     */
+    public long remove(long key) {
+        int previous = 0;
+        for (int entry = heads[position(key)]; entry != 0; previous = entry, entry = next[entry - 1]) {
+            if (keys[entry - 1] == key) {
+                long res = values[entry - 1];
+                unlink(entry - 1, previous);
+                return res;
+            }
+        }
+        return missingValue;
+    }
+
+    /** Removes all elements from the table, shrink to minimal size */
+    public void clear() {
+        size = 0;
+        allocate(INITIAL_SPACE);
+    }
+}
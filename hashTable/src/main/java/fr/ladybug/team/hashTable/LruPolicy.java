@@ -0,0 +1,31 @@
+package fr.ladybug.team.hashTable;
+
+/** Evicts the least recently used entry */
+class LruPolicy implements EvictionPolicy {
+    private EntryQueue queue = new EntryQueue();
+
+    @Override
+    public void onInsert(CacheEntry entry) {
+        queue.addLast(entry);
+    }
+
+    @Override
+    public void onAccess(CacheEntry entry) {
+        queue.moveToLast(entry);
+    }
+
+    @Override
+    public void onRemove(CacheEntry entry) {
+        queue.remove(entry);
+    }
+
+    @Override
+    public CacheEntry evict() {
+        return queue.pollFirst();
+    }
+
+    @Override
+    public void clear() {
+        queue = new EntryQueue();
+    }
+}
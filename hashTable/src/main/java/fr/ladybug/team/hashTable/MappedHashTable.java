@@ -0,0 +1,404 @@
+package fr.ladybug.team.hashTable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.VarHandle;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Persistent hashtable of strings living in a memory-mapped file.
+ * Keys and values are stored as UTF-8 records appended to the file, and a table of slots with linear probing
+ * points to them, so reopening the file takes no time and stored data puts no pressure on GC.
+ * Every change is prepared beyond the used part of the file and then published through a one-entry redo journal
+ * in the header, so the file stays consistent if the process dies at any moment. It is durable against power loss
+ * after {@link #flush()}. Space of removed and overwritten records is reclaimed by {@link #clear()} only.
+ * The file is mapped at once, so it can not outgrow 2 GB.
+ * Every growth of the file maps it anew and the old mapping is released by GC only, so the file grows
+ * four times and at least to a megabyte at once, which takes about eight mappings on the way to 2 GB
+ */
+public class MappedHashTable implements Closeable {
+
+    private static final int MAGIC = 0x4c424d48;
+    private static final int VERSION = 1;
+    /** Initial number of slots taken by the table, always a power of two */
+    private static final int INITIAL_CAPACITY = 16;
+    /** Maximal load of the table in percents, where load = (size + removed slots) / capacity */
+    private static final int MAXIMAL_LOAD_PERCENT = 75;
+    /** A number representing the factor of capacity expansion */
+    private static final int EXPAND_FACTOR = 2;
+    private static final int SLOT_SIZE = 16;
+    /** Slot offset of a removed entry. Offset of a free slot is 0, since the header is never a record */
+    private static final long REMOVED = -1;
+    private static final long MAXIMAL_FILE_SIZE = Integer.MAX_VALUE;
+    /** A number representing the factor of file expansion, large since every expansion maps the file anew */
+    private static final int FILE_EXPAND_FACTOR = 4;
+    private static final long MINIMAL_FILE_LENGTH = 1 << 20;
+
+    /* Header layout: the state of the table and the journal holding the next state */
+    private static final int MAGIC_POSITION = 0;
+    private static final int VERSION_POSITION = 4;
+    private static final int STATE_POSITION = 8;
+    private static final int JOURNAL_FLAG_POSITION = 40;
+    private static final int JOURNAL_POSITION = 48;
+    /* Layout of a state, relative to its position */
+    private static final int TABLE_OFFSET = 0;
+    private static final int DATA_END = 8;
+    private static final int CAPACITY = 16;
+    private static final int SIZE = 20;
+    private static final int USED = 24;
+    /* Slot change of a journal, relative to its position */
+    private static final int SLOT_INDEX = 32;
+    private static final int SLOT_HASH = 36;
+    private static final int SLOT_OFFSET = 40;
+    private static final int HEADER_SIZE = 128;
+    /** Length of the file holding an empty table, a file of this length without magic is one whose creation failed */
+    private static final long INITIAL_LENGTH = HEADER_SIZE + (long) INITIAL_CAPACITY * SLOT_SIZE;
+
+    private final Path file;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    private long tableOffset;
+    private long dataEnd;
+    private int capacity;
+    private int size;
+    /** Number of slots which are not free, removed ones included */
+    private int used;
+
+    /**
+     * Opens the table stored in the file, or creates an empty one if the file does not exist or is empty.
+     * A file whose creation was not finished is considered empty, any other file which is not a table is left intact
+     * @param file the file backing the table
+     * @throws IOException the exception is thrown when the file can not be mapped or is not a table
+     */
+    public MappedHashTable(Path file) throws IOException {
+        this.file = file;
+        open();
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long length = channel.size();
+        if (length == 0 || length == INITIAL_LENGTH
+                && channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).getInt(MAGIC_POSITION) == 0) {
+            initialize(channel);
+        } else if (length < INITIAL_LENGTH) {
+            channel.close();
+            throw new IOException("The file is not a hashtable");
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (buffer.getInt(MAGIC_POSITION) != MAGIC || buffer.getInt(VERSION_POSITION) != VERSION) {
+            channel.close();
+            throw new IOException("The file is not a hashtable");
+        }
+        if (buffer.getInt(JOURNAL_FLAG_POSITION) != 0) {
+            applyJournal();
+        }
+        tableOffset = buffer.getLong(STATE_POSITION + TABLE_OFFSET);
+        dataEnd = buffer.getLong(STATE_POSITION + DATA_END);
+        capacity = buffer.getInt(STATE_POSITION + CAPACITY);
+        size = buffer.getInt(STATE_POSITION + SIZE);
+        used = buffer.getInt(STATE_POSITION + USED);
+    }
+
+    /** Writes an empty table to the channel. The magic is written last, so a half-written file is not accepted */
+    private static void initialize(FileChannel channel) throws IOException {
+        long tableEnd = INITIAL_LENGTH;
+        channel.truncate(0);
+        var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, tableEnd);
+        buffer.putInt(VERSION_POSITION, VERSION);
+        buffer.putLong(STATE_POSITION + TABLE_OFFSET, HEADER_SIZE);
+        buffer.putLong(STATE_POSITION + DATA_END, tableEnd);
+        buffer.putInt(STATE_POSITION + CAPACITY, INITIAL_CAPACITY);
+        buffer.force();
+        buffer.putInt(MAGIC_POSITION, MAGIC);
+        buffer.force();
+    }
+
+    /**
+     * Publishes the next state of the table. It is written to the journal first and then copied to the state,
+     * so the change is either completely done or, if the process dies in between, redone on the next open
+     * @param slot index of the slot to change in the next table, -1 if no slot is changed
+     * @param slotHash the hash to write to the slot
+     * @param slotOffset the record offset to write to the slot
+     */
+    private void commit(long tableOffset, long dataEnd, int capacity, int size, int used,
+                        int slot, int slotHash, long slotOffset) {
+        buffer.putLong(JOURNAL_POSITION + TABLE_OFFSET, tableOffset);
+        buffer.putLong(JOURNAL_POSITION + DATA_END, dataEnd);
+        buffer.putInt(JOURNAL_POSITION + CAPACITY, capacity);
+        buffer.putInt(JOURNAL_POSITION + SIZE, size);
+        buffer.putInt(JOURNAL_POSITION + USED, used);
+        buffer.putInt(JOURNAL_POSITION + SLOT_INDEX, slot);
+        buffer.putInt(JOURNAL_POSITION + SLOT_HASH, slotHash);
+        buffer.putLong(JOURNAL_POSITION + SLOT_OFFSET, slotOffset);
+        VarHandle.storeStoreFence();
+        buffer.putInt(JOURNAL_FLAG_POSITION, 1);
+        VarHandle.storeStoreFence();
+        applyJournal();
+
+        this.tableOffset = tableOffset;
+        this.dataEnd = dataEnd;
+        this.capacity = capacity;
+        this.size = size;
+        this.used = used;
+    }
+
+    /** Copies the journal to the state. Doing it twice is harmless */
+    private void applyJournal() {
+        long journalTableOffset = buffer.getLong(JOURNAL_POSITION + TABLE_OFFSET);
+        int slot = buffer.getInt(JOURNAL_POSITION + SLOT_INDEX);
+        if (slot >= 0) {
+            long slotPosition = journalTableOffset + (long) slot * SLOT_SIZE;
+            buffer.putInt((int) slotPosition + 8, buffer.getInt(JOURNAL_POSITION + SLOT_HASH));
+            buffer.putLong((int) slotPosition, buffer.getLong(JOURNAL_POSITION + SLOT_OFFSET));
+        }
+        buffer.putLong(STATE_POSITION + TABLE_OFFSET, journalTableOffset);
+        buffer.putLong(STATE_POSITION + DATA_END, buffer.getLong(JOURNAL_POSITION + DATA_END));
+        buffer.putInt(STATE_POSITION + CAPACITY, buffer.getInt(JOURNAL_POSITION + CAPACITY));
+        buffer.putInt(STATE_POSITION + SIZE, buffer.getInt(JOURNAL_POSITION + SIZE));
+        buffer.putInt(STATE_POSITION + USED, buffer.getInt(JOURNAL_POSITION + USED));
+        VarHandle.storeStoreFence();
+        buffer.putInt(JOURNAL_FLAG_POSITION, 0);
+    }
+
+    /**
+     * Makes the file at least of the needed length. Only the part after the used one is affected,
+     * so the file stays consistent if the process dies during growth
+     */
+    private void ensureLength(long needed) {
+        if (needed <= buffer.capacity()) {
+            return;
+        }
+        if (needed > MAXIMAL_FILE_SIZE) {
+            throw new IllegalStateException("The file can not outgrow 2 GB");
+        }
+        long length = Math.max(MINIMAL_FILE_LENGTH, (long) buffer.capacity() * FILE_EXPAND_FACTOR);
+        length = Math.min(MAXIMAL_FILE_SIZE, Math.max(needed, length));
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow the file", e);
+        }
+    }
+
+    /** Spreads higher bits of the hash code to the lower ones, since only the lower ones are used by the mask */
+    private static int spread(int hashCode) {
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    private int slotPosition(int slot) {
+        return (int) (tableOffset + (long) slot * SLOT_SIZE);
+    }
+
+    /**
+     * Finds the slot of the key
+     * @return index of the slot containing the key, or -(index + 1) of the first slot where the key can be placed
+     */
+    private int find(byte[] key, int hash) {
+        int mask = capacity - 1;
+        int position = hash & mask;
+        int firstRemoved = -1;
+        while (true) {
+            long offset = buffer.getLong(slotPosition(position));
+            if (offset == 0) {
+                return -((firstRemoved == -1 ? position : firstRemoved) + 1);
+            }
+            if (offset == REMOVED) {
+                if (firstRemoved == -1) {
+                    firstRemoved = position;
+                }
+            } else if (buffer.getInt(slotPosition(position) + 8) == hash && keyEquals(offset, key)) {
+                return position;
+            }
+            position = (position + 1) & mask;
+        }
+    }
+
+    private boolean keyEquals(long offset, byte[] key) {
+        int record = (int) offset;
+        if (buffer.getInt(record) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (buffer.get(record + 8 + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String readValue(long offset) {
+        int record = (int) offset;
+        int keyLength = buffer.getInt(record);
+        int valueLength = buffer.getInt(record + 4);
+        if (valueLength < 0) {
+            return null;
+        }
+        byte[] value = new byte[valueLength];
+        buffer.position(record + 8 + keyLength);
+        buffer.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /** Writes the record after the used part of the file, it is not published yet */
+    private long appendRecord(byte[] key, byte[] value) {
+        long offset = dataEnd;
+        ensureLength(offset + 8 + key.length + (value == null ? 0 : value.length));
+        int record = (int) offset;
+        buffer.putInt(record, key.length);
+        buffer.putInt(record + 4, value == null ? -1 : value.length);
+        buffer.position(record + 8);
+        buffer.put(key);
+        if (value != null) {
+            buffer.put(value);
+        }
+        return offset;
+    }
+
+    /**
+     * Writes a table of the new capacity holding all entries after the used part of the file and switches to it.
+     * Removed slots are dropped, so the capacity is kept if they are the reason of high load
+     */
+    private void rebuild() {
+        int newCapacity = capacity;
+        if ((long) (size + 1) * 200 > (long) capacity * MAXIMAL_LOAD_PERCENT) {
+            newCapacity *= EXPAND_FACTOR;
+        }
+        long newTableOffset = (dataEnd + 7) / 8 * 8;
+        long newDataEnd = newTableOffset + (long) newCapacity * SLOT_SIZE;
+        ensureLength(newDataEnd);
+        for (long position = newTableOffset; position < newDataEnd; position += 8) {
+            buffer.putLong((int) position, 0);
+        }
+
+        int mask = newCapacity - 1;
+        for (int slot = 0; slot < capacity; slot++) {
+            long offset = buffer.getLong(slotPosition(slot));
+            if (offset == 0 || offset == REMOVED) {
+                continue;
+            }
+            int hash = buffer.getInt(slotPosition(slot) + 8);
+            int position = hash & mask;
+            while (buffer.getLong((int) (newTableOffset + (long) position * SLOT_SIZE)) != 0) {
+                position = (position + 1) & mask;
+            }
+            int newSlotPosition = (int) (newTableOffset + (long) position * SLOT_SIZE);
+            buffer.putInt(newSlotPosition + 8, hash);
+            buffer.putLong(newSlotPosition, offset);
+        }
+        commit(newTableOffset, newDataEnd, newCapacity, size, size, -1, 0, 0);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Checks whether key is contained by the table or not
+     * @param key key it searches by
+     * @return boolean true if key is contained
+     */
+    public boolean contains(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        return find(bytes, spread(key.hashCode())) >= 0;
+    }
+
+    /**
+     * Gets value by key
+     * @param key the key it searches by
+     * @return value if exists, null otherwise
+     */
+    public String get(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int slot = find(bytes, spread(key.hashCode()));
+        return slot < 0 ? null : readValue(buffer.getLong(slotPosition(slot)));
+    }
+
+    /**
+     * Adds or changes value by key
+     * @param key the key value of which is to be changed or added
+     * @param value the value which is to be putted
+     * @return previous value of this key, null if doesn't exist
+     */
+    public String put(String key, String value) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        byte[] valueBytes = value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        int hash = spread(key.hashCode());
+        int slot = find(keyBytes, hash);
+        if (slot < 0 && (long) (used + 1) * 100 > (long) capacity * MAXIMAL_LOAD_PERCENT) {
+            rebuild();
+            slot = find(keyBytes, hash);
+        }
+
+        long offset = appendRecord(keyBytes, valueBytes);
+        long newDataEnd = offset + 8 + keyBytes.length + (valueBytes == null ? 0 : valueBytes.length);
+        if (slot >= 0) {
+            String res = readValue(buffer.getLong(slotPosition(slot)));
+            commit(tableOffset, newDataEnd, capacity, size, used, slot, hash, offset);
+            return res;
+        }
+        slot = -slot - 1;
+        boolean takesFreeSlot = buffer.getLong(slotPosition(slot)) == 0;
+        commit(tableOffset, newDataEnd, capacity, size + 1, takesFreeSlot ? used + 1 : used, slot, hash, offset);
+        return null;
+    }
+
+    /**
+     * Removes element with specified key
+     * @param key the key value of which is to be removed
+     * @return last value by this key, null otherwise
+     */
+    public String remove(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int hash = spread(key.hashCode());
+        int slot = find(bytes, hash);
+        if (slot < 0) {
+            return null;
+        }
+        String res = readValue(buffer.getLong(slotPosition(slot)));
+        commit(tableOffset, dataEnd, capacity, size - 1, used, slot, hash, REMOVED);
+        return res;
+    }
+
+    /**
+     * Removes all elements from the table, shrink to minimal size.
+     * An empty table is written to a new file which then atomically replaces the current one
+     */
+    public void clear() {
+        try {
+            close();
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try (var temporaryChannel = FileChannel.open(temporary,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                initialize(temporaryChannel);
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot clear the file", e);
+        }
+    }
+
+    /** Forces all changes to the storage device */
+    public void flush() {
+        buffer.force();
+    }
+
+    /**
+     * Flushes the table and closes the file
+     * @throws IOException the exception is thrown when the file can not be closed properly
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
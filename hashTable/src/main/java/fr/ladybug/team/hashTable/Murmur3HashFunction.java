@@ -0,0 +1,87 @@
+package fr.ladybug.team.hashTable;
+
+/**
+ * Seeded 32-bit MurmurHash3 of UTF-8 bytes of the key.
+ * The bytes are produced on the fly, so hashing does not allocate anything
+ */
+public class Murmur3HashFunction implements HashFunction {
+    private static final int C1 = 0xcc9e2d51;
+    private static final int C2 = 0x1b873593;
+
+    private final int seed;
+
+    /**
+     * Constructs hash function with the seed
+     * @param seed the seed, keys collide for different seeds independently
+     */
+    public Murmur3HashFunction(int seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public int hash(String key) {
+        int h = seed;
+        /* Little-endian block being filled and number of bytes in it */
+        int block = 0;
+        int blockLength = 0;
+        int length = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            /* UTF-8 bytes of the character, the first one is the lowest */
+            int bytes;
+            int count;
+            if (c < 0x80) {
+                bytes = c;
+                count = 1;
+            } else if (c < 0x800) {
+                bytes = (0xc0 | c >> 6) | (0x80 | c & 0x3f) << 8;
+                count = 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < key.length()
+                    && Character.isLowSurrogate(key.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, key.charAt(++i));
+                bytes = (0xf0 | codePoint >> 18) | (0x80 | codePoint >> 12 & 0x3f) << 8
+                        | (0x80 | codePoint >> 6 & 0x3f) << 16 | (0x80 | codePoint & 0x3f) << 24;
+                count = 4;
+            } else if (Character.isSurrogate(c)) {
+                /* Unpaired surrogate is encoded as '?', the same way String.getBytes does */
+                bytes = '?';
+                count = 1;
+            } else {
+                bytes = (0xe0 | c >> 12) | (0x80 | c >> 6 & 0x3f) << 8 | (0x80 | c & 0x3f) << 16;
+                count = 3;
+            }
+
+            length += count;
+            for (int j = 0; j < count; j++) {
+                block |= (bytes >>> (8 * j) & 0xff) << (8 * blockLength);
+                blockLength++;
+                if (blockLength == 4) {
+                    h ^= mixBlock(block);
+                    h = Integer.rotateLeft(h, 13) * 5 + 0xe6546b64;
+                    block = 0;
+                    blockLength = 0;
+                }
+            }
+        }
+        if (blockLength > 0) {
+            h ^= mixBlock(block);
+        }
+
+        h ^= length;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int mixBlock(int block) {
+        return Integer.rotateLeft(block * C1, 15) * C2;
+    }
+
+    @Override
+    public HashFunction reseeded(int seed) {
+        return new Murmur3HashFunction(seed);
+    }
+}
@@ -0,0 +1,188 @@
+package fr.ladybug.team.hashTable;
+
+import java.util.Arrays;
+
+import static fr.ladybug.team.hashTable.ResizePolicy.EXPAND_FACTOR;
+import static fr.ladybug.team.hashTable.ResizePolicy.INITIAL_SPACE;
+import static fr.ladybug.team.hashTable.ResizePolicy.MAXIMAL_DENSITY;
+
+/**
+ * Generic hashtable with dynamic density.
+ * Entries occupy the beginning of parallel arrays and lists of the hash-space are chained through entry numbers,
+ * so no objects are allocated per entry
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public class ObjectObjectHashTable<K, V> {
+
+    private int size = 0;
+    /** Number plus one of the first entry of every list, 0 stands for the empty list */
+    private int[] heads;
+    /** Number plus one of the next entry of the same list, 0 stands for the end of the list */
+    private int[] next;
+    private int[] hashes;
+    private Object[] keys;
+    private Object[] values;
+
+    /** Constructs empty table with certain initial space */
+    public ObjectObjectHashTable() {
+        allocate(INITIAL_SPACE);
+    }
+
+    /** Allocates the hash-space and room for as many entries as maximal density allows */
+    private void allocate(int space) {
+        int capacity = space * MAXIMAL_DENSITY;
+        heads = new int[space];
+        next = new int[capacity];
+        hashes = new int[capacity];
+        keys = new Object[capacity];
+        values = new Object[capacity];
+    }
+
+    /** Spreads higher bits of the hash code to the lower ones, since only the lower ones are used by the mask */
+    private static int hash(Object key) {
+        int hashCode = key.hashCode();
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    /** Finds number of the entry with the key, -1 if there is no such one */
+    private int find(Object key, int hash) {
+        for (int entry = heads[hash & (heads.length - 1)]; entry != 0; entry = next[entry - 1]) {
+            if (hashes[entry - 1] == hash && keys[entry - 1].equals(key)) {
+                return entry - 1;
+            }
+        }
+        return -1;
+    }
+
+    /** Adds the entry to the beginning of its list */
+    private void link(int entry) {
+        int position = hashes[entry] & (heads.length - 1);
+        next[entry] = heads[position];
+        heads[position] = entry + 1;
+    }
+
+    /** In case of high density expands hash-space. Entries stay in place, only the lists are rebuilt */
+    private void rebuild() {
+        int space = heads.length * EXPAND_FACTOR;
+        int capacity = space * MAXIMAL_DENSITY;
+        heads = new int[space];
+        next = new int[capacity];
+        hashes = Arrays.copyOf(hashes, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+        for (int entry = 0; entry < size; entry++) {
+            link(entry);
+        }
+    }
+
+    /**
+     * Removes the entry from its list and moves the last entry to its place,
+     * so the entries always occupy the beginning of the arrays
+     * @param previous number plus one of the previous entry of the list, 0 if the entry is the first one
+     */
+    private void unlink(int entry, int previous) {
+        if (previous == 0) {
+            heads[hashes[entry] & (heads.length - 1)] = next[entry];
+        } else {
+            next[previous - 1] = next[entry];
+        }
+
+        size--;
+        int last = size;
+        if (entry != last) {
+            int position = hashes[last] & (heads.length - 1);
+            if (heads[position] == last + 1) {
+                heads[position] = entry + 1;
+            } else {
+                int current = heads[position];
+                while (next[current - 1] != last + 1) {
+                    current = next[current - 1];
+                }
+                next[current - 1] = entry + 1;
+            }
+            next[entry] = next[last];
+            hashes[entry] = hashes[last];
+            keys[entry] = keys[last];
+            values[entry] = values[last];
+        }
+        keys[last] = null;
+        values[last] = null;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Checks whether key is contained by the table or not
+     * @param key key it searches by
+     * @return boolean true if key is contained
+     */
+    public boolean contains(K key) {
+        return find(key, hash(key)) != -1;
+    }
+
+    /**
+     * Gets value by key
+     * @param key the key it searches by
+     * @return value if exists, null otherwise
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int entry = find(key, hash(key));
+        return entry == -1 ? null : (V) values[entry];
+    }
+
+    /**
+     * Adds or changes value by key
+     * @param key the key value of which is to be changed or added
+     * @param value the value which is to be putted
+     * @return previous value of this key, null if doesn't exist
+     */
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        int hash = hash(key);
+        int entry = find(key, hash);
+        if (entry != -1) {
+            V res = (V) values[entry];
+            values[entry] = value;
+            return res;
+        }
+
+        if (size == keys.length) {
+            rebuild();
+        }
+        hashes[size] = hash;
+        keys[size] = key;
+        values[size] = value;
+        link(size);
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes element with specified key
+     * @param key the key value of which is to be removed
+     * @return last value by this key, null otherwise
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(K key) {
+        int hash = hash(key);
+        int previous = 0;
+        for (int entry = heads[hash & (heads.length - 1)]; entry != 0; previous = entry, entry = next[entry - 1]) {
+            if (hashes[entry - 1] == hash && keys[entry - 1].equals(key)) {
+                V res = (V) values[entry - 1];
+                unlink(entry - 1, previous);
+                return res;
+            }
+        }
+        return null;
+    }
+
+    /** Removes all elements from the table, shrink to minimal size */
+    public void clear() {
+        size = 0;
+        allocate(INITIAL_SPACE);
+    }
+}
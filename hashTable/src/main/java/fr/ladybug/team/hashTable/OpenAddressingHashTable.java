@@ -0,0 +1,164 @@
+package fr.ladybug.team.hashTable;
+
+/**
+ * Hashtable of strings with open addressing. Entries are kept in parallel arrays of keys, values and hashes
+ * and collisions are resolved by linear probing, so no objects are allocated per entry
+ */
+public class OpenAddressingHashTable {
+
+    /** Initial number of slots taken by the table, always a power of two */
+    private final int INITIAL_CAPACITY = 8;
+    /** Maximal load of the table in percents, where load = size / capacity */
+    private final int MAXIMAL_LOAD_PERCENT = 75;
+    /** A number representing the factor of capacity expansion */
+    private final int EXPAND_FACTOR = 2;
+    private int size = 0;
+    /** Keys of the entries, null marks a free slot */
+    private String[] keys;
+    private String[] values;
+    /** Spread hashes of the keys, used to skip most of equals calls */
+    private int[] hashes;
+
+    /** Spreads higher bits of the hash code to the lower ones, since only the lower ones are used by the mask */
+    private static int spread(int hashCode) {
+        return hashCode ^ (hashCode >>> 16);
+    }
+
+    /** Constructs empty table with certain initial capacity */
+    public OpenAddressingHashTable() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    private void allocate(int capacity) {
+        keys = new String[capacity];
+        values = new String[capacity];
+        hashes = new int[capacity];
+    }
+
+    /**
+     * Finds the slot of the key
+     * @param key the key it searches by
+     * @param hash spread hash of the key
+     * @return index of the slot containing the key or index of the free slot where the key is to be placed
+     */
+    private int find(String key, int hash) {
+        int mask = keys.length - 1;
+        int position = hash & mask;
+        while (keys[position] != null) {
+            if (hashes[position] == hash && keys[position].equals(key)) {
+                return position;
+            }
+            position = (position + 1) & mask;
+        }
+        return position;
+    }
+
+    /** In case of high load expands the arrays and reinserts all entries */
+    private void rebuild() {
+        String[] oldKeys = keys;
+        String[] oldValues = values;
+        int[] oldHashes = hashes;
+        allocate(keys.length * EXPAND_FACTOR);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == null) {
+                continue;
+            }
+            int position = oldHashes[i] & mask;
+            while (keys[position] != null) {
+                position = (position + 1) & mask;
+            }
+            keys[position] = oldKeys[i];
+            values[position] = oldValues[i];
+            hashes[position] = oldHashes[i];
+        }
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Checks whether key is contained by the table or not
+     * @param key key it searches by
+     * @return boolean true if key is contained
+     */
+    public boolean contains(String key) {
+        return keys[find(key, spread(key.hashCode()))] != null;
+    }
+
+    /**
+     * Gets value by key
+     * @param key the key it searches by
+     * @return value if exists, null otherwise
+     */
+    public String get(String key) {
+        return values[find(key, spread(key.hashCode()))];
+    }
+
+    /**
+     * Adds or changes value by key
+     * @param key the key value of which is to be changed or added
+     * @param value the value which is to be putted
+     * @return previous value of this key, null if doesn't exist
+     */
+    public String put(String key, String value) {
+        int hash = spread(key.hashCode());
+        int position = find(key, hash);
+        String res = values[position];
+        if (keys[position] == null) {
+            keys[position] = key;
+            hashes[position] = hash;
+            size++;
+        }
+        values[position] = value;
+        if ((long) size * 100 > (long) keys.length * MAXIMAL_LOAD_PERCENT) {
+            rebuild();
+        }
+        return res;
+    }
+
+    /**
+     * Removes element with specified key.
+     * Following entries of the probe sequence are shifted back, so the table never contains tombstones
+     * @param key the key value of which is to be removed
+     * @return last value by this key, null otherwise
+     */
+    public String remove(String key) {
+        int position = find(key, spread(key.hashCode()));
+        if (keys[position] == null) {
+            return null;
+        }
+        String res = values[position];
+        size--;
+
+        int mask = keys.length - 1;
+        int next = position;
+        while (true) {
+            next = (next + 1) & mask;
+            if (keys[next] == null) {
+                break;
+            }
+            int ideal = hashes[next] & mask;
+            boolean staysInPlace = position <= next
+                    ? position < ideal && ideal <= next
+                    : position < ideal || ideal <= next;
+            if (!staysInPlace) {
+                keys[position] = keys[next];
+                values[position] = values[next];
+                hashes[position] = hashes[next];
+                position = next;
+            }
+        }
+        keys[position] = null;
+        values[position] = null;
+        hashes[position] = 0;
+        return res;
+    }
+
+    /** Removes all elements from the table, shrink to minimal size */
+    public void clear() {
+        size = 0;
+        allocate(INITIAL_CAPACITY);
+    }
+}
@@ -0,0 +1,14 @@
+package fr.ladybug.team.hashTable;
+
+/** Constants deciding when and how the chained tables expand their hash-space */
+final class ResizePolicy {
+    /** Initial hash-space taken by the table */
+    static final int INITIAL_SPACE = 2;
+    /** Maximal average density of the table, where density = size / hash-space */
+    static final int MAXIMAL_DENSITY = 2;
+    /** A number representing the factor of hash-space expansion */
+    static final int EXPAND_FACTOR = 2;
+
+    private ResizePolicy() {
+    }
+}
@@ -0,0 +1,14 @@
+package fr.ladybug.team.hashTable;
+
+/** Hash function using {@link String#hashCode()}. It falls back to seeded Murmur3 when keys collide too much */
+public class StringHashFunction implements HashFunction {
+    @Override
+    public int hash(String key) {
+        return key.hashCode();
+    }
+
+    @Override
+    public HashFunction reseeded(int seed) {
+        return new Murmur3HashFunction(seed);
+    }
+}
@@ -0,0 +1,80 @@
+package fr.ladybug.team.hashTable;
+
+/**
+ * W-TinyLFU policy. New entries come to a small LRU window, entries leaving the window compete
+ * with the victim of the main segmented LRU, and the one estimated by {@link FrequencySketch}
+ * as more frequent stays. The main part keeps entries seen once in probation
+ * and protects the ones hit there, so bursts of new keys do not wash out popular ones
+ */
+class TinyLfuPolicy implements EvictionPolicy {
+    private static final int WINDOW_PERCENT = 1;
+    private static final int PROTECTED_PERCENT = 80;
+
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+    private final FrequencySketch sketch;
+    private EntryQueue window = new EntryQueue();
+    private EntryQueue probation = new EntryQueue();
+    private EntryQueue protectedQueue = new EntryQueue();
+
+    /** Constructs policy for the cache holding at most capacity entries */
+    TinyLfuPolicy(int capacity) {
+        windowCapacity = Math.max(1, capacity * WINDOW_PERCENT / 100);
+        mainCapacity = Math.max(0, capacity - windowCapacity);
+        protectedCapacity = mainCapacity * PROTECTED_PERCENT / 100;
+        sketch = new FrequencySketch(capacity);
+    }
+
+    @Override
+    public void onInsert(CacheEntry entry) {
+        sketch.increment(entry.key);
+        window.addLast(entry);
+        if (window.getSize() > windowCapacity) {
+            probation.addLast(window.pollFirst());
+        }
+    }
+
+    @Override
+    public void onAccess(CacheEntry entry) {
+        sketch.increment(entry.key);
+        if (entry.queue == probation) {
+            probation.remove(entry);
+            protectedQueue.addLast(entry);
+            if (protectedQueue.getSize() > protectedCapacity) {
+                probation.addLast(protectedQueue.pollFirst());
+            }
+        } else {
+            entry.queue.moveToLast(entry);
+        }
+    }
+
+    @Override
+    public void onRemove(CacheEntry entry) {
+        entry.queue.remove(entry);
+    }
+
+    @Override
+    public CacheEntry evict() {
+        CacheEntry candidate = null;
+        if (window.getSize() == windowCapacity) {
+            candidate = window.pollFirst();
+            probation.addLast(candidate);
+        }
+
+        CacheEntry victim = probation.getSize() > 0 ? probation.peekFirst() : protectedQueue.peekFirst();
+        if (candidate != null && candidate != victim && sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+            victim = candidate;
+        }
+        victim.queue.remove(victim);
+        return victim;
+    }
+
+    @Override
+    public void clear() {
+        window = new EntryQueue();
+        probation = new EntryQueue();
+        protectedQueue = new EntryQueue();
+        sketch.clear();
+    }
+}
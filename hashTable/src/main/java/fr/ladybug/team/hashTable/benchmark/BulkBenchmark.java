@@ -0,0 +1,106 @@
+package fr.ladybug.team.hashTable.benchmark;
+
+import fr.ladybug.team.hashTable.HashTable;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares bulk operations of {@link HashTable} with loops of single operations doing the same.
+ * Tables filled by the loops are presized as the bulk operations presize theirs, except the loop of put,
+ * whose difference from putAll is presizing.
+ * Usage: BulkBenchmark [number of keys...], 10^6 and 10^7 keys by default
+ */
+public class BulkBenchmark {
+    public static void main(String[] args) {
+        int[] counts = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[] {1_000_000, 10_000_000};
+
+        for (int count : counts) {
+            String[] keys = new String[count];
+            var map = new HashMap<String, String>();
+            for (int i = 0; i < count; i++) {
+                keys[i] = "key" + i;
+                map.put(keys[i], keys[i]);
+            }
+            List<String> halfOfKeys = new ArrayList<>(Arrays.asList(keys).subList(0, count / 2));
+
+            for (int round = 0; round < 2; round++) {
+                System.out.println(String.format("Round %d, %d keys", round, count));
+
+                var table = new HashTable();
+                long start = System.nanoTime();
+                for (String key : keys) {
+                    table.put(key, key);
+                }
+                report("loop of put", start);
+
+                table = new HashTable();
+                start = System.nanoTime();
+                table.putAll(map);
+                report("putAll(Map)", start);
+
+                table = new HashTable();
+                start = System.nanoTime();
+                table.putAll(entries(keys), count);
+                report("putAll(Iterator)", start);
+
+                // the result is presized as getAll presizes it, so only the lookups are compared
+                start = System.nanoTime();
+                var found = new HashTable();
+                found.ensureCapacity(halfOfKeys.size());
+                for (String key : halfOfKeys) {
+                    found.put(key, table.get(key));
+                }
+                report("loop of get", start);
+
+                start = System.nanoTime();
+                found = table.getAll(halfOfKeys);
+                report("getAll", start);
+
+                var copy = new HashTable();
+                copy.putAll(map);
+                start = System.nanoTime();
+                for (String key : halfOfKeys) {
+                    copy.remove(key);
+                }
+                report("loop of remove", start);
+
+                start = System.nanoTime();
+                table.removeAll(halfOfKeys);
+                report("removeAll", start);
+                if (found.getSize() != table.getSize() || copy.getSize() != table.getSize()) {
+                    throw new IllegalStateException("Bulk and single operations disagree");
+                }
+            }
+        }
+    }
+
+    /** Produces entries one by one without collecting them */
+    private static Iterator<Map.Entry<String, String>> entries(String[] keys) {
+        return new Iterator<>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < keys.length;
+            }
+
+            @Override
+            public Map.Entry<String, String> next() {
+                String key = keys[index++];
+                return new AbstractMap.SimpleImmutableEntry<>(key, key);
+            }
+        };
+    }
+
+    private static void report(String name, long start) {
+        System.out.println(String.format("%-18s %8.1f ms", name, (double) (System.nanoTime() - start) / 1000000));
+    }
+}
@@ -0,0 +1,71 @@
+package fr.ladybug.team.hashTable.benchmark;
+
+import fr.ladybug.team.hashTable.CachingHashTable;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Replays the same Zipfian trace of reads against caches with different eviction policies.
+ * On a miss the value is putted, as a cache in front of a slow storage does.
+ * Reports hit ratio and time per request, which must not grow with capacity since every operation is O(1).
+ * The trace is replayed in three rounds, only the last one is free of interpreted cache operations.
+ * Usage: CacheBenchmark [number of distinct keys] [number of requests] [Zipf exponent]
+ */
+public class CacheBenchmark {
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000;
+        double exponent = args.length > 2 ? Double.parseDouble(args[2]) : 0.99;
+
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = "key" + i;
+        }
+        int[] trace = zipfianTrace(count, requests, exponent, new Random(42));
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(String.format("Round %d, %d keys, %d requests, exponent %.2f",
+                    round, count, requests, exponent));
+            for (int capacity : new int[] {count / 1000, count / 100, count / 10}) {
+                for (var eviction : CachingHashTable.Eviction.values()) {
+                    var cache = new CachingHashTable(capacity, eviction);
+                    long start = System.nanoTime();
+                    for (int key : trace) {
+                        if (cache.get(keys[key]) == null) {
+                            cache.put(keys[key], keys[key]);
+                        }
+                    }
+                    long time = System.nanoTime() - start;
+                    System.out.println(String.format("%-10s capacity %8d: hit ratio %5.1f%%, %6.1f ns/request",
+                            eviction, capacity, 100.0 * cache.getHitCount() / requests, (double) time / requests));
+                }
+            }
+        }
+    }
+
+    /** Draws keys so that the probability of the key of rank k is proportional to 1 / k^exponent */
+    private static int[] zipfianTrace(int count, int requests, double exponent, Random random) {
+        double[] cumulative = new double[count];
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulative[i] = sum;
+        }
+
+        int[] permutation = new int[count];
+        for (int i = 0; i < count; i++) {
+            int j = random.nextInt(i + 1);
+            permutation[i] = permutation[j];
+            permutation[j] = i;
+        }
+
+        int[] trace = new int[requests];
+        for (int i = 0; i < requests; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * sum);
+            rank = rank < 0 ? -rank - 1 : rank;
+            trace[i] = permutation[Math.min(rank, count - 1)];
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,59 @@
+package fr.ladybug.team.hashTable.benchmark;
+
+import fr.ladybug.team.hashTable.HashFunction;
+import fr.ladybug.team.hashTable.HashTable;
+import fr.ladybug.team.hashTable.Murmur3HashFunction;
+import fr.ladybug.team.hashTable.StringHashFunction;
+
+import java.util.function.Supplier;
+
+/**
+ * Hash-flooding attack on {@link HashTable}: all keys have equal {@link String#hashCode()}.
+ * Compares plain String.hashCode without protection, default hash function falling back to seeded Murmur3,
+ * and seeded Murmur3 from the start, on the colliding keys and on ordinary ones.
+ * Usage: CollisionBenchmark [log2 of number of keys]
+ */
+public class CollisionBenchmark {
+    public static void main(String[] args) {
+        int blocks = args.length > 0 ? Integer.parseInt(args[0]) : 15;
+        String[] collidingKeys = new String[1 << blocks];
+        String[] ordinaryKeys = new String[1 << blocks];
+        for (int i = 0; i < collidingKeys.length; i++) {
+            var builder = new StringBuilder();
+            for (int j = 0; j < blocks; j++) {
+                builder.append((i >> j & 1) == 0 ? "Aa" : "BB");
+            }
+            collidingKeys[i] = builder.toString();
+            ordinaryKeys[i] = "key" + i;
+        }
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(String.format("Round %d, %d keys", round, collidingKeys.length));
+            run("String.hashCode, unprotected", () -> String::hashCode, collidingKeys, ordinaryKeys);
+            run("String.hashCode with fallback", StringHashFunction::new, collidingKeys, ordinaryKeys);
+            int seed = round;
+            run("Murmur3", () -> new Murmur3HashFunction(seed), collidingKeys, ordinaryKeys);
+        }
+    }
+
+    private static void run(String name, Supplier<HashFunction> hashFunction, String[] collidingKeys,
+                            String[] ordinaryKeys) {
+        System.out.println(String.format("%-30s colliding %9.1f ms, ordinary %7.1f ms", name,
+                fillAndRead(new HashTable(hashFunction.get()), collidingKeys),
+                fillAndRead(new HashTable(hashFunction.get()), ordinaryKeys)));
+    }
+
+    /** Puts and then gets all keys, returns elapsed time in milliseconds */
+    private static double fillAndRead(HashTable table, String[] keys) {
+        long start = System.nanoTime();
+        for (String key : keys) {
+            table.put(key, key);
+        }
+        for (String key : keys) {
+            if (table.get(key) == null) {
+                throw new IllegalStateException("Key is lost");
+            }
+        }
+        return (double) (System.nanoTime() - start) / 1000000;
+    }
+}
@@ -0,0 +1,90 @@
+package fr.ladybug.team.hashTable.benchmark;
+
+import fr.ladybug.team.hashTable.ConcurrentHashTable;
+import fr.ladybug.team.hashTable.HashTable;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Compares throughput of {@link ConcurrentHashTable} with {@link HashTable} behind a global lock
+ * for a number of threads from 1 to N. Every thread does 90% of gets and 10% of puts over a shared key set.
+ * Usage: ConcurrentBenchmark [maximal number of threads] [operations per thread]
+ */
+public class ConcurrentBenchmark {
+    private static final int KEYS = 1 << 20;
+
+    public static void main(String[] args) throws InterruptedException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        String[] keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            keys[i] = "key" + i;
+        }
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            var locked = new HashTable();
+            var concurrent = new ConcurrentHashTable();
+            for (int i = 0; i < KEYS / 2; i++) {
+                locked.put(keys[i], keys[i]);
+                concurrent.put(keys[i], keys[i]);
+            }
+
+            double lockedThroughput = run(threads, operations, keys, (key, isPut) -> {
+                synchronized (locked) {
+                    if (isPut) {
+                        locked.put(key, key);
+                    } else {
+                        locked.get(key);
+                    }
+                }
+            });
+            double concurrentThroughput = run(threads, operations, keys, (key, isPut) -> {
+                if (isPut) {
+                    concurrent.put(key, key);
+                } else {
+                    concurrent.get(key);
+                }
+            });
+            System.out.println(String.format(
+                    "%2d threads: locked HashTable %8.0f ops/ms, ConcurrentHashTable %8.0f ops/ms",
+                    threads, lockedThroughput, concurrentThroughput));
+        }
+    }
+
+    /** Runs the operation on all threads at once and returns total throughput in operations per millisecond */
+    private static double run(int threads, int operations, String[] keys, Operation operation)
+            throws InterruptedException {
+        var start = new CountDownLatch(1);
+        var workers = new ArrayList<Thread>();
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            workers.add(new Thread(() -> {
+                var random = new Random(seed);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < operations; i++) {
+                    operation.apply(keys[random.nextInt(keys.length)], random.nextInt(10) == 0);
+                }
+            }));
+        }
+        for (var worker : workers) {
+            worker.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (var worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        return (double) threads * operations / elapsed * 1000000;
+    }
+
+    private interface Operation {
+        void apply(String key, boolean isPut);
+    }
+}
@@ -0,0 +1,162 @@
+package fr.ladybug.team.hashTable.benchmark;
+
+import fr.ladybug.team.hashTable.IntObjectHashTable;
+import fr.ladybug.team.hashTable.LongLongHashTable;
+import fr.ladybug.team.hashTable.ObjectIntHashTable;
+import fr.ladybug.team.hashTable.ObjectObjectHashTable;
+
+import java.util.HashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Compares generic and primitive-specialized tables with {@link HashMap} holding the same boxed data:
+ * time to put all keys, time to get all of them and heap taken per entry.
+ * Tables are filled anew in each of three rounds, the heap grows to its working size in the first one.
+ * Usage: FamilyBenchmark [number of keys]
+ */
+public class FamilyBenchmark {
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = "key" + i;
+        }
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(String.format("Round %d, %d keys", round, count));
+
+            var intObject = new IntObjectHashTable<String>();
+            report("IntObjectHashTable", count, () -> {
+                for (int i = 0; i < count; i++) {
+                    intObject.put(i * 31, keys[i]);
+                }
+                return intObject.getSize();
+            }, () -> {
+                int found = 0;
+                for (int i = 0; i < count; i++) {
+                    found += intObject.get(i * 31) != null ? 1 : 0;
+                }
+                return found;
+            });
+            var intMap = new HashMap<Integer, String>();
+            report("HashMap<Integer, String>", count, () -> {
+                for (int i = 0; i < count; i++) {
+                    intMap.put(i * 31, keys[i]);
+                }
+                return intMap.size();
+            }, () -> {
+                int found = 0;
+                for (int i = 0; i < count; i++) {
+                    found += intMap.get(i * 31) != null ? 1 : 0;
+                }
+                return found;
+            });
+
+            var longLong = new LongLongHashTable(-1);
+            report("LongLongHashTable", count, () -> {
+                for (long i = 0; i < count; i++) {
+                    longLong.put(i << 20, i);
+                }
+                return longLong.getSize();
+            }, () -> {
+                int found = 0;
+                for (long i = 0; i < count; i++) {
+                    found += longLong.get(i << 20) == i ? 1 : 0;
+                }
+                return found;
+            });
+            var longMap = new HashMap<Long, Long>();
+            report("HashMap<Long, Long>", count, () -> {
+                for (long i = 0; i < count; i++) {
+                    longMap.put(i << 20, i);
+                }
+                return longMap.size();
+            }, () -> {
+                int found = 0;
+                for (long i = 0; i < count; i++) {
+                    found += longMap.get(i << 20) == i ? 1 : 0;
+                }
+                return found;
+            });
+
+            var objectInt = new ObjectIntHashTable<String>(-1);
+            report("ObjectIntHashTable", count, () -> {
+                for (int i = 0; i < count; i++) {
+                    objectInt.put(keys[i], i);
+                }
+                return objectInt.getSize();
+            }, () -> {
+                int found = 0;
+                for (int i = 0; i < count; i++) {
+                    found += objectInt.get(keys[i]) == i ? 1 : 0;
+                }
+                return found;
+            });
+            var objectIntMap = new HashMap<String, Integer>();
+            report("HashMap<String, Integer>", count, () -> {
+                for (int i = 0; i < count; i++) {
+                    objectIntMap.put(keys[i], i);
+                }
+                return objectIntMap.size();
+            }, () -> {
+                int found = 0;
+                for (int i = 0; i < count; i++) {
+                    found += objectIntMap.get(keys[i]) == i ? 1 : 0;
+                }
+                return found;
+            });
+
+            var objectObject = new ObjectObjectHashTable<String, String>();
+            report("ObjectObjectHashTable", count, () -> {
+                for (int i = 0; i < count; i++) {
+                    objectObject.put(keys[i], keys[i]);
+                }
+                return objectObject.getSize();
+            }, () -> {
+                int found = 0;
+                for (int i = 0; i < count; i++) {
+                    found += objectObject.get(keys[i]) != null ? 1 : 0;
+                }
+                return found;
+            });
+            var objectMap = new HashMap<String, String>();
+            report("HashMap<String, String>", count, () -> {
+                for (int i = 0; i < count; i++) {
+                    objectMap.put(keys[i], keys[i]);
+                }
+                return objectMap.size();
+            }, () -> {
+                int found = 0;
+                for (int i = 0; i < count; i++) {
+                    found += objectMap.get(keys[i]) != null ? 1 : 0;
+                }
+                return found;
+            });
+        }
+    }
+
+    /** Fills the table, measures heap it takes and reads it back. The tables are kept alive by the lambdas */
+    private static void report(String name, int count, IntSupplier fill, IntSupplier read) {
+        long memoryBefore = usedMemory();
+        long start = System.nanoTime();
+        int filled = fill.getAsInt();
+        long filling = System.nanoTime() - start;
+        long bytes = usedMemory() - memoryBefore;
+        start = System.nanoTime();
+        int found = read.getAsInt();
+        long reading = System.nanoTime() - start;
+        if (filled != count || found != count) {
+            throw new IllegalStateException(name + " lost some keys");
+        }
+        System.out.println(String.format("%-26s put %6.1f ns, get %6.1f ns, %6.1f bytes/entry",
+                name, (double) filling / count, (double) reading / count, (double) bytes / count));
+    }
+
+    private static long usedMemory() {
+        var runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
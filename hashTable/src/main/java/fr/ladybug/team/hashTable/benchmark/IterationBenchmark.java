@@ -0,0 +1,55 @@
+package fr.ladybug.team.hashTable.benchmark;
+
+import fr.ladybug.team.hashTable.HashTable;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.LongSupplier;
+
+/**
+ * Walks the same table with forEach, iterator and streams,
+ * reports time per element and bytes allocated by the walking thread per element.
+ * Parallel stream allocates in the common pool too, which is not counted.
+ * The table is walked in three rounds, every way of walking is compiled during the first one.
+ * Usage: IterationBenchmark [number of keys]
+ */
+public class IterationBenchmark {
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        var table = new HashTable();
+        for (int i = 0; i < count; i++) {
+            String key = "key" + i;
+            table.put(key, key);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(String.format("Round %d, %d keys", round, count));
+            report("forEach", count, () -> {
+                long[] length = {0};
+                table.forEach((key, value) -> length[0] += value.length());
+                return length[0];
+            });
+            report("iterator", count, () -> {
+                long length = 0;
+                for (var entry : table) {
+                    length += entry.getValue().length();
+                }
+                return length;
+            });
+            report("stream", count, () -> table.stream().mapToLong(entry -> entry.getValue().length()).sum());
+            report("parallelStream", count,
+                    () -> table.parallelStream().mapToLong(entry -> entry.getValue().length()).sum());
+        }
+    }
+
+    private static void report(String name, int count, LongSupplier walk) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        long length = walk.getAsLong();
+        long time = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        System.out.println(String.format("%-15s %6.1f ns/element, %8.3f bytes/element allocated (total length %d)",
+                name, (double) time / count, (double) allocated / count, length));
+    }
+}
@@ -0,0 +1,54 @@
+package fr.ladybug.team.hashTable.benchmark;
+
+import fr.ladybug.team.hashTable.MappedHashTable;
+
+import java.io.IOException;
+import java.nio.file.Files;
+
+/**
+ * Measures {@link MappedHashTable}: time to fill the table and flush it to the disk, to reopen the file
+ * and to look all keys up in the reopened table, and the size of the file.
+ * Every one of three rounds writes a new file to the temporary directory, the first round includes
+ * JIT compilation of the table code.
+ * Usage: MappedBenchmark [number of keys]
+ */
+public class MappedBenchmark {
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        for (int round = 0; round < 3; round++) {
+            var file = Files.createTempFile("mapped", ".table");
+            try {
+                long start = System.nanoTime();
+                try (var table = new MappedHashTable(file)) {
+                    for (int i = 0; i < count; i++) {
+                        table.put("key" + i, "value of some kind " + i);
+                    }
+                    table.flush();
+                }
+                long filling = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                try (var table = new MappedHashTable(file)) {
+                    long reopening = System.nanoTime() - start;
+                    if (table.getSize() != count) {
+                        throw new IllegalStateException("The table lost some keys");
+                    }
+                    start = System.nanoTime();
+                    for (int i = 0; i < count; i++) {
+                        if (table.get("key" + i) == null) {
+                            throw new IllegalStateException("The table lost a key");
+                        }
+                    }
+                    long reading = System.nanoTime() - start;
+                    System.out.println(String.format(
+                            "Round %d, %d keys: fill and flush %8.1f ms, reopen %6.3f ms, get all %8.1f ms, "
+                                    + "file %6.1f MB",
+                            round, count, filling / 1e6, reopening / 1e6, reading / 1e6, Files.size(file) / 1e6));
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package fr.ladybug.team.hashTable.benchmark;
+
+import fr.ladybug.team.hashTable.HashTable;
+import fr.ladybug.team.hashTable.OpenAddressingHashTable;
+
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+/**
+ * Compares chained {@link HashTable} with {@link OpenAddressingHashTable}:
+ * heap taken per entry and average latency of successful and failed lookups.
+ * Usage: OpenAddressingBenchmark [number of keys]
+ */
+public class OpenAddressingBenchmark {
+    private static final int LOOKUPS = 10_000_000;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        String[] keys = new String[count];
+        String[] missingKeys = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = "key" + i;
+            missingKeys[i] = "missing" + i;
+        }
+        int[] order = new int[LOOKUPS];
+        var random = new Random(42);
+        for (int i = 0; i < LOOKUPS; i++) {
+            order[i] = random.nextInt(count);
+        }
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(String.format("Round %d, %d keys", round, count));
+
+            long before = usedMemory();
+            var chained = new HashTable();
+            for (String key : keys) {
+                chained.put(key, key);
+            }
+            long chainedBytes = usedMemory() - before;
+            long chainedHit = measure(() -> {
+                int found = 0;
+                for (int i : order) {
+                    found += chained.get(keys[i]) != null ? 1 : 0;
+                }
+                return found;
+            });
+            long chainedMiss = measure(() -> {
+                int found = 0;
+                for (int i : order) {
+                    found += chained.contains(missingKeys[i]) ? 1 : 0;
+                }
+                return found;
+            });
+            System.out.println(String.format("HashTable:               %6.1f bytes/entry, hit %6.1f ns, miss %6.1f ns",
+                    (double) chainedBytes / count, (double) chainedHit / LOOKUPS, (double) chainedMiss / LOOKUPS));
+            chained.clear();
+
+            before = usedMemory();
+            var open = new OpenAddressingHashTable();
+            for (String key : keys) {
+                open.put(key, key);
+            }
+            long openBytes = usedMemory() - before;
+            long openHit = measure(() -> {
+                int found = 0;
+                for (int i : order) {
+                    found += open.get(keys[i]) != null ? 1 : 0;
+                }
+                return found;
+            });
+            long openMiss = measure(() -> {
+                int found = 0;
+                for (int i : order) {
+                    found += open.contains(missingKeys[i]) ? 1 : 0;
+                }
+                return found;
+            });
+            System.out.println(String.format("OpenAddressingHashTable: %6.1f bytes/entry, hit %6.1f ns, miss %6.1f ns",
+                    (double) openBytes / count, (double) openHit / LOOKUPS, (double) openMiss / LOOKUPS));
+            open.clear();
+        }
+    }
+
+    /** Runs the action and returns elapsed time in nanoseconds, the result is printed to keep it alive */
+    private static long measure(IntSupplier action) {
+        long start = System.nanoTime();
+        int result = action.getAsInt();
+        long elapsed = System.nanoTime() - start;
+        if (result < 0) {
+            System.out.println(result);
+        }
+        return elapsed;
+    }
+
+    private static long usedMemory() {
+        var runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,48 @@
+package fr.ladybug.team.hashTable.benchmark;
+
+import fr.ladybug.team.hashTable.HashTable;
+import fr.ladybug.team.hashTable.HashTable.RehashMode;
+
+import java.util.Arrays;
+
+/**
+ * Compares tail latency of put in both rehash modes of {@link HashTable}.
+ * Every put is timed separately, so the puts which trigger expansion show up in the upper percentiles.
+ * Run it with a big young generation (e.g. -Xms6g -Xmx6g -Xmn4g), otherwise GC pauses hide the rehash ones.
+ * Usage: RehashBenchmark [number of keys]
+ */
+public class RehashBenchmark {
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = "key" + i;
+        }
+        long[] latencies = new long[count];
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(String.format("Round %d, %d keys", round, count));
+            for (RehashMode mode : RehashMode.values()) {
+                var table = new HashTable(mode);
+                long start = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    long before = System.nanoTime();
+                    table.put(keys[i], keys[i]);
+                    latencies[i] = System.nanoTime() - before;
+                }
+                long total = System.nanoTime() - start;
+                Arrays.sort(latencies);
+                System.out.println(String.format(
+                        "%-14s total %8.1f ms, p50 %6d ns, p99 %8d ns, p99.9 %8d ns, p99.99 %10d ns, max %10d ns",
+                        mode, (double) total / 1000000, percentile(latencies, 50), percentile(latencies, 99),
+                        percentile(latencies, 99.9), percentile(latencies, 99.99), latencies[count - 1]));
+            }
+        }
+    }
+
+    /** Takes percentile of sorted array */
+    private static long percentile(long[] sorted, double percent) {
+        int index = (int) Math.ceil(percent / 100 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
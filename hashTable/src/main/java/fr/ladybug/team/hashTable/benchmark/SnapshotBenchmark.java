@@ -0,0 +1,72 @@
+package fr.ladybug.team.hashTable.benchmark;
+
+import fr.ladybug.team.hashTable.HashTable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+
+/**
+ * Compares snapshot of {@link HashTable} with Java serialization of {@link HashMap} holding the same elements:
+ * size of the written bytes, time to write them and time to load them back.
+ * Values are either distinct or repeated, then the snapshot writes them to the dictionary.
+ * Both ways run in three rounds, the first one also pays for loading and compiling the serialization code.
+ * Usage: SnapshotBenchmark [number of keys]
+ */
+public class SnapshotBenchmark {
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(String.format("Round %d, %d keys", round, count));
+            for (boolean repeated : new boolean[] {false, true}) {
+                var table = new HashTable();
+                var map = new HashMap<String, String>();
+                for (int i = 0; i < count; i++) {
+                    String key = "key" + i;
+                    String value = "value of some kind " + (repeated ? i % 100 : i);
+                    table.put(key, value);
+                    map.put(key, value);
+                }
+                String values = repeated ? "repeated values" : "distinct values";
+
+                var out = new ByteArrayOutputStream();
+                long start = System.nanoTime();
+                table.writeTo(out);
+                long writing = System.nanoTime() - start;
+                byte[] bytes = out.toByteArray();
+                start = System.nanoTime();
+                var loaded = HashTable.readFrom(new ByteArrayInputStream(bytes));
+                long reading = System.nanoTime() - start;
+                if (loaded.getSize() != count) {
+                    throw new IllegalStateException("Snapshot lost some keys");
+                }
+                report("HashTable snapshot, " + values, bytes.length, writing, reading);
+
+                out = new ByteArrayOutputStream();
+                start = System.nanoTime();
+                try (var objects = new ObjectOutputStream(out)) {
+                    objects.writeObject(map);
+                }
+                writing = System.nanoTime() - start;
+                bytes = out.toByteArray();
+                start = System.nanoTime();
+                try (var objects = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+                    if (((HashMap<?, ?>) objects.readObject()).size() != count) {
+                        throw new IllegalStateException("Serialization lost some keys");
+                    }
+                }
+                reading = System.nanoTime() - start;
+                report("HashMap serialization, " + values, bytes.length, writing, reading);
+            }
+        }
+    }
+
+    private static void report(String name, int size, long writing, long reading) {
+        System.out.println(String.format("%-40s %6.1f MB, write %6.1f ms, load %6.1f ms",
+                name, size / 1e6, writing / 1e6, reading / 1e6));
+    }
+}
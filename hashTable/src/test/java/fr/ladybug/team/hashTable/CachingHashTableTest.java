@@ -0,0 +1,197 @@
+package fr.ladybug.team.hashTable;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingHashTableTest {
+
+    private long time = 0;
+
+    private CachingHashTable cache(int capacity, CachingHashTable.Eviction eviction) {
+        return new CachingHashTable(capacity, eviction, () -> time);
+    }
+
+    @Test
+    void testPutGetRemove() {
+        for (var eviction : CachingHashTable.Eviction.values()) {
+            var table = cache(10, eviction);
+            assertNull(table.put("Test1", "1"));
+            assertEquals("1", table.put("Test1", "2"));
+            assertEquals("2", table.get("Test1"));
+            assertTrue(table.contains("Test1"));
+            assertNull(table.remove("Test2"));
+            assertEquals("2", table.remove("Test1"));
+            assertFalse(table.contains("Test1"));
+            assertEquals(0, table.getSize());
+        }
+    }
+
+    @Test
+    void testSizeNeverExceedsCapacity() {
+        for (var eviction : CachingHashTable.Eviction.values()) {
+            var table = cache(100, eviction);
+            var random = new Random(42);
+            for (int i = 0; i < 100000; i++) {
+                String key = "Test" + random.nextInt(1000);
+                switch (random.nextInt(3)) {
+                    case 0:
+                        table.remove(key);
+                        break;
+                    case 1:
+                        table.get(key);
+                        break;
+                    default:
+                        table.put(key, key);
+                }
+                assertTrue(table.getSize() <= 100);
+            }
+            assertEquals(100, table.getSize());
+            assertTrue(table.getEvictionCount() > 0);
+        }
+    }
+
+    /** Values which are still cached must be the last ones putted */
+    @Test
+    void testCachedValuesAreActual() {
+        for (var eviction : CachingHashTable.Eviction.values()) {
+            var table = cache(50, eviction);
+            var expected = new HashMap<String, String>();
+            var random = new Random(42);
+            for (int i = 0; i < 100000; i++) {
+                String key = "Test" + random.nextInt(200);
+                if (random.nextBoolean()) {
+                    String value = Integer.toString(i);
+                    table.put(key, value);
+                    expected.put(key, value);
+                } else {
+                    String value = table.get(key);
+                    assertTrue(value == null || value.equals(expected.get(key)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testLruEvictsLeastRecentlyUsed() {
+        var table = cache(3, CachingHashTable.Eviction.LRU);
+        table.put("Test1", "1");
+        table.put("Test2", "2");
+        table.put("Test3", "3");
+        table.get("Test1");
+        table.put("Test4", "4");
+        assertFalse(table.contains("Test2"));
+        assertTrue(table.contains("Test1"));
+        assertTrue(table.contains("Test3"));
+        assertTrue(table.contains("Test4"));
+    }
+
+    @Test
+    void testLfuEvictsLeastFrequentlyUsed() {
+        var table = cache(3, CachingHashTable.Eviction.LFU);
+        table.put("Test1", "1");
+        table.put("Test2", "2");
+        table.put("Test3", "3");
+        table.get("Test1");
+        table.get("Test1");
+        table.get("Test2");
+        table.get("Test3");
+        table.put("Test4", "4");
+        assertFalse(table.contains("Test2"));
+        table.put("Test5", "5");
+        assertFalse(table.contains("Test4"));
+        assertTrue(table.contains("Test1"));
+        assertTrue(table.contains("Test3"));
+    }
+
+    /** A scan of keys seen once must not push out the popular ones which are still in use */
+    @Test
+    void testTinyLfuResistsScan() {
+        var table = cache(100, CachingHashTable.Eviction.W_TINY_LFU);
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 100; i++) {
+                table.put("Hot" + i, "hot");
+                table.get("Hot" + i);
+            }
+        }
+        for (int i = 0; i < 10000; i++) {
+            table.put("Cold" + i, "cold");
+            if (i % 2 == 0) {
+                table.get("Hot" + (i / 2 % 100));
+            }
+        }
+        int hot = 0;
+        for (int i = 0; i < 100; i++) {
+            hot += table.contains("Hot" + i) ? 1 : 0;
+        }
+        assertTrue(hot >= 90, "only " + hot + " hot keys survived");
+    }
+
+    @Test
+    void testExpiration() {
+        for (var eviction : CachingHashTable.Eviction.values()) {
+            time = 0;
+            var table = cache(10, eviction);
+            table.put("Test1", "1", 10, TimeUnit.SECONDS);
+            table.put("Test2", "2");
+            time = TimeUnit.SECONDS.toNanos(9);
+            assertEquals("1", table.get("Test1"));
+            time = TimeUnit.SECONDS.toNanos(10);
+            assertFalse(table.contains("Test1"));
+            assertEquals(0, table.getExpirationCount());
+            assertNull(table.get("Test1"));
+            assertFalse(table.contains("Test1"));
+            assertEquals("2", table.get("Test2"));
+            assertEquals(1, table.getSize());
+            assertEquals(1, table.getExpirationCount());
+
+            assertNull(table.put("Test1", "3", 1, TimeUnit.SECONDS));
+            assertEquals("3", table.put("Test1", "4"));
+            time = TimeUnit.DAYS.toNanos(1000);
+            assertEquals("4", table.get("Test1"));
+            table.put("Test3", "3", Long.MAX_VALUE, TimeUnit.DAYS);
+            assertEquals("3", table.get("Test3"));
+        }
+    }
+
+    @Test
+    void testCounters() {
+        var table = cache(1, CachingHashTable.Eviction.LRU);
+        table.put("Test1", "1");
+        table.get("Test1");
+        table.get("Test2");
+        table.get("Test2");
+        table.put("Test2", "2");
+        assertEquals(1, table.getHitCount());
+        assertEquals(2, table.getMissCount());
+        assertEquals(1, table.getEvictionCount());
+    }
+
+    @Test
+    void testClear() {
+        for (var eviction : CachingHashTable.Eviction.values()) {
+            var table = cache(10, eviction);
+            for (int i = 0; i < 100; i++) {
+                table.put("Test" + i, "Test");
+            }
+            table.clear();
+            assertEquals(0, table.getSize());
+            for (int i = 0; i < 100; i++) {
+                table.put("Test" + i, "Test");
+                assertEquals("Test", table.get("Test" + i));
+            }
+            assertEquals(10, table.getSize());
+        }
+    }
+
+    @Test
+    void testIllegalArguments() {
+        assertThrows(IllegalArgumentException.class, () -> cache(0, CachingHashTable.Eviction.LRU));
+        var table = cache(1, CachingHashTable.Eviction.LRU);
+        assertThrows(IllegalArgumentException.class, () -> table.put("Test", "Test", 0, TimeUnit.SECONDS));
+    }
+}
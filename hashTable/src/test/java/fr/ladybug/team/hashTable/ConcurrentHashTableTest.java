@@ -0,0 +1,103 @@
+package fr.ladybug.team.hashTable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentHashTableTest {
+
+    private final int threadCount = 8;
+    private ConcurrentHashTable table;
+
+    @BeforeEach
+    void initializeEmptyHashTable() {
+        table = new ConcurrentHashTable();
+    }
+
+    @Test
+    void testPutGetRemove() {
+        assertNull(table.put("Test1", "A"));
+        assertEquals("A", table.put("Test1", "B"));
+        assertEquals("B", table.get("Test1"));
+        assertTrue(table.contains("Test1"));
+        assertNull(table.remove("Test2"));
+        assertEquals("B", table.remove("Test1"));
+        assertFalse(table.contains("Test1"));
+        assertEquals(0, table.getSize());
+    }
+
+    @Test
+    void testEmptyAfterClear() {
+        for (int i = 0; i < 100; i++) {
+            table.put("Test" + i, String.valueOf(i));
+        }
+        table.clear();
+        assertFalse(table.contains("Test1"));
+        assertEquals(0, table.getSize());
+    }
+
+    @Test
+    void testConcurrentPutsAreNotLost() throws InterruptedException {
+        var threads = new ArrayList<Thread>();
+        for (int t = 0; t < threadCount; t++) {
+            int finalT = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    table.put("Test" + finalT + "_" + i, String.valueOf(i));
+                }
+            }));
+        }
+        for (var thread : threads) {
+            thread.start();
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(threadCount * 10000, table.getSize());
+        for (int t = 0; t < threadCount; t++) {
+            for (int i = 0; i < 10000; i++) {
+                assertEquals(String.valueOf(i), table.get("Test" + t + "_" + i));
+            }
+        }
+    }
+
+    /** Readers must see previously put elements while writers keep expanding the table */
+    @Test
+    void testReadsDuringExpansion() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            table.put("Stable" + i, String.valueOf(i));
+        }
+        var failed = new AtomicBoolean(false);
+        var stop = new AtomicBoolean(false);
+        var readers = new ArrayList<Thread>();
+        for (int t = 0; t < threadCount / 2; t++) {
+            readers.add(new Thread(() -> {
+                while (!stop.get()) {
+                    for (int i = 0; i < 100; i++) {
+                        if (!String.valueOf(i).equals(table.get("Stable" + i))) {
+                            failed.set(true);
+                        }
+                    }
+                }
+            }));
+        }
+        for (var reader : readers) {
+            reader.start();
+        }
+        for (int i = 0; i < 100000; i++) {
+            table.put("Test" + i, String.valueOf(i));
+        }
+        stop.set(true);
+        for (var reader : readers) {
+            reader.join();
+        }
+
+        assertFalse(failed.get());
+        assertEquals(100100, table.getSize());
+    }
+}
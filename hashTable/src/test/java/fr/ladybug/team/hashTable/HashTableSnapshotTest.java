@@ -0,0 +1,123 @@
+package fr.ladybug.team.hashTable;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashTableSnapshotTest {
+
+    private static byte[] write(HashTable table) throws IOException {
+        var out = new ByteArrayOutputStream();
+        table.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static HashTable read(byte[] bytes) throws IOException {
+        return HashTable.readFrom(new ByteArrayInputStream(bytes));
+    }
+
+    private static void assertSameElements(HashTable expected, HashTable actual) {
+        assertEquals(expected.getSize(), actual.getSize());
+        expected.forEach((key, value) -> {
+            assertTrue(actual.contains(key));
+            assertEquals(value, actual.get(key));
+        });
+    }
+
+    @Test
+    void testEmptyTable() throws IOException {
+        assertEquals(0, read(write(new HashTable())).getSize());
+    }
+
+    @Test
+    void testDistinctValues() throws IOException {
+        var table = new HashTable();
+        for (int i = 0; i < 10000; i++) {
+            table.put("Test" + i, "Value" + i);
+        }
+        table.put("\u0442\u0435\u0441\u0442", "\ud83d\ude00");
+        table.put("Null", null);
+        table.put("", "");
+        assertSameElements(table, read(write(table)));
+    }
+
+    @Test
+    void testRepeatedValuesAreWrittenOnce() throws IOException {
+        var repeated = new HashTable();
+        var distinct = new HashTable();
+        for (int i = 0; i < 10000; i++) {
+            repeated.put("Test" + i, "Some long repeated value " + i % 10);
+            distinct.put("Test" + i, "Some long repeated value " + i);
+        }
+        repeated.put("Null", null);
+        byte[] bytes = write(repeated);
+        assertSameElements(repeated, read(bytes));
+        assertTrue(bytes.length * 2 < write(distinct).length);
+    }
+
+    @Test
+    void testSnapshotsFollowingEachOther() throws IOException {
+        var first = new HashTable();
+        var second = new HashTable();
+        for (int i = 0; i < 1000; i++) {
+            first.put("Test" + i, "A");
+            second.put("Test" + i, "B" + i);
+        }
+        var out = new ByteArrayOutputStream();
+        first.writeTo(out);
+        second.writeTo(out);
+        var in = new BufferedInputStream(new ByteArrayInputStream(out.toByteArray()));
+        assertSameElements(first, HashTable.readFrom(in));
+        assertSameElements(second, HashTable.readFrom(in));
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void testNotSnapshot() {
+        assertThrows(IOException.class, () -> read("Not a snapshot".getBytes()));
+        assertThrows(IOException.class, () -> read(new byte[0]));
+    }
+
+    @Test
+    void testCorruptedSnapshot() throws IOException {
+        var table = new HashTable();
+        for (int i = 0; i < 100; i++) {
+            table.put("Test" + i, "Value" + i);
+        }
+        byte[] bytes = write(table);
+        for (int position = 4; position < bytes.length; position += 7) {
+            byte[] corrupted = bytes.clone();
+            corrupted[position] ^= 0x10;
+            assertThrows(IOException.class, () -> read(corrupted));
+        }
+        assertThrows(IOException.class, () -> read(Arrays.copyOf(bytes, bytes.length - 1)));
+    }
+
+    @Test
+    void testTableLargerThanPresize() throws IOException {
+        var table = new HashTable();
+        for (int i = 0; i < (1 << 20) + 1000; i++) {
+            table.put("Test" + i, i % 3 == 0 ? null : "Value" + i);
+        }
+        assertSameElements(table, read(write(table)));
+    }
+
+    @Test
+    void testHugeSizesInHeader() {
+        // magic, version 1, no dictionary, size and key length of 2^31 - 2 as varints, a few bytes of the key
+        byte[] hugeKey = {0x4c, 0x42, 0x53, 0x48, 1, 0, (byte) 0xfe, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07,
+                (byte) 0xfe, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07, 'k', 'e', 'y'};
+        assertThrows(IOException.class, () -> read(hugeKey));
+        // the same with the dictionary of 2^31 - 2 values, the first of them is as long
+        byte[] hugeDictionary = {0x4c, 0x42, 0x53, 0x48, 1, 1, (byte) 0xfe, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07,
+                (byte) 0xfe, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07,
+                (byte) 0xfe, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x07, 'v'};
+        assertThrows(IOException.class, () -> read(hugeDictionary));
+    }
+}
@@ -3,6 +3,13 @@ package fr.ladybug.team.hashTable;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class HashTableTest {
@@ -81,4 +88,222 @@ class HashTableTest {
         assertFalse(table.contains("Test1"));
         assertEquals(0, table.getSize());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testSizeAfterExpansion() {
+        for (int i = 0; i < 100; i++) {
+            table.put("Test" + i, String.valueOf(i));
+            assertEquals(i + 1, table.getSize());
+        }
+    }
+
+    @Test
+    void testRemoveAbsent() {
+        assertNull(table.remove("Test1"));
+        table.put("Test1", "A");
+        assertNull(table.remove("Test2"));
+        assertEquals(1, table.getSize());
+    }
+
+    @Test
+    void testIncrementalRehashKeepsElements() {
+        table = new HashTable(HashTable.RehashMode.INCREMENTAL);
+        for (int i = 0; i < 1000; i++) {
+            table.put("Test" + i, String.valueOf(i));
+            assertEquals(i + 1, table.getSize());
+            assertEquals(String.valueOf(i / 2), table.get("Test" + i / 2));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertEquals(String.valueOf(i), table.remove("Test" + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 1, table.contains("Test" + i));
+        }
+        assertEquals(500, table.getSize());
+    }
+
+    @Test
+    void testPutAllMapAndIterator() {
+        var map = new HashMap<String, String>();
+        for (int i = 0; i < 1000; i++) {
+            map.put("Test" + i, String.valueOf(i));
+        }
+        table.put("Test1", "A");
+        table.putAll(map);
+        assertEquals(1000, table.getSize());
+        assertEquals("1", table.get("Test1"));
+
+        var other = new HashTable(HashTable.RehashMode.INCREMENTAL);
+        other.putAll(map.entrySet().iterator(), 10);
+        assertEquals(1000, other.getSize());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(String.valueOf(i), other.get("Test" + i));
+        }
+    }
+
+    @Test
+    void testGetAllRemoveAll() {
+        for (int i = 0; i < 100; i++) {
+            table.put("Test" + i, String.valueOf(i));
+        }
+        table.put("Null", null);
+
+        var found = table.getAll(Arrays.asList("Test1", "Test2", "Absent", "Null"));
+        assertEquals(3, found.getSize());
+        assertEquals("2", found.get("Test2"));
+        assertTrue(found.contains("Null"));
+        assertFalse(found.contains("Absent"));
+
+        assertEquals(2, table.removeAll(Arrays.asList("Test1", "Test1", "Absent", "Null")));
+        assertEquals(99, table.getSize());
+        assertFalse(table.contains("Test1"));
+    }
+
+    @Test
+    void testEnsureCapacityKeepsElements() {
+        table.put("Test1", "A");
+        table.ensureCapacity(100000);
+        assertEquals("A", table.get("Test1"));
+        assertEquals(1, table.getSize());
+    }
+
+    /** Keys made of "Aa" and "BB" blocks have equal String.hashCode */
+    private static String[] collidingKeys(int blocks) {
+        String[] keys = new String[1 << blocks];
+        for (int i = 0; i < keys.length; i++) {
+            var builder = new StringBuilder();
+            for (int j = 0; j < blocks; j++) {
+                builder.append((i >> j & 1) == 0 ? "Aa" : "BB");
+            }
+            keys[i] = builder.toString();
+        }
+        return keys;
+    }
+
+    @Test
+    void testCollidingKeys() {
+        String[] keys = collidingKeys(10);
+        table = new HashTable(HashTable.RehashMode.INCREMENTAL);
+        for (String key : keys) {
+            table.put(key, key);
+        }
+        assertEquals(keys.length, table.getSize());
+        for (String key : keys) {
+            assertEquals(key, table.remove(key));
+        }
+        assertEquals(0, table.getSize());
+    }
+
+    @Test
+    void testCustomHashFunctions() {
+        table = new HashTable(new Murmur3HashFunction(7));
+        for (int i = 0; i < 100; i++) {
+            table.put("Test" + i, String.valueOf(i));
+        }
+        assertEquals("42", table.get("Test42"));
+
+        table = new HashTable(key -> 0);
+        for (int i = 0; i < 100; i++) {
+            table.put("Test" + i, String.valueOf(i));
+        }
+        assertEquals("42", table.get("Test42"));
+        assertEquals(100, table.getSize());
+    }
+
+    @Test
+    void testForEach() {
+        for (int i = 0; i < 1000; i++) {
+            table.put("Test" + i, String.valueOf(i));
+        }
+        var visited = new HashMap<String, String>();
+        table.forEach((key, value) -> assertNull(visited.put(key, value)));
+        assertEquals(1000, visited.size());
+        assertEquals("42", visited.get("Test42"));
+    }
+
+    @Test
+    void testIteratorReturnsEveryElementOnce() {
+        table = new HashTable(HashTable.RehashMode.INCREMENTAL);
+        for (int i = 0; i < 1000; i++) {
+            table.put("Test" + i, String.valueOf(i));
+        }
+        var visited = new HashMap<String, String>();
+        for (var entry : table) {
+            assertNull(visited.put(entry.getKey(), entry.getValue()));
+        }
+        assertEquals(1000, visited.size());
+        assertEquals("42", visited.get("Test42"));
+
+        var iterator = new HashTable().iterator();
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void testIteratorRemove() {
+        for (int i = 0; i < 1000; i++) {
+            table.put("Test" + i, String.valueOf(i));
+        }
+        var iterator = table.iterator();
+        assertThrows(IllegalStateException.class, iterator::remove);
+        while (iterator.hasNext()) {
+            if (Integer.parseInt(iterator.next().getValue()) % 2 == 0) {
+                iterator.remove();
+            }
+        }
+        assertEquals(500, table.getSize());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 1, table.contains("Test" + i));
+        }
+    }
+
+    /** Elements which stay in the table must be returned once however the table is modified and expanded */
+    @Test
+    void testIteratorIsWeaklyConsistent() {
+        for (var rehashMode : HashTable.RehashMode.values()) {
+            table = new HashTable(rehashMode);
+            for (int i = 0; i < 1000; i++) {
+                table.put("Test" + i, String.valueOf(i));
+            }
+            var visited = new HashSet<String>();
+            int added = 0;
+            for (var entry : table) {
+                assertTrue(visited.add(entry.getKey()));
+                table.remove("Test" + (1000 - Integer.parseInt(entry.getValue()) % 500));
+                table.put("New" + added, "-1");
+                added++;
+            }
+            for (int i = 1; i <= 500; i++) {
+                assertTrue(visited.contains("Test" + i));
+            }
+        }
+    }
+
+    @Test
+    void testEntrySetValue() {
+        table.put("Test1", "A");
+        var entry = table.iterator().next();
+        assertEquals("A", entry.setValue("B"));
+        assertEquals("B", table.get("Test1"));
+        assertEquals(Map.entry("Test1", "B"), entry);
+    }
+
+    @Test
+    void testStreams() {
+        for (int i = 0; i < 10000; i++) {
+            table.put("Test" + i, String.valueOf(i));
+        }
+        assertEquals(10000, table.stream().count());
+        long expectedSum = 9999L * 10000 / 2;
+        assertEquals(expectedSum, table.parallelStream().mapToLong(entry -> Long.parseLong(entry.getValue())).sum());
+        var keys = table.parallelStream().map(Map.Entry::getKey).collect(Collectors.toSet());
+        assertEquals(10000, keys.size());
+
+        var spliterator = table.spliterator();
+        var prefix = spliterator.trySplit();
+        long[] count = {0};
+        prefix.forEachRemaining(entry -> count[0]++);
+        spliterator.forEachRemaining(entry -> count[0]++);
+        assertEquals(10000, count[0]);
+    }
+}
@@ -0,0 +1,69 @@
+package fr.ladybug.team.hashTable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntObjectHashTableTest {
+
+    private IntObjectHashTable<String> table;
+
+    @BeforeEach
+    void initializeEmptyHashTable() {
+        table = new IntObjectHashTable<>();
+    }
+
+    @Test
+    void testPutGetRemove() {
+        assertNull(table.put(1, "A"));
+        assertEquals("A", table.put(1, "B"));
+        assertEquals("B", table.get(1));
+        assertTrue(table.contains(1));
+        assertNull(table.remove(-1));
+        assertEquals("B", table.remove(1));
+        assertFalse(table.contains(1));
+        assertEquals(0, table.getSize());
+    }
+
+    /** Keys differing in higher bits only must not break anything */
+    @Test
+    void testKeysDifferingInHigherBits() {
+        for (int i = 0; i < 1000; i++) {
+            table.put(i << 20, String.valueOf(i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(String.valueOf(i), table.get(i << 20));
+        }
+    }
+
+    /** Random operations must agree with java.util.HashMap */
+    @Test
+    void testRandomOperationsLikeHashMap() {
+        var expected = new HashMap<Integer, String>();
+        var random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(1000) - 500;
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), table.remove(key));
+            } else {
+                assertEquals(expected.put(key, String.valueOf(i)), table.put(key, String.valueOf(i)));
+            }
+            assertEquals(expected.size(), table.getSize());
+        }
+        for (int key = -500; key < 500; key++) {
+            assertEquals(expected.get(key), table.get(key));
+        }
+    }
+
+    @Test
+    void testEmptyAfterClear() {
+        table.put(1, "A");
+        table.clear();
+        assertFalse(table.contains(1));
+        assertEquals(0, table.getSize());
+    }
+}
@@ -45,4 +45,26 @@ class ListTest {
         list.remove("Test1");
         assertFalse(list.contains("Test1"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRemoveAbsent() {
+        List list = new List();
+        assertNull(list.remove("Test1"));
+        list.put("Test1", "A");
+        assertNull(list.remove("Test2"));
+        assertEquals(1, list.getSize());
+        assertEquals("A", list.get("Test1"));
+    }
+
+    @Test
+    void testForEach() {
+        List list = new List();
+        list.put("Test1", "A");
+        list.put("Test2", "B");
+        list.put("Test3", "C");
+        list.remove("Test2");
+        var result = new StringBuilder();
+        list.forEach((key, value) -> result.append(key).append(value));
+        assertEquals("Test1ATest3C", result.toString());
+    }
+}
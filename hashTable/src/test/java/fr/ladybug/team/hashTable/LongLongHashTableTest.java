@@ -0,0 +1,68 @@
+package fr.ladybug.team.hashTable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongLongHashTableTest {
+
+    private LongLongHashTable table;
+
+    @BeforeEach
+    void initializeEmptyHashTable() {
+        table = new LongLongHashTable(-1);
+    }
+
+    @Test
+    void testPutGetRemove() {
+        assertEquals(-1, table.put(1L << 40, 1));
+        assertEquals(1, table.put(1L << 40, 2));
+        assertEquals(2, table.get(1L << 40));
+        assertTrue(table.contains(1L << 40));
+        assertEquals(-1, table.remove(1));
+        assertEquals(2, table.remove(1L << 40));
+        assertFalse(table.contains(1L << 40));
+        assertEquals(-1, table.get(1L << 40));
+        assertEquals(0, table.getSize());
+    }
+
+    @Test
+    void testMissingValueByDefault() {
+        table = new LongLongHashTable();
+        assertEquals(0, table.getMissingValue());
+        assertEquals(0, table.get(1));
+    }
+
+    /** Random operations must agree with java.util.HashMap */
+    @Test
+    void testRandomOperationsLikeHashMap() {
+        var expected = new HashMap<Long, Long>();
+        var random = new Random(42);
+        for (long i = 0; i < 100000; i++) {
+            long key = (long) random.nextInt(1000) << 32;
+            if (random.nextInt(3) == 0) {
+                assertEquals((long) expected.getOrDefault(key, -1L), table.remove(key));
+                expected.remove(key);
+            } else {
+                assertEquals((long) expected.getOrDefault(key, -1L), table.put(key, i));
+                expected.put(key, i);
+            }
+            assertEquals(expected.size(), table.getSize());
+        }
+        for (long i = 0; i < 1000; i++) {
+            assertEquals((long) expected.getOrDefault(i << 32, -1L), table.get(i << 32));
+        }
+    }
+
+    @Test
+    void testEmptyAfterClear() {
+        table.put(1, 1);
+        table.clear();
+        assertFalse(table.contains(1));
+        assertEquals(0, table.getSize());
+    }
+}
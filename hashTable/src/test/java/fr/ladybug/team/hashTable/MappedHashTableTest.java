@@ -0,0 +1,135 @@
+package fr.ladybug.team.hashTable;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedHashTableTest {
+
+    private Path file;
+    private MappedHashTable table;
+
+    @BeforeEach
+    void openEmptyTable() throws IOException {
+        file = Files.createTempFile("table", ".bin");
+        table = new MappedHashTable(file);
+    }
+
+    @AfterEach
+    void closeTable() throws IOException {
+        table.close();
+        Files.deleteIfExists(file);
+    }
+
+    private void reopen() throws IOException {
+        table.close();
+        table = new MappedHashTable(file);
+    }
+
+    @Test
+    void testEmptyTableContainsNothing() {
+        assertFalse(table.contains("Test1"));
+        assertNull(table.get(""));
+        assertNull(table.remove("Test1"));
+        assertEquals(0, table.getSize());
+    }
+
+    @Test
+    void testPutGetRemove() {
+        assertNull(table.put("Test1", "A"));
+        assertEquals("A", table.put("Test1", "B"));
+        assertEquals("B", table.get("Test1"));
+        assertEquals(1, table.getSize());
+        assertEquals("B", table.remove("Test1"));
+        assertFalse(table.contains("Test1"));
+        assertEquals(0, table.getSize());
+    }
+
+    @Test
+    void testNullValueAndUnicode() {
+        table.put("\u043a\u043b\u044e\u0447", null);
+        table.put("", "\u0437\u043d\u0430\u0447\u0435\u043d\u0438\u0435");
+        assertTrue(table.contains("\u043a\u043b\u044e\u0447"));
+        assertNull(table.get("\u043a\u043b\u044e\u0447"));
+        assertEquals("\u0437\u043d\u0430\u0447\u0435\u043d\u0438\u0435", table.get(""));
+    }
+
+    @Test
+    void testElementsSurviveReopen() throws IOException {
+        for (int i = 0; i < 10000; i++) {
+            table.put("Test" + i, String.valueOf(i));
+        }
+        for (int i = 0; i < 10000; i += 2) {
+            table.remove("Test" + i);
+        }
+        reopen();
+
+        assertEquals(5000, table.getSize());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i % 2 == 1 ? String.valueOf(i) : null, table.get("Test" + i));
+        }
+    }
+
+    /** Removed slots are reused, so put-remove cycles must not break probing */
+    @Test
+    void testPutRemoveCycles() {
+        for (int i = 0; i < 10000; i++) {
+            table.put("Test" + i, String.valueOf(i));
+            assertEquals(String.valueOf(i), table.remove("Test" + i));
+        }
+        table.put("Test1", "A");
+        assertEquals("A", table.get("Test1"));
+        assertEquals(1, table.getSize());
+    }
+
+    @Test
+    void testEmptyAfterClear() throws IOException {
+        for (int i = 0; i < 1000; i++) {
+            table.put("Test" + i, String.valueOf(i));
+        }
+        table.clear();
+        assertFalse(table.contains("Test1"));
+        assertEquals(0, table.getSize());
+        table.put("Test1", "A");
+        reopen();
+        assertEquals("A", table.get("Test1"));
+        assertEquals(1, table.getSize());
+    }
+
+    @Test
+    void testNotATableFile() throws IOException {
+        Path other = Files.createTempFile("other", ".txt");
+        Files.write(other, "definitely not a table".repeat(16).getBytes());
+        try {
+            assertThrows(IOException.class, () -> new MappedHashTable(other));
+        } finally {
+            Files.deleteIfExists(other);
+        }
+    }
+
+    @Test
+    void testForeignFilesAreLeftIntact() throws IOException {
+        Path other = Files.createTempFile("other", ".bin");
+        try {
+            for (byte[] bytes : new byte[][] {"short".getBytes(), new byte[64], new byte[4096]}) {
+                Files.write(other, bytes);
+                assertThrows(IOException.class, () -> new MappedHashTable(other));
+                assertArrayEquals(bytes, Files.readAllBytes(other));
+            }
+
+            // a file of the initial length without magic is a table whose creation was interrupted
+            Files.write(other, new byte[128 + 16 * 16]);
+            try (var table = new MappedHashTable(other)) {
+                assertEquals(0, table.getSize());
+            }
+        } finally {
+            Files.deleteIfExists(other);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package fr.ladybug.team.hashTable;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Murmur3HashFunctionTest {
+
+    /** Straightforward MurmurHash3 of the byte array */
+    private static int referenceHash(byte[] data, int seed) {
+        int h = seed;
+        int blocks = data.length / 4;
+        for (int i = 0; i < blocks; i++) {
+            int k = (data[4 * i] & 0xff) | (data[4 * i + 1] & 0xff) << 8
+                    | (data[4 * i + 2] & 0xff) << 16 | (data[4 * i + 3] & 0xff) << 24;
+            k = Integer.rotateLeft(k * 0xcc9e2d51, 15) * 0x1b873593;
+            h ^= k;
+            h = Integer.rotateLeft(h, 13) * 5 + 0xe6546b64;
+        }
+        int k = 0;
+        for (int i = data.length - 1; i >= blocks * 4; i--) {
+            k = k << 8 | (data[i] & 0xff);
+        }
+        if (data.length % 4 != 0) {
+            h ^= Integer.rotateLeft(k * 0xcc9e2d51, 15) * 0x1b873593;
+        }
+        h ^= data.length;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    @Test
+    void testKnownValues() {
+        assertEquals(0, new Murmur3HashFunction(0).hash(""));
+        assertEquals(0x514e28b7, new Murmur3HashFunction(1).hash(""));
+        assertEquals(0x2e4ff723, new Murmur3HashFunction(0).hash("The quick brown fox jumps over the lazy dog"));
+    }
+
+    @Test
+    void testHashesUtf8Bytes() {
+        String[] keys = {"a", "ab", "abc", "abcd", "abcde", "\u00e9t\u00e9", "\u043a\u043b\u044e\u0447",
+                "\u6f22\u5b57", "\ud83d\ude00 smile", "unpaired \ud83d", "\udc00"};
+        for (String key : keys) {
+            for (int seed : new int[] {0, 42, -1}) {
+                assertEquals(referenceHash(key.getBytes(StandardCharsets.UTF_8), seed),
+                        new Murmur3HashFunction(seed).hash(key), key);
+            }
+        }
+    }
+
+    @Test
+    void testSeedChangesHash() {
+        assertNotEquals(new Murmur3HashFunction(1).hash("Test1"), new Murmur3HashFunction(2).hash("Test1"));
+    }
+}
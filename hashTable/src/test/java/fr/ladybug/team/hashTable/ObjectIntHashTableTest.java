@@ -0,0 +1,60 @@
+package fr.ladybug.team.hashTable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectIntHashTableTest {
+
+    private ObjectIntHashTable<String> table;
+
+    @BeforeEach
+    void initializeEmptyHashTable() {
+        table = new ObjectIntHashTable<>(-1);
+    }
+
+    @Test
+    void testPutGetRemove() {
+        assertEquals(-1, table.put("Test1", 1));
+        assertEquals(1, table.put("Test1", 2));
+        assertEquals(2, table.get("Test1"));
+        assertTrue(table.contains("Test1"));
+        assertEquals(-1, table.remove("Test2"));
+        assertEquals(2, table.remove("Test1"));
+        assertFalse(table.contains("Test1"));
+        assertEquals(0, table.getSize());
+    }
+
+    /** Random operations must agree with java.util.HashMap */
+    @Test
+    void testRandomOperationsLikeHashMap() {
+        var expected = new HashMap<String, Integer>();
+        var random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            String key = "Test" + random.nextInt(1000);
+            if (random.nextInt(3) == 0) {
+                assertEquals((int) expected.getOrDefault(key, -1), table.remove(key));
+                expected.remove(key);
+            } else {
+                assertEquals((int) expected.getOrDefault(key, -1), table.put(key, i));
+                expected.put(key, i);
+            }
+            assertEquals(expected.size(), table.getSize());
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals((int) expected.getOrDefault("Test" + i, -1), table.get("Test" + i));
+        }
+    }
+
+    @Test
+    void testEmptyAfterClear() {
+        table.put("Test1", 1);
+        table.clear();
+        assertFalse(table.contains("Test1"));
+        assertEquals(0, table.getSize());
+    }
+}
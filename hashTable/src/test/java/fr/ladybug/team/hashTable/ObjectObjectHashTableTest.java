@@ -0,0 +1,68 @@
+package fr.ladybug.team.hashTable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectObjectHashTableTest {
+
+    private ObjectObjectHashTable<String, Integer> table;
+
+    @BeforeEach
+    void initializeEmptyHashTable() {
+        table = new ObjectObjectHashTable<>();
+    }
+
+    @Test
+    void testPutGetRemove() {
+        assertNull(table.put("Test1", 1));
+        assertEquals(1, (int) table.put("Test1", 2));
+        assertEquals(2, (int) table.get("Test1"));
+        assertTrue(table.contains("Test1"));
+        assertNull(table.remove("Test2"));
+        assertEquals(2, (int) table.remove("Test1"));
+        assertFalse(table.contains("Test1"));
+        assertEquals(0, table.getSize());
+    }
+
+    @Test
+    void testNullValue() {
+        table.put("Test1", null);
+        assertTrue(table.contains("Test1"));
+        assertNull(table.get("Test1"));
+        assertEquals(1, table.getSize());
+    }
+
+    /** Random operations must agree with java.util.HashMap */
+    @Test
+    void testRandomOperationsLikeHashMap() {
+        var expected = new HashMap<String, Integer>();
+        var random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            String key = "Test" + random.nextInt(1000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), table.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), table.put(key, i));
+            }
+            assertEquals(expected.size(), table.getSize());
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(expected.get("Test" + i), table.get("Test" + i));
+        }
+    }
+
+    @Test
+    void testEmptyAfterClear() {
+        for (int i = 0; i < 100; i++) {
+            table.put("Test" + i, i);
+        }
+        table.clear();
+        assertFalse(table.contains("Test1"));
+        assertEquals(0, table.getSize());
+    }
+}
@@ -0,0 +1,92 @@
+package fr.ladybug.team.hashTable;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenAddressingHashTableTest {
+
+    private OpenAddressingHashTable table;
+
+    @BeforeEach
+    void initializeEmptyHashTable() {
+        table = new OpenAddressingHashTable();
+    }
+
+    @Test
+    void testEmptyTableContainsNothing() {
+        assertFalse(table.contains("Test1"));
+        assertFalse(table.contains(""));
+        assertNull(table.get("??"));
+        assertEquals(0, table.getSize());
+    }
+
+    @Test
+    void testPutGet() {
+        assertNull(table.put("Test1", "A"));
+        assertEquals("A", table.get("Test1"));
+        assertEquals(1, table.getSize());
+
+        assertEquals("A", table.put("Test1", "B"));
+        assertEquals("B", table.get("Test1"));
+        assertEquals(1, table.getSize());
+    }
+
+    @Test
+    void testRemoveAbsentKeepsSize() {
+        table.put("Test1", "A");
+        assertNull(table.remove("Test2"));
+        assertEquals(1, table.getSize());
+    }
+
+    /** Check whether table can handle expansion or not */
+    @Test
+    void test1000PutGet() {
+        for (int i = 0; i < 1000; i++) {
+            table.put("Test" + i, String.valueOf(i));
+            assertEquals(String.valueOf(i), table.get("Test" + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(String.valueOf(i), table.get("Test" + i));
+        }
+        assertEquals(1000, table.getSize());
+    }
+
+    /** "Aa" and "BB" have equal hash codes, so all these keys share one probe sequence */
+    @Test
+    void testRemoveInsideProbeSequence() {
+        String[] keys = {"AaAa", "AaBB", "BBAa", "BBBB"};
+        for (String key : keys) {
+            table.put(key, key);
+        }
+        assertEquals("AaBB", table.remove("AaBB"));
+        assertFalse(table.contains("AaBB"));
+        assertEquals("AaAa", table.get("AaAa"));
+        assertEquals("BBAa", table.get("BBAa"));
+        assertEquals("BBBB", table.get("BBBB"));
+        assertEquals(3, table.getSize());
+    }
+
+    @Test
+    void test1000PutRemoveHalf() {
+        for (int i = 0; i < 1000; i++) {
+            table.put("Test" + i, String.valueOf(i));
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertEquals(String.valueOf(i), table.remove("Test" + i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 1, table.contains("Test" + i));
+        }
+        assertEquals(500, table.getSize());
+    }
+
+    @Test
+    void testEmptyAfterClear() {
+        table.put("Test1", "1");
+        table.clear();
+        assertFalse(table.contains("Test1"));
+        assertEquals(0, table.getSize());
+    }
+}
@@ -0,0 +1,101 @@
+package fr.ladybug.team;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single thread evaluator which keeps digests in an index file between runs.
+ * Every file of the tree is looked up in the index by its path, size, modification time and file key,
+ * only the files which have changed are read, so an unchanged tree costs a stat per file.
+ * Digests of directories are not kept: one is computed in memory from the digests of its files, and taking it
+ * from the index would trust the modification time of the directory to tell whether files were added or removed.
+ * Digests are the same as the ones of {@link SingleThreadMD5}.
+ * A file modified just before it is digested may change again within the same tick of its modification time,
+ * so it is not cached until it is older than {@link #RACY_INTERVAL_NANOS}
+ */
+public class CachedMD5 implements MD5Evaluator {
+    /** Files modified more recently are not cached */
+    static final long RACY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final HashIndex index;
+    private final FileHasher hasher;
+    private long hashedCount = 0;
+
+    /**
+     * Constructs the evaluator reading files with the default buffer size and map threshold
+     * @param indexFile the file the index is kept in, it is created if there is none
+     * @throws IOException the exception is thrown when the index cannot be read
+     */
+    public CachedMD5(Path indexFile) throws IOException {
+        this(indexFile, FileHasher.DEFAULT);
+    }
+
+    /**
+     * Constructs the evaluator
+     * @param indexFile the file the index is kept in, it is created if there is none
+     * @param hasher the way contents of files are read
+     * @throws IOException the exception is thrown when the index cannot be read
+     */
+    public CachedMD5(Path indexFile, FileHasher hasher) throws IOException {
+        index = new HashIndex(indexFile);
+        this.hasher = hasher;
+    }
+
+    @Override
+    /** {@inheritDoc} The index file is updated before returning, entries of files gone from the path are dropped */
+    public String evaluate(String filepath) throws IOException, NoSuchAlgorithmException {
+        var path = Path.of(filepath).toAbsolutePath().normalize();
+        var seen = new HashSet<String>();
+        var digest = evaluate(path, Files.readAttributes(path, BasicFileAttributes.class), seen);
+        index.retain(path.toString(), seen);
+        index.flush();
+        return MD5.getHexString(digest);
+    }
+
+    private byte[] evaluate(Path path, BasicFileAttributes attributes, Set<String> seen)
+            throws IOException, NoSuchAlgorithmException {
+        if (!attributes.isDirectory()) {
+            String key = path.toString();
+            seen.add(key);
+            var digest = index.get(key, attributes);
+            if (digest != null) {
+                return digest;
+            }
+            var digestObject = MessageDigest.getInstance("MD5");
+            hasher.update(digestObject, path);
+            hashedCount++;
+            digest = digestObject.digest();
+            long age = System.currentTimeMillis() * 1_000_000 - attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+            if (age >= RACY_INTERVAL_NANOS) {
+                index.put(new HashIndex.Entry(key, attributes, digest));
+            }
+            return digest;
+        }
+
+        // children are listed as SingleThreadMD5 lists them, so digests are the same
+        var files = path.toFile().listFiles();
+        if (files == null) {
+            throw new IOException("Cannot list the directory " + path);
+        }
+        var digestObject = MessageDigest.getInstance("MD5");
+        for (var file : files) {
+            var child = file.toPath();
+            var digest = evaluate(child, Files.readAttributes(child, BasicFileAttributes.class), seen);
+            digestObject.update(MD5.getHexString(digest).getBytes(StandardCharsets.UTF_8));
+        }
+        return digestObject.digest();
+    }
+
+    /** @return number of files read so far, the ones taken from the index are not counted */
+    long getHashedCount() {
+        return hashedCount;
+    }
+}
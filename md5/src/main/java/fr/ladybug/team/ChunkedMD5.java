@@ -0,0 +1,171 @@
+package fr.ladybug.team;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Evaluator of the chunked tree digest, a format of its own which lets a single file be read by many threads.
+ * The file is cut into chunks of the fixed size and the digest of the file is
+ * MD5(1 || chunk size as 8 bytes || file size as 8 bytes || MD5(0 || chunk 0) || MD5(0 || chunk 1) || ...),
+ * the chunks are memory-mapped and digested in parallel. The digest depends on the chunk size only,
+ * so it is the same with any number of threads, but it is not the MD5 of the file.
+ * Directories are digested as by {@link SingleThreadMD5}, from the hex digests of their files.
+ * The result is labeled with the format and the chunk size, "md5-tree-1024k:" for instance,
+ * so it is never mistaken for a plain MD5 digest
+ */
+public class ChunkedMD5 implements MD5Evaluator {
+    /** Size of the chunk by default */
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+    /** Smallest size of the chunk */
+    public static final int MIN_CHUNK_SIZE = 4 * 1024;
+
+    private static final byte CHUNK_PREFIX = 0;
+    private static final byte ROOT_PREFIX = 1;
+    /** Size of the largest region mapped at once, a mapping may not exceed 2 GB */
+    private static final long REGION_SIZE = 1 << 30;
+
+    private final int chunkSize;
+    private final long regionSize;
+    private final ForkJoinPool pool;
+
+    /** Constructs the evaluator with the default chunk size running in the shared pool */
+    public ChunkedMD5() {
+        this(DEFAULT_CHUNK_SIZE, SharedPool.POOL);
+    }
+
+    /**
+     * Constructs the evaluator
+     * @param chunkSize size of the chunk, a power of two from {@link #MIN_CHUNK_SIZE} to a gigabyte
+     * @param pool the pool chunks are read in, it is not shut down by the evaluator
+     * @throws IllegalArgumentException if the chunk size is wrong
+     */
+    public ChunkedMD5(int chunkSize, ForkJoinPool pool) {
+        this(chunkSize, REGION_SIZE, pool);
+    }
+
+    ChunkedMD5(int chunkSize, long regionSize, ForkJoinPool pool) {
+        if (chunkSize < MIN_CHUNK_SIZE || Integer.bitCount(chunkSize) != 1 || chunkSize > regionSize) {
+            throw new IllegalArgumentException("The chunk size is to be a power of two from 4 KB to 1 GB");
+        }
+        this.chunkSize = chunkSize;
+        this.regionSize = regionSize;
+        this.pool = pool;
+    }
+
+    /** @return name of the format with the chunk size, the digests are prefixed with it */
+    public String getLabel() {
+        return "md5-tree-" + chunkSize / 1024 + "k";
+    }
+
+    @Override
+    /** {@inheritDoc} The hex string is prefixed with the label and a colon */
+    public String evaluate(String filepath) throws IOException, NoSuchAlgorithmException {
+        return getLabel() + ":" + evaluate(new File(filepath));
+    }
+
+    private String evaluate(File file) throws IOException, NoSuchAlgorithmException {
+        if (!file.isDirectory()) {
+            return MD5.getHexString(digestOfFile(file.toPath()));
+        }
+        File[] files = file.listFiles();
+        if (files == null) {
+            throw new IOException("Cannot list the directory " + file);
+        }
+        StringBuilder dataBuilder = new StringBuilder();
+        for (File child : files) {
+            dataBuilder.append(evaluate(child));
+        }
+        var digestObject = MessageDigest.getInstance("MD5");
+        digestObject.update(dataBuilder.toString().getBytes(StandardCharsets.UTF_8));
+        return MD5.getHexStringFromMD5(digestObject);
+    }
+
+    /**
+     * Evaluates the chunked tree digest of the file
+     * @param file the path to the file
+     * @return the digest without the label
+     * @throws IOException the exception is thrown when there is a problem with reading the file
+     */
+    public byte[] digestOfFile(Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int chunkCount = (int) ((size + chunkSize - 1) / chunkSize);
+            var chunks = new byte[chunkCount][];
+            if (chunkCount == 1) {
+                var digestObject = newDigest();
+                digestObject.update(CHUNK_PREFIX);
+                FileHasher.DEFAULT.update(digestObject, file);
+                chunks[0] = digestObject.digest();
+            } else if (chunkCount > 1) {
+                var regions = new MappedByteBuffer[(int) ((size + regionSize - 1) / regionSize)];
+                for (int i = 0; i < regions.length; i++) {
+                    long position = i * regionSize;
+                    regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(regionSize, size - position));
+                }
+                pool.invoke(new ChunkTask(regions, size, chunks, 0, chunkCount));
+            }
+
+            var digestObject = newDigest();
+            digestObject.update(ROOT_PREFIX);
+            digestObject.update(ByteBuffer.allocate(2 * Long.BYTES).putLong(chunkSize).putLong(size).array());
+            for (var chunk : chunks) {
+                digestObject.update(chunk);
+            }
+            return digestObject.digest();
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("No MD5 hash algorithm");
+        }
+    }
+
+    /** Digests the chunks from one to another, the range is split in halves down to a chunk */
+    private class ChunkTask extends RecursiveAction {
+        private final MappedByteBuffer[] regions;
+        private final long size;
+        private final byte[][] chunks;
+        private final int from;
+        private final int to;
+
+        private ChunkTask(MappedByteBuffer[] regions, long size, byte[][] chunks, int from, int to) {
+            this.regions = regions;
+            this.size = size;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new ChunkTask(regions, size, chunks, from, middle),
+                        new ChunkTask(regions, size, chunks, middle, to));
+                return;
+            }
+            long position = (long) from * chunkSize;
+            int offset = (int) (position % regionSize);
+            var chunk = regions[(int) (position / regionSize)].duplicate();
+            chunk.position(offset).limit(offset + (int) Math.min(chunkSize, size - position));
+            var digestObject = newDigest();
+            digestObject.update(CHUNK_PREFIX);
+            digestObject.update(chunk);
+            chunks[from] = digestObject.digest();
+        }
+    }
+}
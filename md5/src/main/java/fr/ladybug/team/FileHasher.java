@@ -0,0 +1,69 @@
+package fr.ladybug.team;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+
+/**
+ * Feeds contents of files to message digests in bulk.
+ * Files smaller than the threshold are read through a direct buffer which every thread reuses,
+ * larger ones are memory-mapped, so their bytes are not copied to the heap at all.
+ * Mappings are released by the garbage collector, so the threshold is not to be too small
+ */
+public class FileHasher {
+    /** Size of the buffer small files are read through */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    /** Files of this size and larger are memory-mapped */
+    public static final long DEFAULT_MAP_THRESHOLD = 16 * 1024 * 1024;
+    /** Hasher with the default sizes */
+    public static final FileHasher DEFAULT = new FileHasher(DEFAULT_BUFFER_SIZE, DEFAULT_MAP_THRESHOLD);
+
+    /** Size of the largest region mapped at once, a mapping may not exceed 2 GB */
+    private static final long REGION_SIZE = 1 << 30;
+
+    private final long mapThreshold;
+    private final ThreadLocal<ByteBuffer> buffers;
+
+    /**
+     * Constructs the hasher
+     * @param bufferSize size of the buffer small files are read through
+     * @param mapThreshold size of the file from which it is memory-mapped, {@link Long#MAX_VALUE} to never map files
+     * @throws IllegalArgumentException if the buffer size is not positive or the threshold is negative
+     */
+    public FileHasher(int bufferSize, long mapThreshold) {
+        if (bufferSize <= 0 || mapThreshold < 0) {
+            throw new IllegalArgumentException("Wrong buffer size or map threshold");
+        }
+        this.mapThreshold = mapThreshold;
+        buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(bufferSize));
+    }
+
+    /**
+     * Feeds the contents of the file to the digest
+     * @param digest the digest to update
+     * @param file the path to the file
+     * @throws IOException the exception is thrown when there is a problem with reading the file
+     */
+    public void update(MessageDigest digest, Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= mapThreshold) {
+                for (long position = 0; position < size; position += REGION_SIZE) {
+                    digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(REGION_SIZE, size - position)));
+                }
+                return;
+            }
+            var buffer = buffers.get();
+            buffer.clear();
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package fr.ladybug.team;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Digests of files kept on disk between runs, an entry is valid while size,
+ * modification time and file key (inode) of its file are the same.
+ * The index file is a log: new entries and removals of entries are appended to it and the last record of a path wins.
+ * When the log grows twice as large as the number of live entries it is rewritten.
+ * A record torn by a crash is at the end of the log only, so it is dropped on loading.
+ * Modification times are kept with the precision of the file system, up to nanoseconds
+ */
+class HashIndex {
+    private static final int MAGIC = 0x4d443549;
+    private static final int VERSION = 1;
+    private static final int RECORD = 0x52;
+    private static final int REMOVAL = 0x44;
+
+    private final Path file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final List<Entry> appended = new ArrayList<>();
+    private long recordCount = 0;
+    /** Whether the log ends with a torn record, then it is rewritten instead of appended to */
+    private boolean isTorn = false;
+
+    /** Digest of a file with the attributes it had, a removal of the entry of the path if there is no digest */
+    static class Entry {
+        private final String path;
+        private final long size;
+        private final long modified;
+        private final String key;
+        private final byte[] digest;
+
+        Entry(String path, BasicFileAttributes attributes, byte[] digest) {
+            this(path, attributes.size(), modifiedOf(attributes), keyOf(attributes), digest);
+        }
+
+        private Entry(String path, long size, long modified, String key, byte[] digest) {
+            this.path = path;
+            this.size = size;
+            this.modified = modified;
+            this.key = key;
+            this.digest = digest;
+        }
+
+        byte[] getDigest() {
+            return digest;
+        }
+
+        private boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && modified == modifiedOf(attributes) && key.equals(keyOf(attributes));
+        }
+
+        private static long modifiedOf(BasicFileAttributes attributes) {
+            return attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+        }
+
+        private static String keyOf(BasicFileAttributes attributes) {
+            var key = attributes.fileKey();
+            return key == null ? "" : key.toString();
+        }
+    }
+
+    /**
+     * Loads the index, the file is created on the first flush if there is none
+     * @throws IOException if the file cannot be read or it is not an index
+     */
+    HashIndex(Path file) throws IOException {
+        this.file = file;
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                throw new IOException("Not a hash index: " + file);
+            }
+            int tag;
+            while ((tag = input.read()) != -1) {
+                Entry entry;
+                try {
+                    if (tag == REMOVAL) {
+                        entries.remove(input.readUTF());
+                        recordCount++;
+                        continue;
+                    }
+                    if (tag != RECORD) {
+                        throw new EOFException();
+                    }
+                    String path = input.readUTF();
+                    long size = input.readLong();
+                    long modified = input.readLong();
+                    String key = input.readUTF();
+                    var digest = new byte[input.readUnsignedByte()];
+                    input.readFully(digest);
+                    entry = new Entry(path, size, modified, key, digest);
+                } catch (EOFException e) {
+                    isTorn = true;
+                    break;
+                }
+                entries.put(entry.path, entry);
+                recordCount++;
+            }
+        } catch (EOFException e) {
+            throw new IOException("Not a hash index: " + file);
+        }
+    }
+
+    /** @return the digest of the path if it has not changed since it was put, null otherwise */
+    byte[] get(String path, BasicFileAttributes attributes) {
+        var entry = entries.get(path);
+        return entry != null && entry.matches(attributes) ? entry.digest : null;
+    }
+
+    void put(Entry entry) {
+        entries.put(entry.path, entry);
+        synchronized (appended) {
+            appended.add(entry);
+        }
+    }
+
+    /**
+     * Removes the entries of the files which are in the directory, or are the file itself, but are not seen there
+     * @param root the path of the file or directory
+     * @param seen paths of the files which are there
+     */
+    void retain(String root, Set<String> seen) {
+        var prefix = root.endsWith(File.separator) ? root : root + File.separator;
+        for (var path : entries.keySet()) {
+            boolean isInside = path.equals(root) || path.startsWith(prefix);
+            if (isInside && !seen.contains(path) && entries.remove(path) != null) {
+                synchronized (appended) {
+                    appended.add(new Entry(path, 0, 0, "", null));
+                }
+            }
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Writes the entries put since the last flush, or the whole index if the log has grown too large
+     * @throws IOException if the index file cannot be written
+     */
+    synchronized void flush() throws IOException {
+        List<Entry> records;
+        synchronized (appended) {
+            records = new ArrayList<>(appended);
+            appended.clear();
+        }
+        if (records.isEmpty()) {
+            return;
+        }
+        if (isTorn || recordCount + records.size() > 2L * entries.size() || !Files.exists(file)) {
+            rewrite();
+            return;
+        }
+        try (var output = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.APPEND)))) {
+            for (var entry : records) {
+                write(output, entry);
+            }
+        }
+        recordCount += records.size();
+    }
+
+    /** Writes live entries to a new file and puts it in place of the old one */
+    private void rewrite() throws IOException {
+        var parent = file.toAbsolutePath().getParent();
+        var temporary = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                for (var entry : entries.values()) {
+                    write(output, entry);
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        recordCount = entries.size();
+        isTorn = false;
+    }
+
+    private static void write(DataOutputStream output, Entry entry) throws IOException {
+        if (entry.digest == null) {
+            output.writeByte(REMOVAL);
+            output.writeUTF(entry.path);
+            return;
+        }
+        output.writeByte(RECORD);
+        output.writeUTF(entry.path);
+        output.writeLong(entry.size);
+        output.writeLong(entry.modified);
+        output.writeUTF(entry.key);
+        output.writeByte(entry.digest.length);
+        output.write(entry.digest);
+    }
+}
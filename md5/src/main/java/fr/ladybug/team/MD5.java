@@ -1,6 +1,10 @@
 package fr.ladybug.team;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * MD5 utilities class
@@ -14,6 +18,15 @@ public class MD5 {
         return new SingleThreadMD5();
     }
 
+    /**
+     * Creates MD5 single thread evaluator
+     * @param hasher the way contents of files are read
+     * @return MD5Evaluator which is single thread implemented
+     */
+    public static MD5Evaluator getEvaluator(FileHasher hasher) {
+        return new SingleThreadMD5(hasher);
+    }
+
     /**
      * Creates MD5 multi thread evaluator
      * @return MD5Evaluator which is multi thread implemented
@@ -22,13 +35,69 @@ public class MD5 {
         return new MultiThreadMD5();
     }
 
+    /**
+     * Creates MD5 multi thread evaluator
+     * @param hasher the way contents of files are read
+     * @return MD5Evaluator which is multi thread implemented
+     */
+    public static MD5Evaluator getEvaluatorMultiThread(FileHasher hasher) {
+        return new MultiThreadMD5(hasher);
+    }
+
+    /**
+     * Creates MD5 multi thread evaluator
+     * @param hasher the way contents of files are read
+     * @param pool the pool files are read in
+     * @return MD5Evaluator which is multi thread implemented
+     */
+    public static MD5Evaluator getEvaluatorMultiThread(FileHasher hasher, ForkJoinPool pool) {
+        return new MultiThreadMD5(hasher, pool);
+    }
+
+    /**
+     * Creates MD5 single thread evaluator which keeps digests between runs
+     * @param indexPath the path to the file the digests are kept in
+     * @return MD5Evaluator which reads only the files changed since the last run
+     * @throws IOException the exception is thrown when the index cannot be read
+     */
+    public static MD5Evaluator getEvaluatorCached(String indexPath) throws IOException {
+        return new CachedMD5(Path.of(indexPath));
+    }
+
+    /**
+     * Creates evaluator of the chunked tree digest, which reads single files in parallel.
+     * It is a format of its own, see {@link ChunkedMD5}
+     * @return MD5Evaluator which returns digests labeled with the format
+     */
+    public static MD5Evaluator getEvaluatorChunked() {
+        return new ChunkedMD5();
+    }
+
+    /**
+     * Creates multi thread evaluator of digest trees
+     * @param algorithm name of the digest algorithm, "MD5" or "SHA-256" for instance
+     * @return MerkleTreeEvaluator which feeds raw digests of children to their directory
+     * @throws NoSuchAlgorithmException the exception is thrown when there is no such algorithm
+     */
+    public static MerkleTreeEvaluator getEvaluatorMerkle(String algorithm) throws NoSuchAlgorithmException {
+        return new MerkleTreeEvaluator(algorithm);
+    }
+
     /**
      * Transforms digest from byte array to hex string
      * @param md5 the digest to transform
      * @return the result hex string
      */
     public static String getHexStringFromMD5(MessageDigest md5) {
-        var byteDigest = md5.digest();
+        return getHexString(md5.digest());
+    }
+
+    /**
+     * Transforms digest from byte array to hex string
+     * @param byteDigest the digest to transform
+     * @return the result hex string
+     */
+    public static String getHexString(byte[] byteDigest) {
         var hexStringBuilder = new StringBuilder();
         for (byte b : byteDigest) {
             if ((0xff & b) < 0x10) {
@@ -0,0 +1,170 @@
+package fr.ladybug.team;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Node of the digest tree built by {@link MerkleTreeEvaluator}, a file or a directory with its children sorted by name.
+ * Trees are compared from the root down and equal subtrees are skipped at once, so a diff costs in proportion
+ * to the number of changes rather than the size of the tree.
+ * A tree is exported as lines of "digest type path" in pre-order, where type is "d" or "f" and the path
+ * is relative to the root, which is ".". Names with line breaks are not supported by the export
+ */
+public class MerkleNode {
+    private final String name;
+    private final byte[] digest;
+    /** Children sorted by name, null for a file */
+    private final List<MerkleNode> children;
+
+    MerkleNode(String name, byte[] digest, List<MerkleNode> children) {
+        this.name = name;
+        this.digest = digest;
+        this.children = children;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** @return a copy of the digest */
+    public byte[] getDigest() {
+        return digest.clone();
+    }
+
+    /** @return the digest itself, it is not to be changed */
+    byte[] digest() {
+        return digest;
+    }
+
+    public String getHexDigest() {
+        return MD5.getHexString(digest);
+    }
+
+    public boolean isDirectory() {
+        return children != null;
+    }
+
+    /** @return children sorted by name, empty for a file */
+    public List<MerkleNode> getChildren() {
+        return children == null ? Collections.emptyList() : Collections.unmodifiableList(children);
+    }
+
+    /**
+     * Compares the tree with the other one
+     * @param other the tree to compare with, built with the same algorithm
+     * @return paths relative to the root of the files and directories which are changed, added or removed,
+     * a directory is listed only if it has become a file or vice versa
+     */
+    public List<String> diff(MerkleNode other) {
+        var res = new ArrayList<String>();
+        diff(this, other, ".", res);
+        return res;
+    }
+
+    private static void diff(MerkleNode node, MerkleNode other, String path, List<String> res) {
+        if (Arrays.equals(node.digest, other.digest)) {
+            return;
+        }
+        if (!node.isDirectory() || !other.isDirectory()) {
+            res.add(path);
+            return;
+        }
+        int i = 0;
+        int j = 0;
+        while (i < node.children.size() || j < other.children.size()) {
+            int compare = i == node.children.size() ? 1 : j == other.children.size() ? -1
+                    : node.children.get(i).name.compareTo(other.children.get(j).name);
+            if (compare < 0) {
+                res.add(childPath(path, node.children.get(i++).name));
+            } else if (compare > 0) {
+                res.add(childPath(path, other.children.get(j++).name));
+            } else {
+                var child = node.children.get(i++);
+                diff(child, other.children.get(j++), childPath(path, child.name), res);
+            }
+        }
+    }
+
+    private static String childPath(String path, String name) {
+        return path.equals(".") ? name : path + "/" + name;
+    }
+
+    /**
+     * Writes the tree in the export format
+     * @param out where to write
+     * @throws IOException the exception is thrown when the tree cannot be written
+     */
+    public void export(Appendable out) throws IOException {
+        export(out, ".");
+    }
+
+    private void export(Appendable out, String path) throws IOException {
+        out.append(getHexDigest()).append(isDirectory() ? " d " : " f ").append(path).append('\n');
+        if (children != null) {
+            for (var child : children) {
+                child.export(out, childPath(path, child.name));
+            }
+        }
+    }
+
+    /**
+     * Reads the tree written by {@link #export(Appendable)}
+     * @param reader where to read from
+     * @param name name of the root
+     * @return the root of the tree
+     * @throws IOException the exception is thrown when the tree cannot be read or it is malformed
+     */
+    public static MerkleNode parse(BufferedReader reader, String name) throws IOException {
+        var directories = new HashMap<String, MerkleNode>();
+        MerkleNode root = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            var parts = line.split(" ", 3);
+            if (parts.length != 3 || !(parts[1].equals("d") || parts[1].equals("f"))
+                    || (root == null) != parts[2].equals(".")) {
+                throw new IOException("Malformed line: " + line);
+            }
+            var path = parts[2];
+            int slash = path.lastIndexOf('/');
+            var node = new MerkleNode(root == null ? name : path.substring(slash + 1), parseHex(parts[0]),
+                    parts[1].equals("d") ? new ArrayList<>() : null);
+            if (root == null) {
+                root = node;
+            } else {
+                var parent = directories.get(slash < 0 ? "." : path.substring(0, slash));
+                if (parent == null) {
+                    throw new IOException("No directory for " + path);
+                }
+                parent.children.add(node);
+            }
+            if (node.isDirectory()) {
+                directories.put(path, node);
+            }
+        }
+        if (root == null) {
+            throw new IOException("The tree is empty");
+        }
+        return root;
+    }
+
+    private static byte[] parseHex(String hex) throws IOException {
+        if (hex.length() % 2 != 0) {
+            throw new IOException("Malformed digest: " + hex);
+        }
+        var res = new byte[hex.length() / 2];
+        for (int i = 0; i < res.length; i++) {
+            int high = Character.digit(hex.charAt(2 * i), 16);
+            int low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IOException("Malformed digest: " + hex);
+            }
+            res[i] = (byte) (high << 4 | low);
+        }
+        return res;
+    }
+}
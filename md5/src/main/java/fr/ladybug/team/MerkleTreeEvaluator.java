@@ -0,0 +1,139 @@
+package fr.ladybug.team;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Multi thread evaluator which builds the tree of digests, see {@link MerkleNode}.
+ * Raw digests of children are fed to the digest of their directory, there are no hex strings in between.
+ * The digest of a file is H(0 || contents), the digest of a directory is H(1 || for every child sorted by name:
+ * length of its UTF-8 name as 4 bytes || the name || its digest), so renaming and moving files changes digests
+ * and the result does not depend on the order the file system lists directories in.
+ * The digests are not the ones of {@link SingleThreadMD5} even with MD5.
+ * Any {@link MessageDigest} algorithm is supported: the JDK has MD5, SHA-1, SHA-256, SHA-512/256, SHA3-256 and
+ * others, providers registered in {@link java.security.Security} add more, BLAKE2 or xxHash for instance
+ */
+public class MerkleTreeEvaluator implements MD5Evaluator {
+    private static final byte FILE_PREFIX = 0;
+    private static final byte DIRECTORY_PREFIX = 1;
+
+    private final String algorithm;
+    private final FileHasher hasher;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs the evaluator reading files with the default buffer size and map threshold in the shared pool
+     * @param algorithm name of the digest algorithm
+     * @throws NoSuchAlgorithmException the exception is thrown when there is no such algorithm
+     */
+    public MerkleTreeEvaluator(String algorithm) throws NoSuchAlgorithmException {
+        this(algorithm, FileHasher.DEFAULT, SharedPool.POOL);
+    }
+
+    /**
+     * Constructs the evaluator
+     * @param algorithm name of the digest algorithm
+     * @param hasher the way contents of files are read
+     * @param pool the pool files are read in
+     * @throws NoSuchAlgorithmException the exception is thrown when there is no such algorithm
+     */
+    public MerkleTreeEvaluator(String algorithm, FileHasher hasher, ForkJoinPool pool) throws NoSuchAlgorithmException {
+        MessageDigest.getInstance(algorithm);
+        this.algorithm = algorithm;
+        this.hasher = hasher;
+        this.pool = pool;
+    }
+
+    @Override
+    /** {@inheritDoc} The digest is the one of the root of the tree */
+    public String evaluate(String filepath) throws IOException {
+        return build(filepath).getHexDigest();
+    }
+
+    /**
+     * Builds the tree of digests
+     * @param filepath the path to the target file or directory
+     * @return the root of the tree
+     * @throws IOException the exception is thrown when there is a problem with reading the files
+     */
+    public MerkleNode build(String filepath) throws IOException {
+        var file = new File(filepath);
+        if (!file.exists()) {
+            throw new IOException("No such file " + filepath);
+        }
+        try {
+            return pool.invoke(new NodeTask(file));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("The algorithm was checked on construction", e);
+        }
+    }
+
+    /** Builds the node of the file or directory */
+    private class NodeTask extends RecursiveTask<MerkleNode> {
+        private final File file;
+
+        private NodeTask(File file) {
+            this.file = file;
+        }
+
+        @Override
+        protected MerkleNode compute() {
+            var digest = newDigest();
+            if (!file.isDirectory()) {
+                digest.update(FILE_PREFIX);
+                try {
+                    hasher.update(digest, file.toPath());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return new MerkleNode(file.getName(), digest.digest(), null);
+            }
+
+            var files = file.listFiles();
+            if (files == null) {
+                throw new UncheckedIOException(new IOException("Cannot list the directory " + file));
+            }
+            Arrays.sort(files, Comparator.comparing(File::getName));
+            var tasks = new ArrayList<NodeTask>(files.length);
+            for (var child : files) {
+                var task = new NodeTask(child);
+                task.fork();
+                tasks.add(task);
+            }
+
+            digest.update(DIRECTORY_PREFIX);
+            var children = new ArrayList<MerkleNode>(files.length);
+            var length = new byte[4];
+            for (var task : tasks) {
+                var child = task.join();
+                var name = child.getName().getBytes(StandardCharsets.UTF_8);
+                length[0] = (byte) (name.length >>> 24);
+                length[1] = (byte) (name.length >>> 16);
+                length[2] = (byte) (name.length >>> 8);
+                length[3] = (byte) name.length;
+                digest.update(length);
+                digest.update(name);
+                digest.update(child.digest());
+                children.add(child);
+            }
+            return new MerkleNode(file.getName(), digest.digest(), children);
+        }
+    }
+}
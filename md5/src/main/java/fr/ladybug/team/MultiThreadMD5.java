@@ -1,85 +1,180 @@
 package fr.ladybug.team;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.security.DigestInputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.Comparator;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.RecursiveTask;
 
+/**
+ * Multi thread evaluator, directories are read in parallel in a fork-join pool.
+ * Files smaller than {@link #BATCH_SIZE} are read in batches of about that size, so there is no task per tiny file.
+ * Directories and larger files are tasks of their own, tasks are forked from the largest one, so other threads
+ * steal directories and large files while the current one reads the batches.
+ * Evaluators share one pool unless they are given their own, so repeated calls do not create threads
+ */
 public class MultiThreadMD5 implements MD5Evaluator {
+    /** Number of bytes of small files read by one task */
+    public static final long BATCH_SIZE = 1024 * 1024;
+
+    private final FileHasher hasher;
+    private final ForkJoinPool pool;
+
+    /** Constructs the evaluator reading files with the default buffer size and map threshold in the shared pool */
+    public MultiThreadMD5() {
+        this(FileHasher.DEFAULT);
+    }
+
+    /**
+     * Constructs the evaluator running in the shared pool with a thread per processor
+     * @param hasher the way contents of files are read
+     */
+    public MultiThreadMD5(FileHasher hasher) {
+        this(hasher, SharedPool.POOL);
+    }
+
+    /**
+     * Constructs the evaluator
+     * @param hasher the way contents of files are read
+     * @param pool the pool files are read in, it is not shut down by the evaluator
+     */
+    public MultiThreadMD5(FileHasher hasher, ForkJoinPool pool) {
+        this.hasher = hasher;
+        this.pool = pool;
+    }
+
     @Override
     /** {@inheritDoc} */
     public String evaluate(String filepath) throws IOException, NoSuchAlgorithmException {
-        return new ForkJoinPool().invoke(new MD5Task(filepath));
+        return pool.invoke(new MD5Task(new File(filepath)));
+    }
+
+    private String digestOf(File file, boolean isDirectory) {
+        MessageDigest digestObject;
+        try {
+            digestObject = MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("No MD5 hash algorithm");
+        }
+        if (!isDirectory) {
+            try {
+                hasher.update(digestObject, file.toPath());
+            } catch (IOException e) {
+                throw new RuntimeException("Cannot read file properly. Unchecked");
+            }
+            return MD5.getHexStringFromMD5(digestObject);
+        }
+
+        File[] files = file.listFiles();
+        if (files == null) {
+            throw new RuntimeException("Cannot read file properly. Unchecked");
+        }
+        var results = new String[files.length];
+        var areDirectories = new boolean[files.length];
+        // small files are put from the start in batches, directories and large files from the end one by one
+        var indices = new int[files.length];
+        int smallCount = 0;
+        int largeStart = files.length;
+        var tasks = new ArrayList<BatchTask>();
+        int batchStart = 0;
+        long batchSize = 0;
+        for (int i = 0; i < files.length; i++) {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(files[i].toPath(), BasicFileAttributes.class);
+            } catch (IOException e) {
+                throw new RuntimeException("Cannot read file properly. Unchecked");
+            }
+            areDirectories[i] = attributes.isDirectory();
+            if (areDirectories[i] || attributes.size() >= BATCH_SIZE) {
+                long cost = areDirectories[i] ? Long.MAX_VALUE : attributes.size();
+                indices[--largeStart] = i;
+                tasks.add(new BatchTask(files, areDirectories, results, indices, largeStart, largeStart + 1, cost));
+                continue;
+            }
+            indices[smallCount++] = i;
+            batchSize += attributes.size() + 1;
+            if (batchSize >= BATCH_SIZE) {
+                tasks.add(new BatchTask(files, areDirectories, results, indices, batchStart, smallCount, batchSize));
+                batchStart = smallCount;
+                batchSize = 0;
+            }
+        }
+        if (batchStart < smallCount) {
+            tasks.add(new BatchTask(files, areDirectories, results, indices, batchStart, smallCount, batchSize));
+        }
+
+        tasks.sort(Comparator.comparingLong((BatchTask task) -> task.cost).reversed());
+        for (int i = 1; i < tasks.size(); i++) {
+            tasks.get(i).fork();
+        }
+        if (!tasks.isEmpty()) {
+            tasks.get(0).invoke();
+        }
+        for (int i = tasks.size() - 1; i > 0; i--) {
+            tasks.get(i).join();
+        }
+
+        StringBuilder dataBuilder = new StringBuilder();
+        for (var result : results) {
+            dataBuilder.append(result);
+        }
+        digestObject.update(dataBuilder.toString().getBytes(StandardCharsets.UTF_8));
+        return MD5.getHexStringFromMD5(digestObject);
     }
 
     /**
      * Task for fork-join pool
      */
-    private static class MD5Task extends RecursiveTask<String> {
-        private final String filepath;
+    private class MD5Task extends RecursiveTask<String> {
+        private final File file;
 
-        private MD5Task(String filepath) {
-            this.filepath = filepath;
+        private MD5Task(File file) {
+            this.file = file;
         }
 
         @Override
         protected String compute() {
-            File currentFile = new File(filepath);
-            if (!currentFile.isDirectory()) {
-                String digest = null;
-                try (FileInputStream inputStream = new FileInputStream(currentFile);
-                     DigestInputStream digestInputStream = new DigestInputStream(inputStream, MessageDigest.getInstance("MD5"))) {
-
-                    digestInputStream.on(true);
-                    int status;
-                    while ((status = digestInputStream.read()) != -1);
-                    digestInputStream.close();
-                    digest = MD5.getHexStringFromMD5(digestInputStream.getMessageDigest());
-                } catch (NoSuchAlgorithmException e) {
-                    throw new RuntimeException("No MD5 hash algorithm");
-                } catch (FileNotFoundException e) {
-                    throw new RuntimeException("File not found. Unchecked");
-                } catch (IOException e) {
-                    throw new RuntimeException("Cannot read file properly. Unchecked");
-                }
-                return digest;
-            }
-
-            File[] files = currentFile.listFiles();
-            if (files == null) {
-                throw new RuntimeException("Cannot read file properly. Unchecked");
-            }
+            return digestOf(file, file.isDirectory());
+        }
+    }
 
-            List<MD5Task> tasks = new ArrayList<>();
-            for (File file : files) {
-                MD5Task task = new MD5Task(file.getPath());
-                task.fork();
-                tasks.add(task);
-            }
+    /** Task reading a run of small files, a directory or a large file */
+    private class BatchTask extends RecursiveAction {
+        private final File[] files;
+        private final boolean[] areDirectories;
+        private final String[] results;
+        /** Indices of the files to read are indices[from], ..., indices[to - 1] */
+        private final int[] indices;
+        private final int from;
+        private final int to;
+        /** Number of bytes to read, the unknown cost of a directory is the largest */
+        private final long cost;
 
-            StringBuilder dataBuilder = new StringBuilder();
-            for (var task : tasks) {
-                dataBuilder.append(task.join());
-            }
-            String data = dataBuilder.toString();
+        private BatchTask(File[] files, boolean[] areDirectories, String[] results, int[] indices,
+                          int from, int to, long cost) {
+            this.files = files;
+            this.areDirectories = areDirectories;
+            this.results = results;
+            this.indices = indices;
+            this.from = from;
+            this.to = to;
+            this.cost = cost;
+        }
 
-            MessageDigest digestObject = null;
-            try {
-                digestObject = MessageDigest.getInstance("MD5");
-            } catch (NoSuchAlgorithmException e) {
-                throw new RuntimeException("No MD5 hash algorithm");
+        @Override
+        protected void compute() {
+            for (int i = from; i < to; i++) {
+                int index = indices[i];
+                results[index] = digestOf(files[index], areDirectories[index]);
             }
-
-            digestObject.update(data.getBytes(StandardCharsets.UTF_8));
-            return MD5.getHexStringFromMD5(digestObject);
         }
     }
 }
@@ -0,0 +1,14 @@
+package fr.ladybug.team;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Holder of the pool shared by the evaluators created without one, so they do not compete with the common pool
+ * and with each other's pools. Its threads are daemons, it is created on the first use and never shut down
+ */
+class SharedPool {
+    static final ForkJoinPool POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    private SharedPool() {
+    }
+}
@@ -1,33 +1,35 @@
 package fr.ladybug.team;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.security.DigestInputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.Arrays;
 
 public class SingleThreadMD5 implements MD5Evaluator {
+    private final FileHasher hasher;
+
+    /** Constructs the evaluator reading files with the default buffer size and map threshold */
+    public SingleThreadMD5() {
+        this(FileHasher.DEFAULT);
+    }
+
+    /**
+     * Constructs the evaluator
+     * @param hasher the way contents of files are read
+     */
+    public SingleThreadMD5(FileHasher hasher) {
+        this.hasher = hasher;
+    }
+
     @Override
     /** {@inheritDoc} */
     public String evaluate(String filepath) throws IOException, NoSuchAlgorithmException {
         File currentFile = new File(filepath);
         if (!currentFile.isDirectory()) {
-            String digest = null;
-            try (FileInputStream inputStream = new FileInputStream(currentFile);
-                 DigestInputStream digestInputStream = new DigestInputStream(inputStream, MessageDigest.getInstance("MD5"))) {
-
-                digestInputStream.on(true);
-                int status;
-                while ((status = digestInputStream.read()) != -1);
-                digestInputStream.close();
-
-                digest = MD5.getHexStringFromMD5(digestInputStream.getMessageDigest());
-            }
-            return digest;
+            var digestObject = MessageDigest.getInstance("MD5");
+            hasher.update(digestObject, currentFile.toPath());
+            return MD5.getHexStringFromMD5(digestObject);
         }
 
         File[] files = currentFile.listFiles();
@@ -0,0 +1,79 @@
+package fr.ladybug.team.benchmark;
+
+import fr.ladybug.team.CachedMD5;
+import fr.ladybug.team.MD5;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long digesting a tree of small files takes without the index, with an empty one
+ * and with the index of the unchanged tree, which costs a stat per file.
+ * The tree has a hundred files of 4 KB in every directory and it is written to the temporary directory first.
+ * The tree is digested in three rounds, the first one also brings its metadata to the page cache.
+ * Usage: CacheBenchmark [number of files]
+ */
+public class CacheBenchmark {
+    private static final int FILES_PER_DIRECTORY = 100;
+    private static final int FILE_SIZE = 4096;
+
+    public static void main(String[] args) throws IOException, NoSuchAlgorithmException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        var root = createTree(count);
+        var indexFile = Files.createTempFile("cache", ".index");
+        try {
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                var expected = MD5.getEvaluator().evaluate(root.toString());
+                long uncached = System.nanoTime() - start;
+
+                Files.delete(indexFile);
+                start = System.nanoTime();
+                new CachedMD5(indexFile).evaluate(root.toString());
+                long cold = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                var hash = new CachedMD5(indexFile).evaluate(root.toString());
+                long warm = System.nanoTime() - start;
+                if (!hash.equals(expected)) {
+                    throw new IllegalStateException("Digests differ");
+                }
+                System.out.println(String.format(
+                        "Round %d, %d files: no index %8.1f ms, empty index %8.1f ms, unchanged tree %8.1f ms "
+                                + "(%.2f us per file), index %d KB",
+                        round, count, uncached / 1e6, cold / 1e6, warm / 1e6, (double) warm / count / 1e3,
+                        Files.size(indexFile) / 1024));
+            }
+        } finally {
+            Files.deleteIfExists(indexFile);
+            try (var paths = Files.walk(root)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    /** Writes the tree, the files are made old enough to be cached */
+    private static Path createTree(int count) throws IOException {
+        var root = Files.createTempDirectory("cache");
+        var random = new Random(42);
+        var data = new byte[FILE_SIZE];
+        var time = FileTime.from(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1), TimeUnit.MILLISECONDS);
+        for (int i = 0; i < count; i++) {
+            var directory = root.resolve("dir" + i / FILES_PER_DIRECTORY);
+            if (i % FILES_PER_DIRECTORY == 0) {
+                Files.createDirectory(directory);
+            }
+            random.nextBytes(data);
+            var file = Files.write(directory.resolve("file" + i), data);
+            Files.setLastModifiedTime(file, time);
+        }
+        return root;
+    }
+}
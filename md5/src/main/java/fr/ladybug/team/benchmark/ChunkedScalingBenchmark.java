@@ -0,0 +1,89 @@
+package fr.ladybug.team.benchmark;
+
+import fr.ladybug.team.ChunkedMD5;
+import fr.ladybug.team.FileHasher;
+import fr.ladybug.team.MD5;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how the chunked tree digest of a single file scales with the number of threads, in GB/s,
+ * against the plain MD5 of the file read by one thread. The file is to be larger than RAM, so it cannot stay
+ * in the page cache and reading it from the disk is measured as well; it is written to the temporary directory first.
+ * The digests of all thread counts are checked to be the same.
+ * The file is read once per thread count in each of three rounds, the first round includes JIT compilation.
+ * Usage: ChunkedScalingBenchmark [size in megabytes, 8192 by default] [comma separated thread counts]
+ */
+public class ChunkedScalingBenchmark {
+    private static final long MB = 1024 * 1024;
+
+    public static void main(String[] args) throws IOException, NoSuchAlgorithmException {
+        long size = (args.length > 0 ? Long.parseLong(args[0]) : 8192) * MB;
+        var threadCounts = new ArrayList<Integer>();
+        if (args.length > 1) {
+            for (var count : args[1].split(",")) {
+                threadCounts.add(Integer.parseInt(count));
+            }
+        } else {
+            for (int count = 1; count < Runtime.getRuntime().availableProcessors(); count *= 2) {
+                threadCounts.add(count);
+            }
+            threadCounts.add(Runtime.getRuntime().availableProcessors());
+        }
+
+        var file = createFile(size);
+        try {
+            for (int round = 0; round < 3; round++) {
+                var digest = MessageDigest.getInstance("MD5");
+                long start = System.nanoTime();
+                FileHasher.DEFAULT.update(digest, file.toPath());
+                System.out.println(String.format("Round %d, %d MB: plain MD5, 1 thread %6.3f GB/s",
+                        round, size / MB, (double) size / (System.nanoTime() - start)));
+
+                byte[] expected = null;
+                double single = 0;
+                for (int threadCount : threadCounts) {
+                    var pool = new ForkJoinPool(threadCount);
+                    start = System.nanoTime();
+                    var chunked = new ChunkedMD5(ChunkedMD5.DEFAULT_CHUNK_SIZE, pool).digestOfFile(file.toPath());
+                    double throughput = (double) size / (System.nanoTime() - start);
+                    pool.shutdown();
+                    if (expected == null) {
+                        expected = chunked;
+                        single = throughput;
+                    } else if (!Arrays.equals(expected, chunked)) {
+                        throw new IllegalStateException("Digests differ");
+                    }
+                    System.out.println(String.format("Round %d, %d MB: chunked, %2d threads %6.3f GB/s, x%.2f, %s",
+                            round, size / MB, threadCount, throughput, throughput / single,
+                            MD5.getHexString(chunked)));
+                }
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static File createFile(long size) throws IOException {
+        var file = File.createTempFile("chunked", ".bin");
+        file.deleteOnExit();
+        var random = new Random(size);
+        var chunk = new byte[(int) MB];
+        try (var stream = new BufferedOutputStream(new FileOutputStream(file))) {
+            for (long written = 0; written < size; written += chunk.length) {
+                random.nextBytes(chunk);
+                stream.write(chunk, 0, (int) Math.min(chunk.length, size - written));
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,86 @@
+package fr.ladybug.team.benchmark;
+
+import fr.ladybug.team.FileHasher;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+
+/**
+ * Measures throughput of reading files into MD5 in GB/s: byte by byte through {@link DigestInputStream},
+ * as the evaluators used to, through the reused direct buffer and by memory mapping.
+ * Files from 1 KB to the given size, growing 32 times, are written to the temporary directory first,
+ * so they are mostly in the page cache and the hashing itself is measured. Every size is hashed until
+ * at least a gigabyte (16 MB byte by byte) or the whole file is read.
+ * The byte by byte way is skipped for files over 64 MB and mapping for files under 1 MB: mappings are released
+ * by the garbage collector only, so hashing many small files runs out of them long before the collector comes.
+ * Every size is hashed in three rounds, the read loops of all three ways are compiled during the first one.
+ * Usage: HashingBenchmark [largest size in megabytes, 1024 by default, 10240 for 10 GB]
+ */
+public class HashingBenchmark {
+    private static final long KB = 1024;
+    private static final long MB = KB * KB;
+    private static final long GB = KB * MB;
+    private static final long STREAM_LIMIT = 64 * MB;
+    private static final long MAP_LIMIT = MB;
+
+    public static void main(String[] args) throws IOException, NoSuchAlgorithmException {
+        long maxSize = (args.length > 0 ? Long.parseLong(args[0]) : 1024) * MB;
+        var buffered = new FileHasher(FileHasher.DEFAULT_BUFFER_SIZE, Long.MAX_VALUE);
+        var mapped = new FileHasher(FileHasher.DEFAULT_BUFFER_SIZE, 0);
+
+        for (long size = KB; size <= maxSize; size = size * 32 > maxSize && size < maxSize ? maxSize : size * 32) {
+            var file = createFile(size);
+            try {
+                for (int round = 0; round < 3; round++) {
+                    double stream = size <= STREAM_LIMIT ? measure(file, size, null) : Double.NaN;
+                    double map = size >= MAP_LIMIT ? measure(file, size, mapped) : Double.NaN;
+                    System.out.println(String.format(
+                            "Round %d, %10d KB: stream %6.3f GB/s, buffered %6.3f GB/s, mapped %6.3f GB/s",
+                            round, size / KB, stream, measure(file, size, buffered), map));
+                }
+            } finally {
+                file.delete();
+            }
+        }
+    }
+
+    /** @return throughput in GB/s, the file is read byte by byte if there is no hasher */
+    private static double measure(File file, long size, FileHasher hasher)
+            throws IOException, NoSuchAlgorithmException {
+        long repeats = Math.max(1, (hasher != null ? GB : 16 * MB) / size);
+        var digest = MessageDigest.getInstance("MD5");
+        long start = System.nanoTime();
+        for (long i = 0; i < repeats; i++) {
+            if (hasher != null) {
+                hasher.update(digest, file.toPath());
+            } else {
+                try (var stream = new DigestInputStream(new FileInputStream(file), digest)) {
+                    while (stream.read() != -1);
+                }
+            }
+            digest.reset();
+        }
+        return (double) (size * repeats) / (System.nanoTime() - start);
+    }
+
+    private static File createFile(long size) throws IOException {
+        var file = File.createTempFile("hashing", ".bin");
+        file.deleteOnExit();
+        var random = new Random(size);
+        var chunk = new byte[(int) Math.min(size, MB)];
+        try (var stream = new BufferedOutputStream(new FileOutputStream(file))) {
+            for (long written = 0; written < size; written += chunk.length) {
+                random.nextBytes(chunk);
+                stream.write(chunk, 0, (int) Math.min(chunk.length, size - written));
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,137 @@
+package fr.ladybug.team.benchmark;
+
+import fr.ladybug.team.FileHasher;
+import fr.ladybug.team.MD5;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntSupplier;
+
+/**
+ * Compares the multi thread evaluator with the way it used to work, a new pool for every call and a task
+ * for every file, on trees with skewed sizes of files: tiny files only, tiny files with a few huge ones
+ * and sizes of Pareto distribution.
+ * Live threads are counted after every call, the pools which are not shut down keep theirs for a while.
+ * The trees are written to the temporary directory first, the shared pool starts its threads and the hashing
+ * code is compiled during the first of three rounds.
+ * Usage: SkewedTreeBenchmark [number of threads]
+ */
+public class SkewedTreeBenchmark {
+    private static final int KB = 1024;
+    private static final int MB = KB * KB;
+
+    public static void main(String[] args) throws IOException, NoSuchAlgorithmException {
+        int threadCount = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        var random = new Random(42);
+        var trees = new Path[] {
+                createTree("tiny", 50_000, () -> KB),
+                createTree("skewed", 20_004, new IntSupplier() {
+                    private int count = 0;
+
+                    @Override
+                    public int getAsInt() {
+                        return count++ % 5000 == 0 ? 64 * MB : 2 * KB;
+                    }
+                }),
+                createTree("pareto", 5_000, () -> (int) Math.min(64 * MB, 4 * KB / Math.pow(random.nextDouble(), 1.2)))
+        };
+        var pool = new ForkJoinPool(threadCount);
+        var evaluator = MD5.getEvaluatorMultiThread(FileHasher.DEFAULT, pool);
+        try {
+            for (int round = 0; round < 3; round++) {
+                System.out.println(String.format("Round %d, %d threads", round, threadCount));
+                for (var tree : trees) {
+                    long start = System.nanoTime();
+                    var expected = perTask(tree.toString());
+                    long perTaskTime = System.nanoTime() - start;
+                    int perTaskThreads = Thread.activeCount();
+
+                    start = System.nanoTime();
+                    var hash = evaluator.evaluate(tree.toString());
+                    long batchedTime = System.nanoTime() - start;
+                    if (!hash.equals(expected)) {
+                        throw new IllegalStateException("Digests differ");
+                    }
+                    System.out.println(String.format(
+                            "%-7s task per file, new pool %8.1f ms (%3d live threads); batched, shared pool %8.1f ms",
+                            tree.getFileName().toString().split("-")[0], perTaskTime / 1e6, perTaskThreads,
+                            batchedTime / 1e6));
+                }
+            }
+        } finally {
+            pool.shutdown();
+            for (var tree : trees) {
+                try (var paths = Files.walk(tree)) {
+                    paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+                }
+            }
+        }
+    }
+
+    private static Path createTree(String name, int count, IntSupplier sizes) throws IOException {
+        var root = Files.createTempDirectory(name + "-");
+        var random = new Random(count);
+        var data = new byte[64 * MB];
+        random.nextBytes(data);
+        for (int i = 0; i < count; i++) {
+            var directory = root.resolve("dir" + i % 50);
+            if (i < 50) {
+                Files.createDirectory(directory);
+            }
+            int size = sizes.getAsInt();
+            data[0] = (byte) i;
+            try (var stream = Files.newOutputStream(directory.resolve("file" + i))) {
+                stream.write(data, 0, size);
+            }
+        }
+        return root;
+    }
+
+    /** Evaluates the digest as it used to be: a new pool which is never shut down and a task for every file */
+    private static String perTask(String filepath) {
+        return new ForkJoinPool().invoke(new PerFileTask(new File(filepath)));
+    }
+
+    private static class PerFileTask extends RecursiveTask<String> {
+        private final File file;
+
+        private PerFileTask(File file) {
+            this.file = file;
+        }
+
+        @Override
+        protected String compute() {
+            try {
+                var digest = MessageDigest.getInstance("MD5");
+                if (!file.isDirectory()) {
+                    FileHasher.DEFAULT.update(digest, file.toPath());
+                    return MD5.getHexStringFromMD5(digest);
+                }
+                var tasks = new ArrayList<PerFileTask>();
+                for (var child : file.listFiles()) {
+                    var task = new PerFileTask(child);
+                    task.fork();
+                    tasks.add(task);
+                }
+                var data = new StringBuilder();
+                for (var task : tasks) {
+                    data.append(task.join());
+                }
+                digest.update(data.toString().getBytes(StandardCharsets.UTF_8));
+                return MD5.getHexStringFromMD5(digest);
+            } catch (NoSuchAlgorithmException | IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package fr.ladybug.team;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachedMD5Test {
+    private Path root;
+    private Path indexFile;
+
+    @BeforeEach
+    void createTree() throws IOException {
+        root = Files.createTempDirectory("cached");
+        indexFile = Files.createTempFile("cached", ".index");
+        Files.delete(indexFile);
+        for (int i = 0; i < 3; i++) {
+            var directory = Files.createDirectories(root.resolve("dir" + i).resolve("sub"));
+            for (int j = 0; j < 4; j++) {
+                write(directory.resolve("file" + j), "content " + i + " " + j);
+            }
+        }
+        write(root.resolve("top"), "top");
+        age(root);
+    }
+
+    @AfterEach
+    void deleteTree() throws IOException {
+        try (var paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+        Files.deleteIfExists(indexFile);
+    }
+
+    private void write(Path file, String content) throws IOException {
+        Files.writeString(file, content);
+    }
+
+    /** Makes all files of the tree older than the racy interval, changed files are told apart by their sizes */
+    private void age(Path path) throws IOException {
+        var time = FileTime.from(1_500_000_000, TimeUnit.SECONDS);
+        try (var paths = Files.walk(path)) {
+            for (var file : (Iterable<Path>) paths::iterator) {
+                Files.setLastModifiedTime(file, time);
+            }
+        }
+    }
+
+    private String expected() throws IOException, NoSuchAlgorithmException {
+        return MD5.getEvaluator().evaluate(root.toString());
+    }
+
+    @Test
+    void testSameDigestsAsSingleThread() throws IOException, NoSuchAlgorithmException {
+        var evaluator = new CachedMD5(indexFile);
+        assertEquals(expected(), evaluator.evaluate(root.toString()));
+        assertEquals(13, evaluator.getHashedCount());
+        assertEquals(expected(), evaluator.evaluate(root.toString()));
+        assertEquals(13, evaluator.getHashedCount());
+        var file = root.resolve("dir1").resolve("sub").resolve("file2").toString();
+        assertEquals(MD5.getEvaluator().evaluate(file), evaluator.evaluate(file));
+    }
+
+    @Test
+    void testIndexIsKeptBetweenRuns() throws IOException, NoSuchAlgorithmException {
+        new CachedMD5(indexFile).evaluate(root.toString());
+        var evaluator = new CachedMD5(indexFile);
+        assertEquals(expected(), evaluator.evaluate(root.toString()));
+        assertEquals(0, evaluator.getHashedCount());
+    }
+
+    @Test
+    void testOnlyChangedFilesAreRead() throws IOException, NoSuchAlgorithmException {
+        new CachedMD5(indexFile).evaluate(root.toString());
+        write(root.resolve("dir2").resolve("sub").resolve("file1"), "changed");
+        Files.delete(root.resolve("dir0").resolve("sub").resolve("file3"));
+        write(root.resolve("dir1").resolve("new"), "new");
+        age(root);
+
+        var evaluator = new CachedMD5(indexFile);
+        assertEquals(expected(), evaluator.evaluate(root.toString()));
+        assertEquals(2, evaluator.getHashedCount());
+    }
+
+    @Test
+    void testEntriesOfDeletedFilesAreDropped() throws IOException, NoSuchAlgorithmException {
+        new CachedMD5(indexFile).evaluate(root.toString());
+        assertEquals(13, new HashIndex(indexFile).size());
+
+        Files.delete(root.resolve("dir0").resolve("sub").resolve("file3"));
+        Files.delete(root.resolve("top"));
+        // evaluating a subtree drops the entries under it only
+        new CachedMD5(indexFile).evaluate(root.resolve("dir0").toString());
+        assertEquals(12, new HashIndex(indexFile).size());
+        var evaluator = new CachedMD5(indexFile);
+        assertEquals(expected(), evaluator.evaluate(root.toString()));
+        assertEquals(0, evaluator.getHashedCount());
+        assertEquals(11, new HashIndex(indexFile).size());
+    }
+
+    @Test
+    void testRecentlyModifiedFilesAreNotCached() throws IOException, NoSuchAlgorithmException {
+        write(root.resolve("top"), "just now");
+        var evaluator = new CachedMD5(indexFile);
+        evaluator.evaluate(root.toString());
+        evaluator.evaluate(root.toString());
+        assertEquals(14, evaluator.getHashedCount());
+    }
+
+    @Test
+    void testTornIndexIsRecovered() throws IOException, NoSuchAlgorithmException {
+        new CachedMD5(indexFile).evaluate(root.toString());
+        var bytes = Files.readAllBytes(indexFile);
+        Files.write(indexFile, Arrays.copyOf(bytes, bytes.length - 5));
+
+        var evaluator = new CachedMD5(indexFile);
+        assertEquals(expected(), evaluator.evaluate(root.toString()));
+        assertTrue(evaluator.getHashedCount() <= 1);
+        var reloaded = new CachedMD5(indexFile);
+        assertEquals(expected(), reloaded.evaluate(root.toString()));
+        assertEquals(0, reloaded.getHashedCount());
+    }
+
+    @Test
+    void testNotAnIndex() throws IOException {
+        write(indexFile, "not an index");
+        assertThrows(IOException.class, () -> new CachedMD5(indexFile));
+    }
+}
@@ -0,0 +1,93 @@
+package fr.ladybug.team;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedMD5Test {
+    private static final int CHUNK_SIZE = ChunkedMD5.MIN_CHUNK_SIZE;
+
+    private Path file;
+    private byte[] data;
+
+    @BeforeEach
+    void createFile() throws IOException {
+        file = Files.createTempFile("chunked", ".bin");
+        data = new byte[11 * CHUNK_SIZE / 2 + 17];
+        new Random(42).nextBytes(data);
+        Files.write(file, data);
+    }
+
+    @AfterEach
+    void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    private static byte[] expected(byte[] data, int chunkSize) throws NoSuchAlgorithmException {
+        var root = MessageDigest.getInstance("MD5");
+        root.update((byte) 1);
+        root.update(ByteBuffer.allocate(16).putLong(chunkSize).putLong(data.length).array());
+        for (int position = 0; position < data.length; position += chunkSize) {
+            var chunk = MessageDigest.getInstance("MD5");
+            chunk.update((byte) 0);
+            chunk.update(Arrays.copyOfRange(data, position, Math.min(data.length, position + chunkSize)));
+            root.update(chunk.digest());
+        }
+        return root.digest();
+    }
+
+    @Test
+    void testDigestIsSameWithAnyThreads() throws IOException, NoSuchAlgorithmException {
+        var expected = expected(data, CHUNK_SIZE);
+        for (int threadCount : new int[] {1, 2, 3, 8}) {
+            var pool = new ForkJoinPool(threadCount);
+            try {
+                assertArrayEquals(expected, new ChunkedMD5(CHUNK_SIZE, pool).digestOfFile(file));
+                // regions of two chunks, so chunks are taken from several mappings
+                assertArrayEquals(expected, new ChunkedMD5(CHUNK_SIZE, 2 * CHUNK_SIZE, pool).digestOfFile(file));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void testSmallAndEmptyFiles() throws IOException, NoSuchAlgorithmException {
+        var evaluator = new ChunkedMD5();
+        for (int size : new int[] {0, 1, ChunkedMD5.DEFAULT_CHUNK_SIZE}) {
+            var small = Arrays.copyOf(data, size);
+            Files.write(file, small);
+            assertArrayEquals(expected(small, ChunkedMD5.DEFAULT_CHUNK_SIZE), evaluator.digestOfFile(file));
+        }
+    }
+
+    @Test
+    void testDigestIsLabeled() throws IOException, NoSuchAlgorithmException {
+        var hash = MD5.getEvaluatorChunked().evaluate(file.toString());
+        assertTrue(hash.startsWith("md5-tree-1024k:"));
+        assertEquals(MD5.getHexString(expected(data, ChunkedMD5.DEFAULT_CHUNK_SIZE)), hash.substring(15));
+
+        var other = new ChunkedMD5(CHUNK_SIZE, ForkJoinPool.commonPool()).evaluate(file.toString());
+        assertTrue(other.startsWith("md5-tree-4k:"));
+        assertNotEquals(hash.substring(15), other.substring(12));
+        assertNotEquals(MD5.getEvaluator().evaluate(file.toString()), other.substring(12));
+    }
+
+    @Test
+    void testWrongChunkSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedMD5(1024, ForkJoinPool.commonPool()));
+        assertThrows(IllegalArgumentException.class, () -> new ChunkedMD5(5000, ForkJoinPool.commonPool()));
+    }
+}
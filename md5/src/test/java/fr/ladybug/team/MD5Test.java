@@ -7,7 +7,13 @@ import org.junit.jupiter.api.Test;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -31,4 +37,73 @@ class MD5Test {
         assertEquals("db89bb5ceab87f9c0fcc2ab36c189c2c", hash);
     }
 
+    @Test
+    public void checkCorrectnessWithSmallBuffer() throws IOException, NoSuchAlgorithmException {
+        var hasher = new FileHasher(7, Long.MAX_VALUE);
+        assertEquals("db89bb5ceab87f9c0fcc2ab36c189c2c", MD5.getEvaluator(hasher).evaluate(file.getPath()));
+        assertEquals("db89bb5ceab87f9c0fcc2ab36c189c2c", MD5.getEvaluatorMultiThread(hasher).evaluate(file.getPath()));
+    }
+
+    @Test
+    public void checkCorrectnessWithMappedFiles() throws IOException, NoSuchAlgorithmException {
+        var hasher = new FileHasher(FileHasher.DEFAULT_BUFFER_SIZE, 0);
+        assertEquals("db89bb5ceab87f9c0fcc2ab36c189c2c", MD5.getEvaluator(hasher).evaluate(file.getPath()));
+        assertEquals("db89bb5ceab87f9c0fcc2ab36c189c2c", MD5.getEvaluatorMultiThread(hasher).evaluate(file.getPath()));
+    }
+
+    @Test
+    public void checkBufferedAndMappedAgree() throws IOException, NoSuchAlgorithmException {
+        var bigFile = File.createTempFile("md5", ".bin");
+        bigFile.deleteOnExit();
+        var data = new byte[3 * FileHasher.DEFAULT_BUFFER_SIZE + 17];
+        new Random(42).nextBytes(data);
+        Files.write(bigFile.toPath(), data);
+
+        var expected = MD5.getHexStringFromMD5(digestOf(data));
+        var buffered = new FileHasher(FileHasher.DEFAULT_BUFFER_SIZE, Long.MAX_VALUE);
+        var mapped = new FileHasher(FileHasher.DEFAULT_BUFFER_SIZE, 0);
+        assertEquals(expected, MD5.getEvaluator(buffered).evaluate(bigFile.getPath()));
+        assertEquals(expected, MD5.getEvaluator(mapped).evaluate(bigFile.getPath()));
+    }
+
+    @Test
+    public void checkMultiThreadBatchesAgree() throws IOException, NoSuchAlgorithmException {
+        var root = Files.createTempDirectory("md5");
+        var random = new Random(42);
+        for (int i = 0; i < 300; i++) {
+            var directory = Files.createDirectories(root.resolve("dir" + i % 3));
+            var data = new byte[i % 100 == 0 ? 3 * (int) MultiThreadMD5.BATCH_SIZE / 2 : random.nextInt(20000)];
+            random.nextBytes(data);
+            Files.write(directory.resolve("file" + i), data);
+        }
+        Files.createDirectories(root.resolve("dir1").resolve("empty"));
+
+        var pool = new ForkJoinPool(4);
+        try {
+            var expected = MD5.getEvaluator().evaluate(root.toString());
+            for (int i = 0; i < 3; i++) {
+                assertEquals(expected, MD5.getEvaluatorMultiThread().evaluate(root.toString()));
+                assertEquals(expected,
+                        MD5.getEvaluatorMultiThread(FileHasher.DEFAULT, pool).evaluate(root.toString()));
+            }
+        } finally {
+            pool.shutdown();
+            try (var paths = Files.walk(root)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+
+    @Test
+    public void checkWrongHasherArguments() {
+        assertThrows(IllegalArgumentException.class, () -> new FileHasher(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> new FileHasher(1, -1));
+    }
+
+    private static MessageDigest digestOf(byte[] data) throws NoSuchAlgorithmException {
+        var digest = MessageDigest.getInstance("MD5");
+        digest.update(data);
+        return digest;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,111 @@
+package fr.ladybug.team;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MerkleTreeTest {
+    private Path root;
+
+    @BeforeEach
+    void createTree() throws IOException {
+        root = Files.createTempDirectory("merkle");
+        for (int i = 0; i < 3; i++) {
+            var directory = Files.createDirectories(root.resolve("dir" + i));
+            for (int j = 0; j < 4; j++) {
+                Files.writeString(directory.resolve("file" + j), "content " + i + " " + j);
+            }
+        }
+        Files.writeString(root.resolve("top"), "top");
+    }
+
+    @AfterEach
+    void deleteTree() throws IOException {
+        try (var paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void testDigestOfFile() throws IOException, NoSuchAlgorithmException {
+        var digest = MessageDigest.getInstance("SHA-256");
+        digest.update((byte) 0);
+        digest.update("top".getBytes(StandardCharsets.UTF_8));
+        var node = new MerkleTreeEvaluator("SHA-256").build(root.resolve("top").toString());
+        assertFalse(node.isDirectory());
+        assertArrayEquals(digest.digest(), node.getDigest());
+    }
+
+    @Test
+    void testDigestOfDirectory() throws IOException, NoSuchAlgorithmException {
+        var node = new MerkleTreeEvaluator("MD5").build(root.resolve("dir1").toString());
+        var digest = MessageDigest.getInstance("MD5");
+        digest.update((byte) 1);
+        for (var child : node.getChildren()) {
+            digest.update(new byte[] {0, 0, 0, 5});
+            digest.update(child.getName().getBytes(StandardCharsets.UTF_8));
+            digest.update(child.getDigest());
+        }
+        assertEquals(List.of("file0", "file1", "file2", "file3"),
+                node.getChildren().stream().map(MerkleNode::getName).collect(Collectors.toList()));
+        assertArrayEquals(digest.digest(), node.getDigest());
+    }
+
+    @Test
+    void testAlgorithms() throws IOException, NoSuchAlgorithmException {
+        assertEquals(32, MD5.getEvaluatorMerkle("MD5").evaluate(root.toString()).length());
+        assertEquals(64, MD5.getEvaluatorMerkle("SHA-256").evaluate(root.toString()).length());
+        assertEquals(MD5.getEvaluatorMerkle("SHA3-256").evaluate(root.toString()),
+                MD5.getEvaluatorMerkle("SHA3-256").evaluate(root.toString()));
+        assertThrows(NoSuchAlgorithmException.class, () -> MD5.getEvaluatorMerkle("NO-SUCH-HASH"));
+        assertThrows(IOException.class, () -> MD5.getEvaluatorMerkle("MD5").evaluate(root.resolve("none").toString()));
+    }
+
+    @Test
+    void testDiff() throws IOException, NoSuchAlgorithmException {
+        var evaluator = new MerkleTreeEvaluator("SHA-256");
+        var before = evaluator.build(root.toString());
+        assertTrue(before.diff(evaluator.build(root.toString())).isEmpty());
+
+        Files.writeString(root.resolve("dir2").resolve("file1"), "changed");
+        Files.delete(root.resolve("dir0").resolve("file3"));
+        Files.writeString(root.resolve("dir1").resolve("new"), "new");
+        Files.move(root.resolve("top"), root.resolve("moved"));
+        var after = evaluator.build(root.toString());
+        assertEquals(List.of("dir0/file3", "dir1/new", "dir2/file1", "moved", "top"), before.diff(after));
+        assertEquals(List.of("dir0/file3", "dir1/new", "dir2/file1", "moved", "top"), after.diff(before));
+    }
+
+    @Test
+    void testExportAndParse() throws IOException, NoSuchAlgorithmException {
+        var tree = new MerkleTreeEvaluator("MD5").build(root.toString());
+        var out = new StringBuilder();
+        tree.export(out);
+        assertEquals(17, out.toString().split("\n").length);
+        assertTrue(out.toString().startsWith(tree.getHexDigest() + " d .\n"));
+
+        var parsed = MerkleNode.parse(new BufferedReader(new StringReader(out.toString())), tree.getName());
+        assertEquals(tree.getHexDigest(), parsed.getHexDigest());
+        assertTrue(tree.diff(parsed).isEmpty());
+        var copy = new StringBuilder();
+        parsed.export(copy);
+        assertEquals(out.toString(), copy.toString());
+
+        assertThrows(IOException.class, () -> MerkleNode.parse(new BufferedReader(new StringReader("00 f x\n")), "x"));
+    }
+}
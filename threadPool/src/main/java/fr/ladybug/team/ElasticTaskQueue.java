@@ -0,0 +1,186 @@
+package fr.ladybug.team;
+
+import fr.ladybug.team.ThreadPool.Overflow;
+import fr.ladybug.team.ThreadPool.ThreadTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bounded queue guarded by its monitor which also decides how many workers the pool has.
+ * A worker is started while there are fewer than the core number of them, or while the waiting tasks outnumber
+ * idle workers and there are fewer than the maximal number of them, then it gets the oldest waiting task.
+ * Workers beyond the core number stop after waiting for a task for the keep-alive time.
+ * When the queue is full and no worker may be started, the task is handled by the overflow policy
+ */
+class ElasticTaskQueue implements TaskQueue {
+    private final ArrayDeque<ThreadTask<?>> tasks = new ArrayDeque<>();
+    private final int coreSize;
+    private final int maxSize;
+    private final long keepAliveNanos;
+    private final int capacity;
+    private final Overflow overflow;
+    /** Starts a worker, which performs the given task first if it is not null */
+    private final Consumer<ThreadTask<?>> workerStarter;
+    /** Performs the task in the current thread */
+    private final Consumer<ThreadTask<?>> performer;
+    private int workerCount = 0;
+    /** Number of workers waiting for a task */
+    private int idleCount = 0;
+    /** Number of threads waiting for room in the queue */
+    private int blockedCount = 0;
+    private boolean isClosed = false;
+    /** Whether workers stop when the queue is empty */
+    private boolean isFinishing = false;
+
+    ElasticTaskQueue(int coreSize, int maxSize, long keepAliveNanos, int capacity, Overflow overflow,
+                     Consumer<ThreadTask<?>> workerStarter, Consumer<ThreadTask<?>> performer) {
+        this.coreSize = coreSize;
+        this.maxSize = maxSize;
+        this.keepAliveNanos = keepAliveNanos;
+        this.capacity = capacity;
+        this.overflow = overflow;
+        this.workerStarter = workerStarter;
+        this.performer = performer;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws RejectedExecutionException if the task is rejected by the overflow policy
+     */
+    @Override
+    public void add(ThreadTask<?> task, int worker) {
+        ThreadTask<?> dropped = null;
+        synchronized (this) {
+            checkClosed();
+            if (workerCount < coreSize) {
+                startWorker(task);
+                return;
+            }
+            while (tasks.size() == capacity) {
+                if (workerCount < maxSize) {
+                    startWorker(task);
+                    return;
+                }
+                if (overflow == Overflow.DROP_OLDEST) {
+                    dropped = tasks.pollFirst();
+                } else if (overflow == Overflow.CALLER_RUNS || overflow == Overflow.BLOCK && worker >= 0) {
+                    // a worker blocked by its own pool may never be released
+                    break;
+                } else if (overflow == Overflow.BLOCK) {
+                    waitForRoom();
+                } else {
+                    throw new RejectedExecutionException("The queue of the pool is full");
+                }
+            }
+            if (tasks.size() < capacity) {
+                tasks.addLast(task);
+                if (tasks.size() > idleCount && workerCount < maxSize) {
+                    startWorker(tasks.pollFirst());
+                } else if (blockedCount > 0) {
+                    notifyAll();
+                } else {
+                    notify();
+                }
+                task = null;
+            }
+        }
+        if (dropped != null) {
+            dropped.cancel();
+        }
+        if (task != null) {
+            performer.accept(task);
+        }
+    }
+
+    private void checkClosed() {
+        if (isClosed) {
+            throw new IllegalStateException("The pool is shutdown");
+        }
+    }
+
+    /** Starts a worker which performs the task first */
+    private void startWorker(ThreadTask<?> firstTask) {
+        workerCount++;
+        workerStarter.accept(firstTask);
+    }
+
+    /** Waits until there is room in the queue, an interrupted thread gets its task rejected */
+    private void waitForRoom() {
+        blockedCount++;
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for room in the queue", e);
+        } finally {
+            blockedCount--;
+        }
+        checkClosed();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The worker beyond the core number stops if it gets no task within the keep-alive time
+     */
+    @Override
+    public synchronized ThreadTask<?> take(int worker) throws InterruptedException {
+        idleCount++;
+        try {
+            long deadline = System.nanoTime() + keepAliveNanos;
+            while (tasks.isEmpty()) {
+                if (isFinishing) {
+                    workerCount--;
+                    return null;
+                }
+                if (workerCount <= coreSize) {
+                    wait();
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    workerCount--;
+                    return null;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            if (blockedCount > 0) {
+                notifyAll();
+            }
+            return tasks.pollFirst();
+        } catch (InterruptedException e) {
+            workerCount--;
+            throw e;
+        } finally {
+            idleCount--;
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public synchronized void finish() {
+        isFinishing = true;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void close() {
+        isClosed = true;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized List<ThreadTask<?>> drain() {
+        var res = new ArrayList<ThreadTask<?>>(tasks);
+        tasks.clear();
+        return res;
+    }
+}
@@ -0,0 +1,157 @@
+package fr.ladybug.team;
+
+import fr.ladybug.team.ThreadPool.ThreadTask;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Queue guarded by its monitor which orders tasks by priority and shares workers fairly among tenants.
+ * A higher priority is taken first, but a waiting lower priority gets a task after every {@link #STARVATION_LIMIT}
+ * tasks taken over it, so it is slowed down and never starved.
+ * Tenants of one priority are served by start-time fair queueing: a task costs its tenant 1/weight of virtual time,
+ * it is tagged with the virtual time the tenant has reached and the smallest tag is taken first.
+ * A tenant which has been idle starts from the current virtual time, so it neither saves up nor loses its share
+ */
+class FairTaskQueue implements TaskQueue {
+    /** Number of tasks taken over a waiting priority before it gets one */
+    private static final int STARVATION_LIMIT = 32;
+    /** Virtual time a task of the tenant with weight 1 costs */
+    private static final long UNIT_COST = 1 << 20;
+
+    private final Level[] levels = new Level[ThreadPool.MAX_PRIORITY + 1];
+    private int size = 0;
+    /** Number of tasks added so far, it keeps the order of tasks with equal tags */
+    private long sequence = 0;
+    private boolean isClosed = false;
+    /** Whether workers stop when the queue is empty */
+    private boolean isFinishing = false;
+
+    FairTaskQueue() {
+        for (int priority = ThreadPool.MIN_PRIORITY; priority <= ThreadPool.MAX_PRIORITY; priority++) {
+            levels[priority] = new Level();
+        }
+    }
+
+    /** Task with its tag */
+    private static class Entry implements Comparable<Entry> {
+        private final ThreadTask<?> task;
+        private final long start;
+        private final long sequence;
+
+        private Entry(ThreadTask<?> task, long start, long sequence) {
+            this.task = task;
+            this.start = start;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int res = Long.compare(start, other.start);
+            return res != 0 ? res : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /** Tasks of one priority */
+    private static class Level {
+        private final PriorityQueue<Entry> entries = new PriorityQueue<>();
+        /** Tag of the task taken last */
+        private long virtualTime = 0;
+        /** Virtual time every tenant has reached, the ones behind the virtual time may be forgotten */
+        private final HashMap<Tenant, Long> finishTimes = new HashMap<>();
+        /** Number of tenants kept after the map was cleaned last time */
+        private int keptCount = 16;
+        /** Number of tasks taken from higher priorities while this one waits */
+        private int skippedCount = 0;
+
+        private void add(ThreadTask<?> task, long sequence) {
+            var tenant = task.tenant;
+            long start = Math.max(virtualTime, finishTimes.getOrDefault(tenant, 0L));
+            finishTimes.put(tenant, start + UNIT_COST / tenant.getWeight());
+            entries.add(new Entry(task, start, sequence));
+            if (finishTimes.size() > 2 * keptCount) {
+                finishTimes.values().removeIf(finish -> finish <= virtualTime);
+                keptCount = Math.max(16, finishTimes.size());
+            }
+        }
+
+        private ThreadTask<?> poll() {
+            var entry = entries.poll();
+            virtualTime = entry.start;
+            skippedCount = 0;
+            return entry.task;
+        }
+    }
+
+    @Override
+    public synchronized void add(ThreadTask<?> task, int worker) {
+        if (isClosed) {
+            throw new IllegalStateException("The pool is shutdown");
+        }
+        levels[task.priority].add(task, sequence++);
+        size++;
+        notify();
+    }
+
+    @Override
+    public synchronized ThreadTask<?> take(int worker) throws InterruptedException {
+        while (size == 0) {
+            if (isFinishing) {
+                return null;
+            }
+            wait();
+        }
+        size--;
+        return nextLevel().poll();
+    }
+
+    /** The level of the highest priority with tasks, unless a lower one has waited too long */
+    private Level nextLevel() {
+        Level res = null;
+        boolean isStarved = false;
+        for (int priority = ThreadPool.MAX_PRIORITY; priority >= ThreadPool.MIN_PRIORITY; priority--) {
+            var level = levels[priority];
+            if (level.entries.isEmpty()) {
+                continue;
+            }
+            if (res == null) {
+                res = level;
+            } else if (++level.skippedCount >= STARVATION_LIMIT && !isStarved) {
+                res = level;
+                isStarved = true;
+            }
+        }
+        return res;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public synchronized void finish() {
+        isFinishing = true;
+        notifyAll();
+    }
+
+    @Override
+    public synchronized void close() {
+        isClosed = true;
+    }
+
+    @Override
+    public synchronized List<ThreadTask<?>> drain() {
+        var res = new ArrayList<ThreadTask<?>>(size);
+        for (int priority = ThreadPool.MAX_PRIORITY; priority >= ThreadPool.MIN_PRIORITY; priority--) {
+            for (var entry : levels[priority].entries) {
+                res.add(entry.task);
+            }
+            levels[priority].entries.clear();
+        }
+        size = 0;
+        return res;
+    }
+}
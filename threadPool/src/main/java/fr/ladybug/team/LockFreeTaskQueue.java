@@ -0,0 +1,131 @@
+package fr.ladybug.team;
+
+import fr.ladybug.team.ThreadPool.ThreadTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single lock-free queue. A worker finding it empty spins for a while and then parks,
+ * parked workers are kept in a lock-free stack and every addition unparks exactly one of them
+ */
+class LockFreeTaskQueue implements TaskQueue {
+    /** Number of polls before parking, spinning only steals time from the others on a single processor */
+    private static final int SPIN_COUNT = Runtime.getRuntime().availableProcessors() > 1 ? 256 : 0;
+
+    private final ConcurrentLinkedQueue<ThreadTask<?>> tasks = new ConcurrentLinkedQueue<>();
+    /** Top of the stack of parked workers */
+    private final AtomicReference<Waiter> waiters = new AtomicReference<>();
+    private volatile boolean isClosed = false;
+    /** Whether workers stop when the queue is empty */
+    private volatile boolean isFinishing = false;
+
+    /** Parked worker, it is done when it is either woken up or gone on its own */
+    private static class Waiter extends AtomicBoolean {
+        private final Thread thread = Thread.currentThread();
+        private Waiter next;
+    }
+
+    @Override
+    public void add(ThreadTask<?> task, int worker) {
+        if (isClosed) {
+            throw new IllegalStateException("The pool is shutdown");
+        }
+        tasks.offer(task);
+        // The pool may be shutdown concurrently, then the task is either drained by it or removed here
+        if (isClosed && tasks.remove(task)) {
+            throw new IllegalStateException("The pool is shutdown");
+        }
+        wakeOne();
+    }
+
+    /** Unparks one parked worker if there is one, skipping the ones gone on their own */
+    private void wakeOne() {
+        while (true) {
+            Waiter waiter = waiters.get();
+            if (waiter == null) {
+                return;
+            }
+            if (waiters.compareAndSet(waiter, waiter.next) && waiter.compareAndSet(false, true)) {
+                LockSupport.unpark(waiter.thread);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public ThreadTask<?> take(int worker) throws InterruptedException {
+        while (true) {
+            for (int i = 0; i <= SPIN_COUNT; i++) {
+                var task = tasks.poll();
+                if (task != null) {
+                    return task;
+                }
+                Thread.onSpinWait();
+            }
+
+            var waiter = new Waiter();
+            do {
+                waiter.next = waiters.get();
+            } while (!waiters.compareAndSet(waiter.next, waiter));
+            // Adding thread looks for waiters after adding, so the task is either seen here or the waiter is woken
+            var task = tasks.poll();
+            if (task != null) {
+                leave(waiter);
+                return task;
+            }
+            // The flag is set before all waiters are woken, so it is either seen here or the waiter is woken
+            if (isFinishing) {
+                leave(waiter);
+                return null;
+            }
+            while (!waiter.get()) {
+                LockSupport.park(this);
+                if (Thread.interrupted()) {
+                    leave(waiter);
+                    throw new InterruptedException();
+                }
+            }
+        }
+    }
+
+    /** Marks the waiter as gone, if it has been woken up already the wakeup is passed to another one */
+    private void leave(Waiter waiter) {
+        if (!waiter.compareAndSet(false, true)) {
+            wakeOne();
+        }
+    }
+
+    @Override
+    public int size() {
+        return tasks.size();
+    }
+
+    @Override
+    public void finish() {
+        isFinishing = true;
+        for (var waiter = waiters.getAndSet(null); waiter != null; waiter = waiter.next) {
+            if (waiter.compareAndSet(false, true)) {
+                LockSupport.unpark(waiter.thread);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        isClosed = true;
+    }
+
+    @Override
+    public List<ThreadTask<?>> drain() {
+        var res = new ArrayList<ThreadTask<?>>();
+        for (var task = tasks.poll(); task != null; task = tasks.poll()) {
+            res.add(task);
+        }
+        return res;
+    }
+}
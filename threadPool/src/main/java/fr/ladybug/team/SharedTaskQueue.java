@@ -0,0 +1,72 @@
+package fr.ladybug.team;
+
+import fr.ladybug.team.ThreadPool.ThreadTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Single queue guarded by its monitor, every addition wakes up all waiting workers */
+class SharedTaskQueue implements TaskQueue {
+    /** All tasks which has not been started yet */
+    private final ArrayDeque<ThreadTask<?>> tasks = new ArrayDeque<>();
+    /** Whether the queue is closed or not */
+    private boolean isClosed = false;
+    /** Whether workers stop when the queue is empty */
+    private boolean isFinishing = false;
+
+    @Override
+    public void add(ThreadTask<?> task, int worker) {
+        synchronized (tasks) {
+            if (isClosed) {
+                throw new IllegalStateException("The pool is shutdown");
+            }
+            tasks.addLast(task);
+            tasks.notifyAll();
+        }
+    }
+
+    @Override
+    public ThreadTask<?> take(int worker) throws InterruptedException {
+        synchronized (tasks) {
+            while (tasks.isEmpty()) {
+                if (isFinishing) {
+                    return null;
+                }
+                tasks.wait();
+            }
+            return tasks.pollFirst();
+        }
+    }
+
+    @Override
+    public int size() {
+        synchronized (tasks) {
+            return tasks.size();
+        }
+    }
+
+    @Override
+    public void finish() {
+        synchronized (tasks) {
+            isFinishing = true;
+            tasks.notifyAll();
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (tasks) {
+            isClosed = true;
+        }
+    }
+
+    @Override
+    public List<ThreadTask<?>> drain() {
+        synchronized (tasks) {
+            var res = new ArrayList<ThreadTask<?>>(tasks);
+            tasks.clear();
+            return res;
+        }
+    }
+}
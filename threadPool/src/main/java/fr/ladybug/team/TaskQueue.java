@@ -0,0 +1,44 @@
+package fr.ladybug.team;
+
+import fr.ladybug.team.ThreadPool.ThreadTask;
+
+import java.util.List;
+
+/** Queue of tasks waiting for workers of {@link ThreadPool} */
+interface TaskQueue {
+    /**
+     * Adds new task and wakes up a waiting worker if there is one
+     * @param task the task which is to be added
+     * @param worker index of the worker adding the task, -1 if it is added from outside of the pool
+     * @throws IllegalStateException if the queue is closed
+     */
+    void add(ThreadTask<?> task, int worker);
+
+    /**
+     * Takes the next task, waits while there are none
+     * @param worker index of the worker taking the task
+     * @return the task which is to be performed, null if the worker is to stop since the pool does not need it
+     * @throws InterruptedException if the worker is interrupted while waiting
+     */
+    ThreadTask<?> take(int worker) throws InterruptedException;
+
+    /** Number of tasks waiting in the queue, it may be inaccurate while tasks are added and taken */
+    int size();
+
+    /** Number of tasks taken by workers from the others, 0 for queues without stealing */
+    default long getStealCount() {
+        return 0;
+    }
+
+    /** Makes {@link #take} return null instead of waiting once there are no tasks, adding them is still allowed */
+    void finish();
+
+    /** Forbids adding new tasks */
+    void close();
+
+    /**
+     * Removes all tasks which are left
+     * @return the removed tasks
+     */
+    List<ThreadTask<?>> drain();
+}
@@ -0,0 +1,40 @@
+package fr.ladybug.team;
+
+/**
+ * Named group of tasks of {@link ThreadPool}. With {@link ThreadPool.Scheduling#FAIR_QUEUE} scheduling tenants
+ * waiting at the same priority share the threads in proportion to their weights, however many tasks each one submits.
+ * Tenants are told apart by identity, so all tasks of a group are to be submitted with the same object
+ */
+public class Tenant {
+    /** Tenant of the tasks submitted without one */
+    public static final Tenant DEFAULT = new Tenant("default", 1);
+
+    private final String name;
+    private final int weight;
+
+    /**
+     * Constructs the tenant
+     * @param weight share of the threads relative to the other tenants
+     * @throws IllegalArgumentException if the weight is not positive
+     */
+    public Tenant(String name, int weight) {
+        if (weight <= 0) {
+            throw new IllegalArgumentException("The weight is to be positive");
+        }
+        this.name = name;
+        this.weight = weight;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (weight " + weight + ")";
+    }
+}
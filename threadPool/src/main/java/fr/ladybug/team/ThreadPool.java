@@ -1,46 +1,528 @@
 package fr.ladybug.team;
 
 import fr.ladybug.team.lightfuture.LightFuture;
+import fr.ladybug.team.metrics.PoolMetrics;
+import fr.ladybug.team.metrics.TaskListener;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Objects;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 
 /** Executor service for async tasks LightFuture */
 public class ThreadPool {
-    /** All threads of the pool */
-    private ArrayList<Thread> threads;
-    /** All tasks which has not been started yet */
-    private final ArrayDeque<ThreadTask<?>> tasks;
+    /** All threads of the pool started at its construction */
+    private ArrayList<Worker> threads;
+    /** Number of threads the pool keeps */
+    private final int coreSize;
+    /** Maximal number of threads of the pool */
+    private final int maxSize;
+    /** All tasks which has not been started yet, null if every task gets its own thread */
+    private final TaskQueue tasks;
+    /** Factory of the thread started for every task, null if the pool has its own threads */
+    private final ThreadFactory taskThreadFactory;
+    /** Threads started on demand: the threads of tasks if every task gets its own thread, or elastic workers */
+    private final Set<Thread> spawnedThreads = ConcurrentHashMap.newKeySet();
+    /** Index of the next elastic worker */
+    private final AtomicInteger nextWorkerIndex = new AtomicInteger();
+    /** Number of tasks performed by workers which have stopped */
+    private final AtomicLong retiredCompletedCount = new AtomicLong();
+    /** Tasks performed by threads other than workers: threads of tasks and submitters running tasks themselves */
+    private final LongAdder foreignActiveCount = new LongAdder();
+    private final LongAdder foreignCompletedCount = new LongAdder();
 
+    /** Tasks waiting for their time to be submitted, guarded by its monitor */
+    private final TimingWheel timer = new TimingWheel(TimeUnit.MILLISECONDS.toNanos(1), System.nanoTime());
+    /** Thread submitting the tasks of the timer, null until the first task is scheduled */
+    private Thread timerThread;
+    /** Whether the timer thread waits without time limit, guarded by the timer monitor */
+    private boolean isTimerIdle = false;
+    /** Time the timer thread waits till if it is not idle, guarded by the timer monitor */
+    private long timerWakeUp;
 
+    /** Hooks called during the life of every task, null if there are none */
+    private volatile TaskListener listener;
+    /** One of this number of tasks on average is timed for the listener */
+    private volatile int timingPeriod = 1;
+
+    /** The lowest priority of a task */
+    public static final int MIN_PRIORITY = 1;
+    /** Priority of a task submitted without one */
+    public static final int NORM_PRIORITY = 5;
+    /** The highest priority of a task */
+    public static final int MAX_PRIORITY = 10;
+    /** Maximal number of threads of the pool made by {@link #createVirtual()} on runtimes without virtual threads */
+    public static final int PLATFORM_FALLBACK_SIZE = 256;
+
+    /** Whether the pool is shutdown gracefully, then only threads of the pool may submit tasks */
+    private volatile boolean isClosing = false;
     /** Whether the pool is shutdown or not */
-    private boolean isShutdown = false;
+    private volatile boolean isShutdown = false;
 
-    /** Constructs the pool with {@code threadCount} number of threads and starts task execution */
+    /** Constructs the pool with {@code threadCount} number of threads sharing one queue and starts task execution */
     public ThreadPool(int threadCount) {
+        this(threadCount, Scheduling.SHARED_QUEUE);
+    }
+
+    /**
+     * Constructs the pool with {@code threadCount} number of threads and starts task execution
+     * @param scheduling the way tasks are distributed among the threads
+     */
+    public ThreadPool(int threadCount, Scheduling scheduling) {
         threads = new ArrayList<>(threadCount);
-        tasks = new ArrayDeque<>();
+        coreSize = threadCount;
+        maxSize = threadCount;
+        taskThreadFactory = null;
+        switch (scheduling) {
+            case WORK_STEALING:
+                tasks = new WorkStealingTaskQueue(threadCount);
+                break;
+            case LOCK_FREE_QUEUE:
+                tasks = new LockFreeTaskQueue();
+                break;
+            case FAIR_QUEUE:
+                tasks = new FairTaskQueue();
+                break;
+            default:
+                tasks = new SharedTaskQueue();
+        }
 
         for (int i = 0; i < threadCount; i++) {
-            threads.add(new Thread(this::threadWorker));
+            threads.add(new Worker(i));
             threads.get(i).start();
         }
     }
 
+    /** Constructs the pool which starts a thread made by the factory for every task */
+    private ThreadPool(ThreadFactory taskThreadFactory) {
+        threads = new ArrayList<>();
+        coreSize = 0;
+        maxSize = Integer.MAX_VALUE;
+        tasks = null;
+        this.taskThreadFactory = taskThreadFactory;
+    }
+
+    /** Constructs the elastic pool, its threads are started on demand */
+    private ThreadPool(int coreSize, int maxSize, long keepAliveNanos, int queueCapacity, Overflow overflow) {
+        threads = new ArrayList<>();
+        this.coreSize = coreSize;
+        this.maxSize = maxSize;
+        taskThreadFactory = null;
+        tasks = new ElasticTaskQueue(coreSize, maxSize, keepAliveNanos, queueCapacity, overflow,
+                this::startElasticWorker, this::performForeignTask);
+    }
+
+    /**
+     * Creates the pool which keeps {@code coreSize} threads and starts more, up to {@code maxSize},
+     * while tasks wait in the queue with no idle thread to take them. Threads beyond the core number stop
+     * after being idle for the keep-alive time. The queue holds no more than {@code queueCapacity} tasks,
+     * then a new task is handled by the overflow policy. The pool with equal sizes is a fixed one with a bounded queue
+     * @param keepAlive the time an idle thread beyond the core number waits for a task before it stops
+     * @param unit the unit of the keep-alive time
+     * @param overflow the way a task is handled when the queue is full and no thread may be started
+     * @return the pool object
+     * @throws IllegalArgumentException if the sizes, the capacity or the keep-alive time are wrong
+     */
+    public static ThreadPool createElastic(int coreSize, int maxSize, long keepAlive, TimeUnit unit,
+                                           int queueCapacity, Overflow overflow) {
+        if (coreSize < 0 || maxSize < Math.max(1, coreSize) || queueCapacity <= 0 || keepAlive < 0) {
+            throw new IllegalArgumentException("Wrong sizes of the pool");
+        }
+        return new ThreadPool(coreSize, maxSize, unit.toNanos(keepAlive), queueCapacity, overflow);
+    }
+
+    /** Starts the elastic worker, which is called by the queue under its monitor */
+    private void startElasticWorker(ThreadTask<?> firstTask) {
+        var worker = new Worker(nextWorkerIndex.getAndIncrement(), firstTask);
+        spawnedThreads.add(worker);
+        worker.start();
+    }
+
+    /** Number of threads the pool keeps, 0 if every task gets its own thread */
+    public int getCoreSize() {
+        return coreSize;
+    }
+
+    /** Maximal number of threads of the pool, {@link Integer#MAX_VALUE} if every task gets its own thread */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /** Number of threads the pool has now */
+    public int getThreadCount() {
+        return threads.size() + spawnedThreads.size();
+    }
+
+    /** Number of tasks being performed now, it may be inaccurate while tasks are started and finished */
+    public long getActiveCount() {
+        long res = foreignActiveCount.sum();
+        for (var worker : threads) {
+            res += worker.isBusy.get() ? 1 : 0;
+        }
+        for (var thread : spawnedThreads) {
+            if (thread instanceof Worker) {
+                res += ((Worker) thread).isBusy.get() ? 1 : 0;
+            }
+        }
+        return res;
+    }
+
+    /** Number of tasks performed, it may be inaccurate while tasks are finished */
+    public long getCompletedTaskCount() {
+        long res = retiredCompletedCount.get() + foreignCompletedCount.sum();
+        for (var worker : threads) {
+            res += worker.completedCount.get();
+        }
+        for (var thread : spawnedThreads) {
+            if (thread instanceof Worker) {
+                res += ((Worker) thread).completedCount.get();
+            }
+        }
+        return res;
+    }
+
+    /** Number of tasks waiting for a thread, it may be inaccurate while tasks are submitted and taken */
+    public int getQueueSize() {
+        return tasks == null ? 0 : tasks.size();
+    }
+
+    /** Number of tasks taken by threads from the deques of the other ones, 0 unless the pool is work-stealing */
+    public long getStealCount() {
+        return tasks == null ? 0 : tasks.getStealCount();
+    }
+
+    /**
+     * Sets hooks which are called during the life of every task, they replace the previous ones
+     * @param listener the hooks, null to remove them
+     * @param timingPeriod one of this number of tasks on average is timed, the others get -1 as their times.
+     *                     Reading the clock may cost as much as a tiny task itself
+     */
+    public void setListener(TaskListener listener, int timingPeriod) {
+        if (timingPeriod < 1) {
+            throw new IllegalArgumentException("The timing period is to be positive");
+        }
+        this.timingPeriod = timingPeriod;
+        this.listener = listener;
+    }
+
+    /** Sets hooks which are called during the life of every task, every task is timed */
+    public void setListener(TaskListener listener) {
+        setListener(listener, 1);
+    }
+
+    /**
+     * Starts collecting metrics of the pool, they replace the listener set before.
+     * All tasks are counted, and one of 64 of them on average is timed
+     * @return the metrics which are updated by the pool from now on
+     */
+    public PoolMetrics enableMetrics() {
+        return enableMetrics(64);
+    }
+
+    /**
+     * Starts collecting metrics of the pool, they replace the listener set before
+     * @param timingPeriod one of this number of tasks on average is timed, 1 to time every task
+     * @return the metrics which are updated by the pool from now on
+     */
+    public PoolMetrics enableMetrics(int timingPeriod) {
+        var metrics = new PoolMetrics(this);
+        setListener(metrics, timingPeriod);
+        return metrics;
+    }
+
+    /**
+     * Creates the pool which starts a virtual thread for every task, so blocking tasks do not limit each other.
+     * Virtual threads are taken from Java 21 and later. Older runtimes get the elastic pool of at most
+     * {@link #PLATFORM_FALLBACK_SIZE} platform threads with an unbounded queue, so tasks beyond that number wait
+     * @return the pool object
+     */
+    public static ThreadPool createVirtual() {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            var factory = (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+            return new ThreadPool(factory);
+        } catch (ReflectiveOperationException e) {
+            return createElastic(0, PLATFORM_FALLBACK_SIZE, 60, TimeUnit.SECONDS, Integer.MAX_VALUE, Overflow.REJECT);
+        }
+    }
+
     /**
      * Adds new task in ThreadTask form
      * @param supplier the supplier of the task
+     * @throws IllegalStateException if the pool is shutdown
+     * @throws RejectedExecutionException if the queue of the elastic pool is full and rejects the task
      */
     public void submitTask(ThreadTask<?> supplier) {
-        synchronized (tasks) {
-            if (isShutdown) {
+        if (isClosing && !isInside()) {
+            throw new IllegalStateException("The pool is shutdown");
+        }
+        var listener = this.listener;
+        if (listener != null) {
+            startTiming(supplier);
+        }
+        if (taskThreadFactory == null) {
+            tasks.add(supplier, currentWorker());
+        } else {
+            startTaskThread(supplier);
+        }
+        if (listener != null) {
+            listener.onSubmit(supplier);
+        }
+    }
+
+    /**
+     * Adds new task of the tenant with the priority. If the pool has {@link Scheduling#FAIR_QUEUE} scheduling,
+     * tasks of a higher priority are taken first and tenants share the threads by their weights,
+     * the other pools keep the order of submission
+     * @param priority from {@link #MIN_PRIORITY} to {@link #MAX_PRIORITY}
+     * @throws IllegalArgumentException if the priority is out of the range
+     * @throws IllegalStateException if the pool is shutdown
+     */
+    public void submitTask(ThreadTask<?> supplier, Tenant tenant, int priority) {
+        if (priority < MIN_PRIORITY || priority > MAX_PRIORITY) {
+            throw new IllegalArgumentException("Wrong priority of the task");
+        }
+        supplier.tenant = tenant;
+        supplier.priority = priority;
+        submitTask(supplier);
+    }
+
+    /** Adds new task of the default tenant with the priority, see {@link #submitTask(ThreadTask, Tenant, int)} */
+    public void submitTask(ThreadTask<?> supplier, int priority) {
+        submitTask(supplier, Tenant.DEFAULT, priority);
+    }
+
+    /** Adds new task of the tenant with the normal priority, see {@link #submitTask(ThreadTask, Tenant, int)} */
+    public void submitTask(ThreadTask<?> supplier, Tenant tenant) {
+        submitTask(supplier, tenant, NORM_PRIORITY);
+    }
+
+    /** Decides whether the task is timed and notes the time of its submission if it is */
+    private void startTiming(ThreadTask<?> task) {
+        int period = timingPeriod;
+        task.isTimed = period == 1 || ThreadLocalRandom.current().nextInt(period) == 0;
+        if (task.isTimed) {
+            task.submitTime = System.nanoTime();
+        }
+    }
+
+    /** Starts the thread performing the task if every task gets its own thread */
+    private void startTaskThread(ThreadTask<?> supplier) {
+        if (isShutdown) {
+            throw new IllegalStateException("The pool is shutdown");
+        }
+        var thread = taskThreadFactory.newThread(() -> {
+            try {
+                if (isShutdown) {
+                    // the thread was not started yet when the pool interrupted it
+                    interruptTask(supplier);
+                } else {
+                    performForeignTask(supplier);
+                }
+            } finally {
+                spawnedThreads.remove(Thread.currentThread());
+            }
+        });
+        spawnedThreads.add(thread);
+        // The pool may be shutdown concurrently, then the thread is either interrupted by it or not started here
+        if (isShutdown && spawnedThreads.remove(thread)) {
+            throw new IllegalStateException("The pool is shutdown");
+        }
+        thread.start();
+    }
+
+    /**
+     * Submits the task once the delay passes
+     * @param task the task which is to be submitted
+     * @param delay the time from now after which the task is to be submitted
+     * @param unit the unit of the delay
+     * @throws IllegalStateException if the pool is shutdown
+     */
+    public void schedule(ThreadTask<?> task, long delay, TimeUnit unit) {
+        task.time = System.nanoTime() + unit.toNanos(Math.max(delay, 0));
+        addTimer(task);
+    }
+
+    /**
+     * Submits the task once the initial delay passes and then every period, until its charterer is decided.
+     * The result of the task is ignored, its charterer is decided only by failure, cancellation or shutdown.
+     * If the task is late, missed starts are performed one after another
+     * @param task the task which is to be submitted
+     * @param initialDelay the time from now after which the task is to be submitted for the first time
+     * @param period the time between starts of the task
+     * @param unit the unit of the delay and the period
+     * @throws IllegalStateException if the pool is shutdown
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    public void scheduleAtFixedRate(ThreadTask<?> task, long initialDelay, long period, TimeUnit unit) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("The period is to be positive");
+        }
+        task.period = unit.toNanos(period);
+        schedule(task, initialDelay, unit);
+    }
+
+    /** Adds the task to the timer, submits it at once if its time has come */
+    private void addTimer(ThreadTask<?> task) {
+        synchronized (timer) {
+            if (isShutdown || isClosing && !isInside()) {
                 throw new IllegalStateException("The pool is shutdown");
             }
-            tasks.addLast(supplier);
-            tasks.notifyAll();
+            if (timer.add(task)) {
+                if (isClosing) {
+                    // the timer is stopped, the task is returned by the graceful shutdown
+                    return;
+                }
+                if (timerThread == null) {
+                    timerThread = new Thread(this::timerWorker, "ThreadPool timer");
+                    timerThread.setDaemon(true);
+                    timerThread.start();
+                } else if (isTimerIdle || task.time - timerWakeUp < 0) {
+                    isTimerIdle = false;
+                    timerWakeUp = task.time;
+                    timer.notify();
+                }
+                return;
+            }
+        }
+        submitTask(task);
+    }
+
+    /** Timer thread loop, submits the tasks whose time has come */
+    private void timerWorker() {
+        var due = new ArrayList<ThreadTask<?>>();
+        try {
+            while (true) {
+                synchronized (timer) {
+                    long now = System.nanoTime();
+                    timer.advance(now, due);
+                    if (due.isEmpty()) {
+                        if (timer.getSize() == 0) {
+                            isTimerIdle = true;
+                            timer.wait();
+                        } else {
+                            isTimerIdle = false;
+                            timerWakeUp = timer.nextTime();
+                            TimeUnit.NANOSECONDS.timedWait(timer, timerWakeUp - now);
+                        }
+                        continue;
+                    }
+                    // tasks added while the due ones are submitted are found by the next advance
+                    isTimerIdle = false;
+                    timerWakeUp = now;
+                }
+                for (var task : due) {
+                    try {
+                        submitTask(task);
+                    } catch (IllegalStateException e) {
+                        interruptTask(task);
+                    } catch (RejectedExecutionException e) {
+                        task.cancel();
+                    }
+                }
+                due.clear();
+            }
+        } catch (InterruptedException e) {
+            // the pool is shutdown, the tasks left are interrupted by it
+        }
+    }
+
+    /**
+     * Whether the current thread belongs to the pool: a worker, a thread of a task or the timer.
+     * The timer thread sees its own field as the field is set before the thread is started
+     */
+    private boolean isInside() {
+        var thread = Thread.currentThread();
+        return currentWorker() >= 0 || thread == timerThread || spawnedThreads.contains(thread);
+    }
+
+    /** Index of the current thread if it is a thread of this pool, -1 otherwise */
+    private int currentWorker() {
+        var thread = Thread.currentThread();
+        if (thread instanceof Worker && ((Worker) thread).getPool() == this) {
+            return ((Worker) thread).index;
+        }
+        return -1;
+    }
+
+    /**
+     * Shutdowns the pool gracefully. Tasks are not accepted from outside of the pool any more, while the threads
+     * perform the tasks submitted before and the ones those submit. The timer is stopped, so delayed tasks
+     * which are not due yet are not performed. Waits for the threads to finish the work at most for the timeout,
+     * then the threads stop after their current tasks without interruption, use {@link #awaitTermination} to wait for them
+     * @param timeout the time to wait for the tasks to be performed
+     * @param unit the unit of the timeout
+     * @return tasks which were not started, neither performed nor interrupted, empty if all the work is done
+     */
+    public List<ThreadTask<?>> shutdownGracefully(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        isClosing = true;
+        stopTimer();
+        if (tasks != null) {
+            tasks.finish();
+        }
+        joinThreads(deadline);
+        isShutdown = true;
+        var left = new ArrayList<ThreadTask<?>>();
+        if (tasks != null) {
+            tasks.close();
+            left.addAll(tasks.drain());
+        }
+        synchronized (timer) {
+            left.addAll(timer.drain());
+        }
+        return left;
+    }
+
+    /**
+     * Waits for all threads of the pool to stop after it is shutdown
+     * @param timeout the maximal time to wait
+     * @param unit the unit of the timeout
+     * @return true if the threads have stopped, false if the timeout has expired
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return joinThreads(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * Waits for the threads of the pool to stop, threads started meanwhile are waited for too
+     * @param deadline the time in {@link System#nanoTime()} terms to wait till
+     * @return true if the threads have stopped, false if the deadline has come
+     */
+    private boolean joinThreads(long deadline) throws InterruptedException {
+        do {
+            var running = new ArrayList<Thread>(threads);
+            running.addAll(spawnedThreads);
+            for (var thread : running) {
+                TimeUnit.NANOSECONDS.timedJoin(thread, deadline - System.nanoTime());
+                if (thread.isAlive()) {
+                    return false;
+                }
+            }
+        } while (!spawnedThreads.isEmpty() && System.nanoTime() - deadline < 0);
+        return spawnedThreads.isEmpty();
+    }
+
+    /** Stops the timer thread, the tasks are left in the timer */
+    private void stopTimer() throws InterruptedException {
+        Thread timerThread;
+        synchronized (timer) {
+            timerThread = this.timerThread;
+        }
+        if (timerThread != null) {
+            timerThread.interrupt();
+            timerThread.join();
         }
     }
 
@@ -49,51 +531,182 @@ public class ThreadPool {
      * @throws InterruptedException In case of thread interruption the exception will be thrown
      */
     public void shutdown() throws InterruptedException {
-        synchronized (tasks) {
-            isShutdown = true;
+        isShutdown = true;
+        stopTimer();
+        synchronized (timer) {
+            for (var task : timer.drain()) {
+                interruptTask(task);
+            }
+        }
+
+        if (taskThreadFactory != null) {
+            var running = new ArrayList<>(spawnedThreads);
+            for (var thread : running) {
+                thread.interrupt();
+            }
+            for (var thread : running) {
+                thread.join();
+            }
+            return;
         }
-        for (var thread : threads) {
+
+        tasks.close();
+        var running = new ArrayList<Thread>(threads);
+        running.addAll(spawnedThreads);
+        for (var thread : running) {
             thread.interrupt();
         }
-        for (var thread : threads) {
+        for (var thread : running) {
             thread.join();
         }
+        for (var task : tasks.drain()) {
+            interruptTask(task);
+        }
     }
 
-    /** Main thread loop */
-    private void threadWorker() {
-        ThreadTask<?> task = null;
+    /** Performs the task by a thread which is not a worker of the pool, counting it apart from the workers */
+    private void performForeignTask(ThreadTask<?> task) {
+        foreignActiveCount.increment();
         try {
-            while (!Thread.currentThread().isInterrupted()) {
-                synchronized (tasks) {
-                    while (tasks.size() == 0) {
-                        tasks.wait();
-                    }
-                    task = tasks.pollFirst();
-                    Objects.requireNonNull(task);
-                }
+            performTask(task);
+        } finally {
+            foreignActiveCount.decrement();
+            foreignCompletedCount.increment();
+        }
+    }
 
-                if (Thread.currentThread().isInterrupted()) {
-                    task.charterer.interrupt();
-                }
-                task.perform();
+    /**
+     * Performs the task, its failure is passed to its charterer.
+     * The task failed after shutdown is considered to be interrupted by it.
+     * A periodic task is scheduled again unless its charterer is decided
+     */
+    private void performTask(ThreadTask<?> task) {
+        var listener = this.listener;
+        long start = 0;
+        if (listener != null) {
+            start = task.isTimed ? System.nanoTime() : 0;
+            listener.onStart(task, task.isTimed ? start - task.submitTime : -1);
+        }
+        Throwable failure = null;
+        try {
+            task.perform();
+            if (task.period != 0 && !task.charterer.isReady()) {
+                task.time += task.period;
+                addTimer(task);
+            }
+        } catch (Throwable e) {
+            if (isShutdown) {
+                interruptTask(task);
+            } else {
+                failure = e;
+                task.charterer.fail(e);
             }
-            synchronized (tasks) {
-                while (tasks.size() != 0) {
-                    task = tasks.pollFirst();
-                    Objects.requireNonNull(task);
-                    task.charterer.interrupt();
+        }
+        if (listener != null) {
+            listener.onFinish(task, task.isTimed ? System.nanoTime() - start : -1, failure);
+        }
+    }
+
+    /** Interrupts the charterer of the task because of shutdown */
+    private void interruptTask(ThreadTask<?> task) {
+        task.charterer.interrupt();
+        var listener = this.listener;
+        if (listener != null) {
+            listener.onInterrupt(task);
+        }
+    }
+
+    /** Main thread loop, a failure of the task does not stop it */
+    private void threadWorker(Worker worker) {
+        if (worker.firstTask != null) {
+            worker.perform(worker.firstTask);
+        }
+        try {
+            // a task cancelled with interruption clears the flag it has set, the flag set by shutdown may be lost then
+            while (!isShutdown && !Thread.currentThread().isInterrupted()) {
+                var task = tasks.take(worker.index);
+                if (task == null) {
+                    return;
                 }
+                worker.perform(task);
             }
+        } catch (InterruptedException e) {
+            // the pool is shutdown, the tasks left are interrupted by it
         }
-        catch (Throwable e) {
-            System.out.println(e);
-            if (task != null) {
-                task.charterer.fail(e);
+    }
+
+    /** Thread of the pool which knows its index */
+    private class Worker extends Thread {
+        private final int index;
+
+        /** Task which is to be performed before the ones of the queue, null if there is none */
+        private final ThreadTask<?> firstTask;
+        /** Whether the worker performs a task now, written only by the worker */
+        private final AtomicBoolean isBusy = new AtomicBoolean();
+        /** Number of tasks performed by the worker, written only by the worker */
+        private final AtomicLong completedCount = new AtomicLong();
+
+        private Worker(int index) {
+            this(index, null);
+        }
+
+        private Worker(int index, ThreadTask<?> firstTask) {
+            this.index = index;
+            this.firstTask = firstTask;
+        }
+
+        private ThreadPool getPool() {
+            return ThreadPool.this;
+        }
+
+        /** Performs the task and counts it. Lazy writes are enough as only the worker writes the counters */
+        private void perform(ThreadTask<?> task) {
+            isBusy.lazySet(true);
+            performTask(task);
+            completedCount.lazySet(completedCount.get() + 1);
+            isBusy.lazySet(false);
+        }
+
+        @Override
+        public void run() {
+            try {
+                threadWorker(this);
+            } finally {
+                if (spawnedThreads.contains(this)) {
+                    retiredCompletedCount.addAndGet(completedCount.get());
+                    spawnedThreads.remove(this);
+                }
             }
         }
     }
 
+    /**
+     * The way tasks are distributed among the threads. Possible values:
+     * SHARED_QUEUE -- all threads take tasks from one queue guarded by its monitor, every submission wakes up all
+     * waiting threads
+     * LOCK_FREE_QUEUE -- all threads take tasks from one lock-free queue, idle threads spin for a while and then park,
+     * every submission unparks one of them
+     * WORK_STEALING -- every thread has its own deque, tasks submitted by a thread of the pool are put to its deque
+     * and performed in LIFO order, a thread with the empty deque steals tasks from the others
+     * FAIR_QUEUE -- all threads take tasks from one queue guarded by its monitor, which takes higher priorities first
+     * without starving the lower ones and shares the threads among tenants by their weights
+     */
+    public enum Scheduling {
+        SHARED_QUEUE, LOCK_FREE_QUEUE, WORK_STEALING, FAIR_QUEUE
+    }
+
+    /**
+     * The way a task is handled when the queue of the elastic pool is full and no thread may be started.
+     * Possible values:
+     * REJECT -- the submission throws {@link RejectedExecutionException}
+     * BLOCK -- the submitting thread waits for room in the queue, a thread of the pool performs the task itself
+     * CALLER_RUNS -- the submitting thread performs the task itself
+     * DROP_OLDEST -- the oldest waiting task is cancelled and removed from the queue
+     */
+    public enum Overflow {
+        REJECT, BLOCK, CALLER_RUNS, DROP_OLDEST
+    }
+
     /**
      * Represents thread pool tasks' interface between async tasks and supplier form tasks
      * @param <R> the result type of the task
@@ -103,15 +716,91 @@ public class ThreadPool {
         private Supplier<R> action;
         /** Async task corresponding to this supplier form task */
         private LightFuture<R> charterer;
+        /** Whether the task is dropped if it is not started before the deadline */
+        private final boolean hasDeadline;
+        /** Time in {@link System#nanoTime()} terms after which the task is not started */
+        private final long deadline;
+        /** Thread performing the task, null if it is not performed now */
+        private Thread runner;
+        /** Whether the runner has been interrupted by cancellation of the task */
+        private boolean isRunnerInterrupted = false;
+        /** Time in {@link System#nanoTime()} terms the task is to be submitted at by the timer */
+        long time;
+        /** Whether the task is timed for the listener of the pool */
+        boolean isTimed = false;
+        /** Time in {@link System#nanoTime()} terms the task was submitted at, set only if the task is timed */
+        long submitTime;
+        /** Time between starts of the periodic task in nanoseconds, 0 if the task is not periodic */
+        long period = 0;
+        /** Next task in the same bucket of the timer */
+        ThreadTask<?> next;
+        /** Priority of the task in the fair queue */
+        int priority = NORM_PRIORITY;
+        /** Tenant sharing the threads with the others in the fair queue */
+        Tenant tenant = Tenant.DEFAULT;
+
         /** Simple wrapper of async tasks */
         public ThreadTask(Supplier<R> action, LightFuture<R> charterer) {
             this.action = action;
             this.charterer = charterer;
+            hasDeadline = false;
+            deadline = 0;
+        }
+
+        /**
+         * Wrapper of async tasks which fails with {@link TimeoutException} unless it is started within the timeout
+         * @param timeout the time from now during which the task may be started
+         * @param unit the unit of the timeout
+         */
+        public ThreadTask(Supplier<R> action, LightFuture<R> charterer, long timeout, TimeUnit unit) {
+            this.action = action;
+            this.charterer = charterer;
+            hasDeadline = true;
+            deadline = System.nanoTime() + unit.toNanos(timeout);
         }
-        /** Calculates action and puts it into charterer's result */
+
+        /**
+         * Calculates action and puts it into charterer's result, the result of a periodic task is ignored.
+         * Nothing is done if the charterer is decided already, for example cancelled
+         */
         public void perform() {
-            R result = action.get();
-            charterer.finish(result);
+            synchronized (this) {
+                if (charterer.isReady()) {
+                    return;
+                }
+                if (hasDeadline && System.nanoTime() - deadline > 0) {
+                    charterer.fail(new TimeoutException("The task was not started before its deadline"));
+                    return;
+                }
+                runner = Thread.currentThread();
+            }
+            try {
+                R result = action.get();
+                if (period == 0) {
+                    charterer.finish(result);
+                }
+            } finally {
+                synchronized (this) {
+                    runner = null;
+                    if (isRunnerInterrupted) {
+                        isRunnerInterrupted = false;
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+
+        /** Cancels the charterer of the task which is dropped by the pool */
+        void cancel() {
+            charterer.cancel(false);
+        }
+
+        /** Interrupts the thread performing the task if it is performed now, the thread is to check the flag */
+        public synchronized void interruptRunner() {
+            if (runner != null) {
+                isRunnerInterrupted = true;
+                runner.interrupt();
+            }
         }
     }
 }
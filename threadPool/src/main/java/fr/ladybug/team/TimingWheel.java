@@ -0,0 +1,165 @@
+package fr.ladybug.team;
+
+import fr.ladybug.team.ThreadPool.ThreadTask;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel of tasks waiting for their time to start.
+ * Every level has 64 buckets, a bucket of level l covers 64^l ticks. Tasks are chained in buckets through
+ * their own field, so a pending task takes no memory besides itself and adding it costs O(1).
+ * When the wheel reaches the beginning of a bucket of a higher level, its tasks are moved down to the lower levels.
+ * Not thread-safe, the owner guards it
+ */
+class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 6;
+    /** Tasks further than this number of ticks wait at the top level and are moved down several times */
+    private static final long MAXIMAL_DISTANCE = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickNanos;
+    /** Time of the tick 0 */
+    private final long start;
+    /** First task of every bucket of every level */
+    private final ThreadTask<?>[][] buckets = new ThreadTask<?>[LEVELS][SLOTS];
+    /** Tick which the wheel has been advanced to, tasks of this and earlier ticks are due */
+    private long currentTick = 0;
+    private int size = 0;
+
+    /**
+     * Constructs empty wheel
+     * @param tickNanos length of a tick in nanoseconds, tasks are started no earlier than their time
+     *                  and no more than a tick later
+     * @param start time of the tick 0 in {@link System#nanoTime()} terms
+     */
+    TimingWheel(long tickNanos, long start) {
+        this.tickNanos = tickNanos;
+        this.start = start;
+    }
+
+    int getSize() {
+        return size;
+    }
+
+    /** The first tick which starts no earlier than the time */
+    private long tickOf(long time) {
+        long elapsed = time - start;
+        return elapsed <= 0 ? 0 : (elapsed - 1) / tickNanos + 1;
+    }
+
+    /**
+     * Adds the task which is to start at its {@code time}
+     * @return false if the time has come already and the task is not added
+     */
+    boolean add(ThreadTask<?> task) {
+        long tick = tickOf(task.time);
+        if (tick <= currentTick) {
+            return false;
+        }
+        tick = Math.min(tick, currentTick + MAXIMAL_DISTANCE);
+        int level = (63 - Long.numberOfLeadingZeros(tick - currentTick)) / SLOT_BITS;
+        int slot = (int) (tick >>> (SLOT_BITS * level)) & (SLOTS - 1);
+        task.next = buckets[level][slot];
+        buckets[level][slot] = task;
+        size++;
+        return true;
+    }
+
+    /**
+     * Advances the wheel to the time. Ticks with nothing to do are skipped
+     * @param due the list the tasks whose time has come are added to
+     */
+    void advance(long time, List<ThreadTask<?>> due) {
+        long targetTick = (time - start) / tickNanos;
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                currentTick = targetTick;
+                return;
+            }
+            currentTick = Math.min(targetTick, nextTick());
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, due);
+                }
+            }
+            var slot = (int) currentTick & (SLOTS - 1);
+            for (var task = buckets[0][slot]; task != null; ) {
+                var next = task.next;
+                task.next = null;
+                due.add(task);
+                size--;
+                task = next;
+            }
+            buckets[0][slot] = null;
+        }
+    }
+
+    /** Moves tasks of the current bucket of the level down to the lower levels */
+    private void cascade(int level, List<ThreadTask<?>> due) {
+        var slot = (int) (currentTick >>> (SLOT_BITS * level)) & (SLOTS - 1);
+        var task = buckets[level][slot];
+        buckets[level][slot] = null;
+        while (task != null) {
+            var next = task.next;
+            task.next = null;
+            size--;
+            if (!add(task)) {
+                due.add(task);
+            }
+            task = next;
+        }
+    }
+
+    /**
+     * Time the wheel is to be advanced to next. It may be earlier than the time of the earliest task
+     * when the task is at a higher level, then the wheel moves it down
+     * @return the time in {@link System#nanoTime()} terms, meaningless if the wheel is empty
+     */
+    long nextTime() {
+        return start + nextTick() * tickNanos;
+    }
+
+    /**
+     * The first tick after the current one which has something to do: either a bucket of the lowest level
+     * is due or tasks of a higher level are to be moved down
+     */
+    private long nextTick() {
+        long next = Long.MAX_VALUE;
+        for (int i = 1; i < SLOTS; i++) {
+            if (buckets[0][(int) (currentTick + i) & (SLOTS - 1)] != null) {
+                next = currentTick + i;
+                break;
+            }
+        }
+        for (int level = 1; level < LEVELS; level++) {
+            int shift = SLOT_BITS * level;
+            for (long block = (currentTick >>> shift) + 1; block <= (currentTick >>> shift) + SLOTS; block++) {
+                if (buckets[level][(int) block & (SLOTS - 1)] != null) {
+                    next = Math.min(next, block << shift);
+                    break;
+                }
+            }
+        }
+        return next == Long.MAX_VALUE ? currentTick + 1 : next;
+    }
+
+    /**
+     * Removes all tasks
+     * @return the removed tasks
+     */
+    List<ThreadTask<?>> drain() {
+        var res = new ArrayList<ThreadTask<?>>(size);
+        for (var level : buckets) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                for (var task = level[slot]; task != null; task = task.next) {
+                    res.add(task);
+                }
+                level[slot] = null;
+            }
+        }
+        size = 0;
+        return res;
+    }
+}
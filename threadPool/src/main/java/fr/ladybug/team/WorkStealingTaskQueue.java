@@ -0,0 +1,144 @@
+package fr.ladybug.team;
+
+import fr.ladybug.team.ThreadPool.ThreadTask;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Every worker has its own lock-free deque. Tasks added by a worker go to the head of its deque
+ * and are taken from there by the worker itself, so the most recent task runs first while its data is hot.
+ * Tasks added from outside go to the tail of a random deque. A worker with the empty deque steals
+ * from the tail of the others starting at a random victim, and waits only if all of them are empty.
+ * Only one waiting worker is woken up by an addition
+ */
+class WorkStealingTaskQueue implements TaskQueue {
+    private final ConcurrentLinkedDeque<ThreadTask<?>>[] deques;
+    /** Monitor at which workers wait for new tasks */
+    private final Object sleeping = new Object();
+    /** Number of workers waiting at the monitor, it is changed under the monitor only */
+    private volatile int sleeperCount = 0;
+    private volatile boolean isClosed = false;
+    /** Whether workers stop when all deques are empty */
+    private volatile boolean isFinishing = false;
+    private final LongAdder stealCount = new LongAdder();
+
+    /** Constructs the queue for the certain number of workers */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    WorkStealingTaskQueue(int workerCount) {
+        deques = new ConcurrentLinkedDeque[Math.max(1, workerCount)];
+        for (int i = 0; i < deques.length; i++) {
+            deques[i] = new ConcurrentLinkedDeque<>();
+        }
+    }
+
+    @Override
+    public void add(ThreadTask<?> task, int worker) {
+        if (isClosed) {
+            throw new IllegalStateException("The pool is shutdown");
+        }
+        var deque = worker >= 0 ? deques[worker] : deques[ThreadLocalRandom.current().nextInt(deques.length)];
+        if (worker >= 0) {
+            deque.addFirst(task);
+        } else {
+            deque.addLast(task);
+        }
+        // The pool may be shutdown concurrently, then the task is either drained by it or removed here
+        if (isClosed && deque.removeFirstOccurrence(task)) {
+            throw new IllegalStateException("The pool is shutdown");
+        }
+
+        if (sleeperCount > 0) {
+            synchronized (sleeping) {
+                sleeping.notify();
+            }
+        }
+    }
+
+    /** Takes a task from the own deque or steals one, null if all deques are empty */
+    private ThreadTask<?> poll(int worker) {
+        var task = deques[worker].pollFirst();
+        if (task != null) {
+            return task;
+        }
+        int start = ThreadLocalRandom.current().nextInt(deques.length);
+        for (int i = 0; i < deques.length; i++) {
+            int victim = (start + i) % deques.length;
+            if (victim != worker) {
+                task = deques[victim].pollLast();
+                if (task != null) {
+                    stealCount.increment();
+                    return task;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public ThreadTask<?> take(int worker) throws InterruptedException {
+        while (true) {
+            var task = poll(worker);
+            if (task != null) {
+                return task;
+            }
+            synchronized (sleeping) {
+                sleeperCount++;
+                try {
+                    // Adding thread checks the count after adding, so the task is either seen here or notified of
+                    task = poll(worker);
+                    if (task != null) {
+                        return task;
+                    }
+                    if (isFinishing) {
+                        return null;
+                    }
+                    sleeping.wait();
+                } finally {
+                    sleeperCount--;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (var deque : deques) {
+            size += deque.size();
+        }
+        return size;
+    }
+
+    @Override
+    public long getStealCount() {
+        return stealCount.sum();
+    }
+
+    @Override
+    public void finish() {
+        isFinishing = true;
+        synchronized (sleeping) {
+            sleeping.notifyAll();
+        }
+    }
+
+    @Override
+    public void close() {
+        isClosed = true;
+    }
+
+    @Override
+    public List<ThreadTask<?>> drain() {
+        var res = new ArrayList<ThreadTask<?>>();
+        for (var deque : deques) {
+            for (var task = deque.pollFirst(); task != null; task = deque.pollFirst()) {
+                res.add(task);
+            }
+        }
+        return res;
+    }
+}
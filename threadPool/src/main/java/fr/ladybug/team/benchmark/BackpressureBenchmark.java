@@ -0,0 +1,65 @@
+package fr.ladybug.team.benchmark;
+
+import fr.ladybug.team.ThreadPool;
+import fr.ladybug.team.lightfuture.FreeFuture;
+import fr.ladybug.team.lightfuture.LightExecutionException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Submits a burst of tasks faster than the pool performs them and measures time to perform all of them
+ * and the largest queue, for the fixed pool with the unbounded queue
+ * and for elastic pools with a bounded queue and every overflow policy.
+ * The burst is repeated in three rounds, the overflow paths are compiled during the first one.
+ * Usage: BackpressureBenchmark [number of tasks] [capacity of the bounded queue]
+ */
+public class BackpressureBenchmark {
+    public static void main(String[] args) throws LightExecutionException, InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int capacity = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(String.format("Round %d, %d tasks, queue of %d tasks", round, count, capacity));
+            report("fixed unbounded", count, new ThreadPool(4));
+            for (var overflow : ThreadPool.Overflow.values()) {
+                if (overflow != ThreadPool.Overflow.REJECT) {
+                    report("elastic " + overflow, count,
+                            ThreadPool.createElastic(2, 4, 1, TimeUnit.SECONDS, capacity, overflow));
+                }
+            }
+        }
+    }
+
+    /** Submits the tasks, waits until every one of them is either performed or dropped and prints the numbers */
+    private static void report(String name, int count, ThreadPool pool)
+            throws LightExecutionException, InterruptedException {
+        var performed = new AtomicInteger();
+        int maximalQueue = 0;
+        FreeFuture<Integer> last = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            last = FreeFuture.createTask(() -> {
+                double sink = 0;
+                for (int j = 0; j < 1000; j++) {
+                    sink += Math.sqrt(j);
+                }
+                return performed.incrementAndGet() + (int) sink;
+            }, pool);
+            if (i % 1000 == 0) {
+                maximalQueue = Math.max(maximalQueue, pool.getQueueSize());
+            }
+        }
+        int threads = pool.getThreadCount();
+        // the queue is FIFO, so once the last task is done the others are either started or dropped
+        last.get();
+        for (int previous = -1; previous != performed.get(); ) {
+            previous = performed.get();
+            Thread.sleep(5);
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        System.out.println(String.format("%-22s %7.1f ms, %d threads, max queue %7d, dropped %d",
+                name, elapsed / 1e6, threads, maximalQueue, count - performed.get()));
+    }
+}
@@ -0,0 +1,59 @@
+package fr.ladybug.team.benchmark;
+
+import fr.ladybug.team.ThreadPool;
+import fr.ladybug.team.lightfuture.FreeFuture;
+import fr.ladybug.team.lightfuture.LightExecutionException;
+
+/**
+ * Builds long chains of dependent tasks on a small pool and measures time to build a chain
+ * and to run it once its first task is submitted, for every way of continuation.
+ * Chains are built and run in three rounds, the first one also grows the heap to fit the long chains.
+ * Usage: ChainBenchmark [depth of the chain] [number of threads]
+ */
+public class ChainBenchmark {
+    public static void main(String[] args) throws LightExecutionException, InterruptedException {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int threadCount = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(String.format("Round %d, chains of %d tasks, %d threads", round, depth, threadCount));
+            for (var continuation : FreeFuture.Continuation.values()) {
+                var pool = new ThreadPool(threadCount);
+                long start = System.nanoTime();
+                var first = FreeFuture.createDelayedTask(() -> 0, pool);
+                var task = first;
+                for (int i = 0; i < depth; i++) {
+                    task = task.thenApply(j -> j + 1, continuation);
+                }
+                report("thenApply " + continuation, depth, start, first, task);
+                pool.shutdown();
+            }
+            for (var continuation : FreeFuture.Continuation.values()) {
+                var pool = new ThreadPool(threadCount);
+                long start = System.nanoTime();
+                var first = FreeFuture.createDelayedTask(() -> 0, pool);
+                var task = first;
+                for (int i = 0; i < depth; i++) {
+                    task = task.thenCompose(j -> FreeFuture.createTask(() -> j + 1, pool), continuation);
+                }
+                report("thenCompose " + continuation, depth, start, first, task);
+                pool.shutdown();
+            }
+        }
+    }
+
+    /** Submits the first task of the built chain, waits for the last one and prints both times */
+    private static void report(String name, int depth, long start, FreeFuture<Integer> first,
+                               FreeFuture<Integer> last) throws LightExecutionException, InterruptedException {
+        long building = System.nanoTime() - start;
+        start = System.nanoTime();
+        first.submit();
+        int result = last.get();
+        long running = System.nanoTime() - start;
+        if (result != depth) {
+            throw new IllegalStateException(name + " lost some links");
+        }
+        System.out.println(String.format("%-20s build %6.1f ms, run %6.1f ms, %6.0f ns/link",
+                name, building / 1e6, running / 1e6, (double) running / depth));
+    }
+}
@@ -0,0 +1,99 @@
+package fr.ladybug.team.benchmark;
+
+import fr.ladybug.team.Tenant;
+import fr.ladybug.team.ThreadPool;
+import fr.ladybug.team.lightfuture.FreeFuture;
+import fr.ladybug.team.lightfuture.LightExecutionException;
+import fr.ladybug.team.metrics.Histogram;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures latency of interactive tasks, from submission to finish, while a bulk tenant saturates the pool.
+ * An interactive task of 10 microseconds is submitted every millisecond, the bulk tenant keeps a thousand tasks
+ * of 100 microseconds waiting as every bulk task submits the next one. Both tenants have the same weight.
+ * The FIFO shared queue is compared with the fair one, the latency of the latter is not to grow with the bulk load.
+ * Both queues are measured in three rounds, the tails of the first one are inflated by JIT compilation.
+ * Usage: FairnessBenchmark [number of interactive tasks] [number of threads]
+ */
+public class FairnessBenchmark {
+    private static final long INTERACTIVE_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final long BULK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int BULK_BACKLOG = 1000;
+
+    public static void main(String[] args) throws LightExecutionException, InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int threadCount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        var schedulings = new ThreadPool.Scheduling[] {ThreadPool.Scheduling.SHARED_QUEUE,
+                ThreadPool.Scheduling.FAIR_QUEUE};
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(String.format("Round %d, %d interactive tasks, %d threads", round, count, threadCount));
+            for (var scheduling : schedulings) {
+                for (boolean hasBulk : new boolean[] {false, true}) {
+                    var pool = new ThreadPool(threadCount, scheduling);
+                    var latencies = new Histogram();
+                    long bulkCount = perform(pool, count, hasBulk, latencies);
+                    pool.shutdown();
+                    System.out.println(String.format(
+                            "%-12s %-9s interactive p50 %9.1f us, p99 %9.1f us, max %9.1f us; bulk %6d tasks",
+                            scheduling, hasBulk ? "with bulk" : "alone", latencies.getValueAtPercentile(50) / 1e3,
+                            latencies.getValueAtPercentile(99) / 1e3, latencies.getMax() / 1e3, bulkCount));
+                }
+            }
+        }
+    }
+
+    /** @return number of bulk tasks performed meanwhile */
+    private static long perform(ThreadPool pool, int count, boolean hasBulk, Histogram latencies)
+            throws LightExecutionException, InterruptedException {
+        var interactive = new Tenant("interactive", 1);
+        var bulk = new Tenant("bulk", 1);
+        var isRunning = new AtomicBoolean(true);
+        var bulkCount = new AtomicLong();
+        if (hasBulk) {
+            for (int i = 0; i < BULK_BACKLOG; i++) {
+                submitBulk(pool, bulk, isRunning, bulkCount);
+            }
+        }
+
+        var tasks = new ArrayList<FreeFuture<Boolean>>(count);
+        for (int i = 0; i < count; i++) {
+            long submitTime = System.nanoTime();
+            tasks.add(FreeFuture.createTask(() -> {
+                spin(INTERACTIVE_NANOS);
+                latencies.record(System.nanoTime() - submitTime);
+                return true;
+            }, pool, interactive, ThreadPool.NORM_PRIORITY));
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        for (var task : tasks) {
+            task.get();
+        }
+        isRunning.set(false);
+        return bulkCount.get();
+    }
+
+    /** Submits the bulk task which submits the next one until the run is over */
+    private static void submitBulk(ThreadPool pool, Tenant bulk, AtomicBoolean isRunning, AtomicLong bulkCount) {
+        FreeFuture.createTask(() -> {
+            spin(BULK_NANOS);
+            bulkCount.incrementAndGet();
+            if (isRunning.get()) {
+                submitBulk(pool, bulk, isRunning, bulkCount);
+            }
+            return true;
+        }, pool, bulk, ThreadPool.NORM_PRIORITY);
+    }
+
+    private static void spin(long nanos) {
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < nanos) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package fr.ladybug.team.benchmark;
+
+import fr.ladybug.team.ThreadPool;
+import fr.ladybug.team.lightfuture.FreeFuture;
+import fr.ladybug.team.lightfuture.LightExecutionException;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures throughput of {@link FreeFuture#isReady()} polling of a pending task and {@link FreeFuture#get()}
+ * of a done one, when many threads read the same task at once.
+ * Every measurement is repeated in three rounds, isReady and get are still interpreted in the first one.
+ * Usage: FutureBenchmark [milliseconds per measurement]
+ */
+public class FutureBenchmark {
+    public static void main(String[] args) throws LightExecutionException, InterruptedException {
+        long duration = args.length > 0 ? Long.parseLong(args[0]) * 1_000_000 : 500_000_000;
+        var pool = new ThreadPool(1);
+        var pending = FreeFuture.createDelayedTask(() -> 0, pool);
+        var done = FreeFuture.createTask(() -> 1, pool);
+        done.get();
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(String.format("Round %d, %d processors",
+                    round, Runtime.getRuntime().availableProcessors()));
+            for (int threadCount : new int[] {1, 4, 16}) {
+                report("isReady pending", threadCount, duration, () -> pending.isReady() ? 1 : 0);
+                report("get done", threadCount, duration, done::get);
+            }
+        }
+        pool.shutdown();
+    }
+
+    /** Calls the operation from every thread for the duration and prints the total throughput */
+    private static void report(String name, int threadCount, long duration, Operation operation)
+            throws InterruptedException {
+        var total = new AtomicLong();
+        var threads = new ArrayList<Thread>();
+        long deadline = System.nanoTime() + duration;
+        for (int i = 0; i < threadCount; i++) {
+            threads.add(new Thread(() -> {
+                long count = 0;
+                long sink = 0;
+                try {
+                    while (System.nanoTime() < deadline) {
+                        for (int j = 0; j < 1000; j++) {
+                            sink += operation.perform();
+                        }
+                        count += 1000;
+                    }
+                } catch (LightExecutionException | InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                total.addAndGet(count + (sink == Long.MIN_VALUE ? 1 : 0));
+            }));
+        }
+        long start = System.nanoTime();
+        for (var thread : threads) {
+            thread.start();
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.println(String.format("%-16s %2d threads: %8.1f M ops/s",
+                name, threadCount, total.get() * 1e3 / elapsed));
+    }
+
+    private interface Operation {
+        int perform() throws LightExecutionException, InterruptedException;
+    }
+}
@@ -0,0 +1,44 @@
+package fr.ladybug.team.benchmark;
+
+import fr.ladybug.team.ThreadPool;
+import fr.ladybug.team.lightfuture.FreeFuture;
+import fr.ladybug.team.lightfuture.LightExecutionException;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Measures time from submission of a task to the idle pool till the task starts, for every scheduling
+ * of {@link ThreadPool}. Tasks are submitted one by one with pauses, so every one of them has to wake up a thread.
+ * The tasks are run in three rounds, the wake-up paths are interpreted in the first one, so its tails are higher.
+ * Usage: LatencyBenchmark [number of tasks] [pause in microseconds]
+ */
+public class LatencyBenchmark {
+    public static void main(String[] args) throws LightExecutionException, InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long pause = args.length > 1 ? Long.parseLong(args[1]) * 1000 : 100_000;
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(String.format("Round %d, %d tasks, %d processors",
+                    round, count, Runtime.getRuntime().availableProcessors()));
+            for (int threadCount : new int[] {1, 4, 16}) {
+                for (var scheduling : ThreadPool.Scheduling.values()) {
+                    var pool = new ThreadPool(threadCount, scheduling);
+                    long[] latencies = new long[count];
+                    for (int i = 0; i < count; i++) {
+                        long submitted = System.nanoTime();
+                        latencies[i] = FreeFuture.createTask(() -> System.nanoTime() - submitted, pool).get();
+                        LockSupport.parkNanos(pause);
+                    }
+                    pool.shutdown();
+
+                    Arrays.sort(latencies);
+                    System.out.println(String.format(
+                            "%-15s %2d threads: median %7.1f us, 99%% %7.1f us, 99.9%% %8.1f us, max %8.1f us",
+                            scheduling, threadCount, latencies[count / 2] / 1e3, latencies[count * 99 / 100] / 1e3,
+                            latencies[count * 999 / 1000] / 1e3, latencies[count - 1] / 1e3));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package fr.ladybug.team.benchmark;
+
+import fr.ladybug.team.ThreadPool;
+import fr.ladybug.team.lightfuture.FreeFuture;
+import fr.ladybug.team.lightfuture.LightExecutionException;
+import fr.ladybug.team.metrics.PoolMetrics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures overhead of {@link PoolMetrics} on tiny tasks for every scheduling of {@link ThreadPool}.
+ * Tasks are submitted by tasks of the pool, so threads do not sleep and the time is spent on the tasks themselves.
+ * Runs with and without metrics alternate, their medians are compared as single runs vary a lot.
+ * Runs in one JVM share profiles of the JIT compiler, which distorts the comparison, so for precise numbers
+ * run the benchmark in the plain and the metrics modes in separate JVMs and compare their medians.
+ * The medians settle after the first of three rounds, which still includes JIT compilation.
+ * Usage: MetricsBenchmark [number of tasks] [number of threads] [both|plain|metrics]
+ */
+public class MetricsBenchmark {
+    public static void main(String[] args) throws LightExecutionException, InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int threadCount = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String mode = args.length > 2 ? args[2] : "both";
+        boolean isPlain = !mode.equals("metrics");
+        boolean isMeasured = !mode.equals("plain");
+        int runCount = 9;
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(String.format("Round %d, %d tasks, %d threads", round, count, threadCount));
+            for (var scheduling : ThreadPool.Scheduling.values()) {
+                var plain = new long[runCount];
+                var measured = new long[runCount];
+                PoolMetrics metrics = null;
+                for (int run = 0; run < runCount; run++) {
+                    if (isPlain) {
+                        var pool = new ThreadPool(threadCount, scheduling);
+                        plain[run] = perform(pool, count);
+                        pool.shutdown();
+                    }
+                    if (isMeasured) {
+                        var pool = new ThreadPool(threadCount, scheduling);
+                        metrics = pool.enableMetrics();
+                        measured[run] = perform(pool, count);
+                        pool.shutdown();
+                    }
+                }
+                Arrays.sort(plain);
+                Arrays.sort(measured);
+                long plainMedian = plain[runCount / 2];
+                long measuredMedian = measured[runCount / 2];
+                if (!isMeasured) {
+                    System.out.println(String.format("%-15s without metrics %6.2f M tasks/s, %5.1f ns/task",
+                            scheduling, count * 1e3 / plainMedian, (double) plainMedian / count));
+                } else if (!isPlain) {
+                    System.out.println(String.format("%-15s with metrics %6.2f M tasks/s, %5.1f ns/task",
+                            scheduling, count * 1e3 / measuredMedian, (double) measuredMedian / count));
+                } else {
+                    System.out.println(String.format(
+                            "%-15s without metrics %6.2f M tasks/s, with metrics %6.2f M tasks/s, overhead %5.1f%%",
+                            scheduling, count * 1e3 / plainMedian, count * 1e3 / measuredMedian,
+                            (measuredMedian - plainMedian) * 100.0 / plainMedian));
+                }
+                if (metrics != null) {
+                    System.out.println(metrics);
+                }
+            }
+        }
+    }
+
+    /**
+     * Children are not kept, so the garbage collector does not copy them
+     * @return time in nanoseconds
+     */
+    private static long perform(ThreadPool pool, int count) throws LightExecutionException, InterruptedException {
+        int parentCount = 100;
+        var done = new CountDownLatch(parentCount * (count / parentCount));
+        var parents = new ArrayList<FreeFuture<Integer>>(parentCount);
+        long start = System.nanoTime();
+        for (int i = 0; i < parentCount; i++) {
+            parents.add(FreeFuture.createTask(() -> {
+                for (int j = 0; j < count / parentCount; j++) {
+                    FreeFuture.createTask(() -> {
+                        done.countDown();
+                        return 0;
+                    }, pool);
+                }
+                return 0;
+            }, pool));
+        }
+        for (var task : parents) {
+            task.get();
+        }
+        done.await();
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,77 @@
+package fr.ladybug.team.benchmark;
+
+import fr.ladybug.team.ThreadPool;
+import fr.ladybug.team.lightfuture.FreeFuture;
+import fr.ladybug.team.lightfuture.LightExecutionException;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Measures throughput of tiny {@link FreeFuture} tasks for every scheduling of {@link ThreadPool}
+ * on 1 to 32 threads. Tasks are either all submitted from outside of the pool,
+ * or submitted by a thousand of tasks from inside of the pool.
+ * The whole grid is measured in three rounds, the numbers of the first one include compilation of the queues.
+ * Usage: ThreadPoolBenchmark [number of tasks]
+ */
+public class ThreadPoolBenchmark {
+    public static void main(String[] args) throws LightExecutionException, InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(String.format("Round %d, %d tasks, %d processors",
+                    round, count, Runtime.getRuntime().availableProcessors()));
+            for (int threadCount = 1; threadCount <= 32; threadCount *= 2) {
+                for (var scheduling : ThreadPool.Scheduling.values()) {
+                    var pool = new ThreadPool(threadCount, scheduling);
+                    long external = submitFromOutside(pool, count);
+                    long internal = submitFromInside(pool, count);
+                    pool.shutdown();
+                    System.out.println(String.format(
+                            "%-15s %2d threads: from outside %6.2f M tasks/s, from inside %6.2f M tasks/s",
+                            scheduling, threadCount, count * 1e3 / external, count * 1e3 / internal));
+                }
+            }
+        }
+    }
+
+    /** @return time in nanoseconds */
+    private static long submitFromOutside(ThreadPool pool, int count)
+            throws LightExecutionException, InterruptedException {
+        var tasks = new ArrayList<FreeFuture<Integer>>(count);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            int finalI = i;
+            tasks.add(FreeFuture.createTask(() -> finalI, pool));
+        }
+        for (var task : tasks) {
+            task.get();
+        }
+        return System.nanoTime() - start;
+    }
+
+    /** @return time in nanoseconds */
+    private static long submitFromInside(ThreadPool pool, int count)
+            throws LightExecutionException, InterruptedException {
+        int parentCount = 1000;
+        var children = new ConcurrentLinkedQueue<FreeFuture<Integer>>();
+        var parents = new ArrayList<FreeFuture<Integer>>(parentCount);
+        long start = System.nanoTime();
+        for (int i = 0; i < parentCount; i++) {
+            parents.add(FreeFuture.createTask(() -> {
+                for (int j = 0; j < count / parentCount; j++) {
+                    int finalJ = j;
+                    children.add(FreeFuture.createTask(() -> finalJ, pool));
+                }
+                return 0;
+            }, pool));
+        }
+        for (var task : parents) {
+            task.get();
+        }
+        for (var task : children) {
+            task.get();
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,84 @@
+package fr.ladybug.team.benchmark;
+
+import fr.ladybug.team.ThreadPool;
+import fr.ladybug.team.lightfuture.FreeFuture;
+import fr.ladybug.team.lightfuture.LightExecutionException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules many tasks with random delays and measures time to schedule a task, heap taken per pending task
+ * and lateness of starts, for {@link ThreadPool} with its timing wheel and {@link ScheduledThreadPoolExecutor}
+ * with its heap.
+ * All tasks are scheduled again in each of three rounds, the first one also grows the heap for the pending ones.
+ * Usage: TimerBenchmark [number of tasks] [maximal delay in milliseconds]
+ */
+public class TimerBenchmark {
+    public static void main(String[] args) throws LightExecutionException, ExecutionException, InterruptedException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int maximalDelay = args.length > 1 ? Integer.parseInt(args[1]) : 3000;
+        var random = new Random(42);
+        long[] delays = new long[count];
+        for (int i = 0; i < count; i++) {
+            delays[i] = TimeUnit.MILLISECONDS.toNanos(1000 + random.nextInt(maximalDelay));
+        }
+
+        for (int round = 0; round < 3; round++) {
+            System.out.println(String.format("Round %d, %d tasks", round, count));
+
+            var pool = new ThreadPool(2);
+            var tasks = new ArrayList<FreeFuture<Long>>(count);
+            long memoryBefore = usedMemory();
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                tasks.add(FreeFuture.createScheduledTask(System::nanoTime, pool, delays[i], TimeUnit.NANOSECONDS));
+            }
+            long scheduling = System.nanoTime() - start;
+            long bytes = usedMemory() - memoryBefore;
+            long[] lateness = new long[count];
+            for (int i = 0; i < count; i++) {
+                lateness[i] = tasks.get(i).get() - start - delays[i];
+            }
+            report("ThreadPool", count, scheduling, bytes, lateness);
+            pool.shutdown();
+
+            var executor = new ScheduledThreadPoolExecutor(2);
+            var futures = new ArrayList<Future<Long>>(count);
+            memoryBefore = usedMemory();
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                futures.add(executor.schedule(System::nanoTime, delays[i], TimeUnit.NANOSECONDS));
+            }
+            scheduling = System.nanoTime() - start;
+            bytes = usedMemory() - memoryBefore;
+            for (int i = 0; i < count; i++) {
+                lateness[i] = futures.get(i).get() - start - delays[i];
+            }
+            report("ScheduledThreadPool", count, scheduling, bytes, lateness);
+            executor.shutdown();
+        }
+    }
+
+    /** Prints scheduling time and memory per task and percentiles of lateness */
+    private static void report(String name, int count, long scheduling, long bytes, long[] lateness) {
+        Arrays.sort(lateness);
+        System.out.println(String.format(
+                "%-20s schedule %6.1f ns, %6.1f bytes/task, late: median %7.2f ms, 99%% %7.2f ms, max %7.2f ms",
+                name, (double) scheduling / count, (double) bytes / count, lateness[count / 2] / 1e6,
+                lateness[count * 99 / 100] / 1e6, lateness[count - 1] / 1e6));
+    }
+
+    private static long usedMemory() {
+        var runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,66 @@
+package fr.ladybug.team.benchmark;
+
+import fr.ladybug.team.ThreadPool;
+import fr.ladybug.team.lightfuture.FreeFuture;
+import fr.ladybug.team.lightfuture.LightExecutionException;
+
+import java.util.ArrayList;
+
+/**
+ * Submits blocking tasks, every one sleeps for a second, to the pool starting a virtual thread for every task
+ * and to the pool of a fixed number of threads, and measures time until all of them are done.
+ * Virtual threads need Java 21, their carrier pool is limited by
+ * -Djdk.virtualThreadScheduler.parallelism=N. The default of 10^5 tasks requires Java 21: older runtimes
+ * get {@link ThreadPool#PLATFORM_FALLBACK_SIZE} platform threads, so the default there is 10^3 tasks.
+ * Usage: VirtualThreadBenchmark [number of tasks] [number of threads of the fixed pool]
+ */
+public class VirtualThreadBenchmark {
+    public static void main(String[] args) throws LightExecutionException, InterruptedException {
+        boolean hasVirtualThreads = Runtime.version().feature() >= 21;
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : hasVirtualThreads ? 100_000 : 1000;
+        int threadCount = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        System.out.println(String.format("Java %d, %d processors, carrier parallelism %s",
+                Runtime.version().feature(), Runtime.getRuntime().availableProcessors(),
+                System.getProperty("jdk.virtualThreadScheduler.parallelism", "default")));
+        if (!hasVirtualThreads) {
+            System.out.println(String.format("No virtual threads, the pool has at most %d platform threads",
+                    ThreadPool.PLATFORM_FALLBACK_SIZE));
+        }
+
+        var virtual = ThreadPool.createVirtual();
+        double time = run(virtual, count);
+        virtual.shutdown();
+        System.out.println(String.format("Thread per task: %d tasks in %.2f s", count, time));
+
+        int fixedCount = Math.min(count, threadCount * 4);
+        var fixed = new ThreadPool(threadCount);
+        time = run(fixed, fixedCount);
+        fixed.shutdown();
+        System.out.println(String.format("%d threads: %d tasks in %.2f s, %d tasks would take %.0f s",
+                threadCount, fixedCount, time, count, time * count / fixedCount));
+    }
+
+    /** @return time in seconds */
+    private static double run(ThreadPool pool, int count) throws LightExecutionException, InterruptedException {
+        var tasks = new ArrayList<FreeFuture<Integer>>(count);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            tasks.add(FreeFuture.createTask(() -> {
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return 1;
+            }, pool));
+        }
+        int done = 0;
+        for (var task : tasks) {
+            done += task.get();
+        }
+        if (done != count) {
+            throw new IllegalStateException("Some tasks are lost");
+        }
+        return (System.nanoTime() - start) / 1e9;
+    }
+}
@@ -1,28 +1,56 @@
 package fr.ladybug.team.lightfuture;
 
+import fr.ladybug.team.Tenant;
 import fr.ladybug.team.ThreadPool;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
-/** {@inheritDoc} */
+/**
+ * {@inheritDoc}
+ * The task holds its whole state in a single field: until the result is decided it is the stack of waiting threads
+ * and callbacks, null if the stack is empty, after that it is the outcome. All transitions are made by CAS,
+ * so reads never lock and deciding the result costs as much as the number of waiters
+ */
 public class FreeFuture<R> implements LightFuture<R> {
-    /** Status of the task {@see #TaskStatus} */
-    private TaskStatus status;
+    private static final VarHandle STATE;
+    private static final VarHandle SUBMITTED;
 
-    /** null if no exception was thrown during execution, otherwise it's one which was */
-    private Throwable thrownException;
-    /** Task result */
-    private R result;
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            STATE = lookup.findVarHandle(FreeFuture.class, "state", Object.class);
+            SUBMITTED = lookup.findVarHandle(FreeFuture.class, "submitted", boolean.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** Callbacks waiting to be run by the current thread, null if the thread is not running callbacks */
+    private static final ThreadLocal<ArrayDeque<Runnable>> pendingCallbacks = new ThreadLocal<>();
+
+    /** Top {@link Node} of the stack while the result is not decided, {@link Outcome} after that */
+    private volatile Object state;
+    /** Whether the task has been submitted to the pool */
+    private volatile boolean submitted;
 
     /** Main essence of the task */
-    private Supplier<R> action;
-    /** Thread pool in which all tasks are to be executed */
-    private ThreadPool executor;
-    /** List of depended tasks */
-    private List<FreeFuture<?>> applicableTasks;
+    private final Supplier<R> action;
+    /** Thread pool in which all tasks are to be executed, null if dependent functions are always run inline */
+    private final ThreadPool executor;
+    /** The form in which the task is submitted to the pool, null until it is submitted */
+    private volatile ThreadPool.ThreadTask<R> threadTask;
 
     /**
      * Creates and submits tasks with the action to execute in the executor thread pool
@@ -37,6 +65,22 @@ public class FreeFuture<R> implements LightFuture<R> {
         return task;
     }
 
+    /**
+     * Creates and submits tasks of the tenant with the priority,
+     * see {@link ThreadPool#submitTask(ThreadPool.ThreadTask, Tenant, int)}
+     * @param action the action which is task main essence
+     * @param executor the executor in which the task is to be executed
+     * @param <R> the result type of the task
+     * @return the task object
+     */
+    public static <R> FreeFuture<R> createTask(Supplier<R> action, ThreadPool executor, Tenant tenant, int priority) {
+        var task = new FreeFuture<R>(action, executor);
+        task.submitted = true;
+        task.threadTask = new ThreadPool.ThreadTask<>(action, task);
+        executor.submitTask(task.threadTask, tenant, priority);
+        return task;
+    }
+
     /**
      * Creates not submitted tasks with the action to execute in the executor thread pool
      * @param action the action which is task main essence
@@ -48,15 +92,74 @@ public class FreeFuture<R> implements LightFuture<R> {
         return new FreeFuture<>(action, executor);
     }
 
+    /**
+     * Creates and submits tasks which fail with {@link TimeoutException} unless they are started within the timeout
+     * @param action the action which is task main essence
+     * @param executor the executor in which the task is to be executed
+     * @param timeout the time from now during which the task may be started
+     * @param unit the unit of the timeout
+     * @param <R> the result type of the task
+     * @return the task object
+     */
+    public static <R> FreeFuture<R> createTaskWithDeadline(Supplier<R> action, ThreadPool executor,
+                                                           long timeout, TimeUnit unit) {
+        var task = new FreeFuture<R>(action, executor);
+        task.submitted = true;
+        task.threadTask = new ThreadPool.ThreadTask<>(action, task, timeout, unit);
+        executor.submitTask(task.threadTask);
+        return task;
+    }
+
+    /**
+     * Creates tasks which are submitted once the delay passes
+     * @param action the action which is task main essence
+     * @param executor the executor in which the task is to be executed
+     * @param delay the time from now after which the task is to be submitted
+     * @param unit the unit of the delay
+     * @param <R> the result type of the task
+     * @return the task object
+     */
+    public static <R> FreeFuture<R> createScheduledTask(Supplier<R> action, ThreadPool executor,
+                                                        long delay, TimeUnit unit) {
+        var task = new FreeFuture<R>(action, executor);
+        task.submitted = true;
+        task.threadTask = new ThreadPool.ThreadTask<>(action, task);
+        executor.schedule(task.threadTask, delay, unit);
+        return task;
+    }
+
+    /**
+     * Creates tasks which perform the action once the initial delay passes and then every period.
+     * The task is decided only by failure of the action, cancellation or shutdown of the pool
+     * @param action the action which is to be performed periodically
+     * @param executor the executor in which the task is to be executed
+     * @param initialDelay the time from now after which the action is to be performed for the first time
+     * @param period the time between starts of the action
+     * @param unit the unit of the delay and the period
+     * @return the task object
+     */
+    public static FreeFuture<Void> createPeriodicTask(Runnable action, ThreadPool executor,
+                                                      long initialDelay, long period, TimeUnit unit) {
+        Supplier<Void> supplier = () -> {
+            action.run();
+            return null;
+        };
+        var task = new FreeFuture<>(supplier, executor);
+        task.submitted = true;
+        task.threadTask = new ThreadPool.ThreadTask<>(supplier, task);
+        executor.scheduleAtFixedRate(task.threadTask, initialDelay, period, unit);
+        return task;
+    }
+
     /**
      * Submits the task to executor thread pool
      * @throws IllegalStateException the IllegalStateException is to be thrown when trying to submit once more after submission
      */
-    public synchronized void submit() {
-        if (status != TaskStatus.NOT_STARTED)
+    public void submit() {
+        if (!SUBMITTED.compareAndSet(this, false, true))
             throw new IllegalStateException("Task has already been submitted");
-        status = TaskStatus.SUBMITTED;
-        executor.submitTask(new ThreadPool.ThreadTask<>(action, this));
+        threadTask = new ThreadPool.ThreadTask<>(action, this);
+        executor.submitTask(threadTask);
     }
 
     /**
@@ -65,113 +168,444 @@ public class FreeFuture<R> implements LightFuture<R> {
      * @param executor the thread pool in which supplier is to be executed
      */
     private FreeFuture(Supplier<R> action, ThreadPool executor) {
-        status = TaskStatus.NOT_STARTED;
         this.action = action;
         this.executor = executor;
-        applicableTasks = new ArrayList<>();
+    }
+
+    /** Creates the task which has no action of its own and is decided by other tasks */
+    private static <R> FreeFuture<R> createDependentTask(ThreadPool executor) {
+        var task = new FreeFuture<R>(null, executor);
+        task.submitted = true;
+        return task;
     }
 
     @Override
-    public synchronized boolean isReady() {
-        switch (status) {
-            case NOT_STARTED:
-            case SUBMITTED:
-                return false;
-            default:
-                return true;
+    public boolean isReady() {
+        return state instanceof Outcome;
+    }
+
+    /** The outcome of the task, which is to be called only after the result is decided */
+    private Outcome outcome() {
+        return (Outcome) state;
+    }
+
+    @Override
+    public R get() throws LightExecutionException, InterruptedException {
+        var current = state;
+        if (current instanceof Outcome) {
+            return report((Outcome) current);
+        }
+        var node = new Node(Thread.currentThread(), null);
+        while (!(current instanceof Outcome) && !push(node, current)) {
+            current = state;
+        }
+        while (!((current = state) instanceof Outcome)) {
+            LockSupport.park(this);
+            if (Thread.interrupted()) {
+                leave(node);
+                throw new InterruptedException();
+            }
         }
+        return report((Outcome) current);
     }
 
     @Override
-    public synchronized R get() throws LightExecutionException, InterruptedException {
-        while (status == TaskStatus.SUBMITTED || status == TaskStatus.NOT_STARTED) {
-            this.wait();
+    public R get(long timeout, TimeUnit unit) throws LightExecutionException, InterruptedException, TimeoutException {
+        var current = state;
+        if (current instanceof Outcome) {
+            return report((Outcome) current);
+        }
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        var node = new Node(Thread.currentThread(), null);
+        while (!(current instanceof Outcome) && !push(node, current)) {
+            current = state;
+        }
+        while (!((current = state) instanceof Outcome)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                leave(node);
+                throw new TimeoutException("The result was not decided within the timeout");
+            }
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) {
+                leave(node);
+                throw new InterruptedException();
+            }
         }
+        return report((Outcome) current);
+    }
+
+    /**
+     * Marks the node of the thread which stops waiting and unlinks all such nodes, as FutureTask does:
+     * the ones on the top are popped by CAS, the inner ones are skipped by their live predecessors.
+     * If the predecessor stops waiting meanwhile the stack is traversed again, so polling threads
+     * do not pile up nodes under the ones which are still waiting
+     */
+    private void leave(Node node) {
+        node.waiter = null;
+        retry:
+        while (true) {
+            var current = state;
+            if (!(current instanceof Node)) {
+                return;
+            }
+            Node predecessor = null;
+            for (var inner = (Node) current; inner != null; ) {
+                var next = inner.next;
+                if (inner.waiter != null || inner.callback != null) {
+                    predecessor = inner;
+                } else if (predecessor != null) {
+                    predecessor.next = next;
+                    if (predecessor.waiter == null && predecessor.callback == null) {
+                        continue retry;
+                    }
+                } else if (!STATE.compareAndSet(this, inner, next)) {
+                    continue retry;
+                }
+                inner = next;
+            }
+            return;
+        }
+    }
 
-        if (status == TaskStatus.FAILED) {
+    /** @return number of nodes in the stack, 0 if the result is decided */
+    int getStackSize() {
+        int res = 0;
+        var current = state;
+        for (var node = current instanceof Node ? (Node) current : null; node != null; node = node.next) {
+            res++;
+        }
+        return res;
+    }
+
+    /** Returns the result of the decided task or throws what it was decided with */
+    @SuppressWarnings("unchecked")
+    private R report(Outcome outcome) throws LightExecutionException, InterruptedException {
+        if (outcome.status == TaskStatus.FAILED) {
             var resultException = new LightExecutionException();
-            resultException.addSuppressed(thrownException);
+            resultException.addSuppressed(outcome.thrownException);
             throw resultException;
         }
 
-        if (status == TaskStatus.INTERRUPTED) {
+        if (outcome.status == TaskStatus.INTERRUPTED) {
             throw new InterruptedException("The thread performing the task was interrupted");
         }
 
-        return result;
+        if (outcome.status == TaskStatus.CANCELLED) {
+            throw new CancellationException("The task was cancelled");
+        }
+
+        return (R) outcome.result;
     }
 
     /**
-     * Puts function form task as dependency to the list of dependencies. It will be started after this task
+     * Pushes the node onto the stack unless the result is decided
+     * @param current the state the node is to be pushed onto
+     * @return true if the node is pushed, false if the state has changed since it was read
+     */
+    private boolean push(Node node, Object current) {
+        node.next = (Node) current;
+        return STATE.compareAndSet(this, current, node);
+    }
+
+    /** Runs the callback once the result is decided, at once if it is decided already */
+    private void whenReady(Runnable callback) {
+        var current = state;
+        if (!(current instanceof Outcome)) {
+            var node = new Node(null, callback);
+            while (!(current instanceof Outcome)) {
+                if (push(node, current)) {
+                    return;
+                }
+                current = state;
+            }
+        }
+        runCallback(callback);
+    }
+
+    /**
+     * Runs the callback in the current thread. Callbacks started by callbacks are queued and run
+     * one after another, so long chains of dependent tasks do not grow the stack
+     */
+    private static void runCallback(Runnable callback) {
+        var pending = pendingCallbacks.get();
+        if (pending != null) {
+            pending.addLast(callback);
+            return;
+        }
+        pending = new ArrayDeque<>();
+        pendingCallbacks.set(pending);
+        try {
+            for (var current = callback; current != null; current = pending.pollFirst()) {
+                current.run();
+            }
+        } finally {
+            pendingCallbacks.remove();
+        }
+    }
+
+    /**
+     * Decides the result of the task unless it is decided already, wakes up the waiters and runs the callbacks
+     * @return true if the result is decided by this call
+     */
+    private boolean decide(Outcome outcome) {
+        Object current;
+        do {
+            current = state;
+            if (current instanceof Outcome) {
+                return false;
+            }
+        } while (!STATE.compareAndSet(this, current, outcome));
+
+        // links of the stack are not changed here, threads which stop waiting may still be unlinking their nodes
+        ArrayList<Runnable> callbacks = null;
+        for (var node = (Node) current; node != null; node = node.next) {
+            var waiter = node.waiter;
+            if (node.callback != null) {
+                if (callbacks == null) {
+                    callbacks = new ArrayList<>();
+                }
+                callbacks.add(node.callback);
+            } else if (waiter != null) {
+                LockSupport.unpark(waiter);
+            }
+        }
+        if (callbacks != null) {
+            for (int i = callbacks.size() - 1; i >= 0; i--) {
+                runCallback(callbacks.get(i));
+            }
+        }
+        return true;
+    }
+
+    /** Decides the task the same way as the decided source one */
+    private static void propagate(FreeFuture<?> source, FreeFuture<?> task) {
+        task.decide(source.outcome());
+    }
+
+    /** Performs the action for the dependent task inline or in the pool, depending on the continuation */
+    private <S> void perform(Supplier<S> action, FreeFuture<S> task, Continuation continuation) {
+        if (continuation == Continuation.RESUBMIT && executor != null) {
+            try {
+                task.threadTask = new ThreadPool.ThreadTask<>(action, task);
+                executor.submitTask(task.threadTask);
+            } catch (IllegalStateException e) {
+                task.interrupt();
+            } catch (RejectedExecutionException e) {
+                task.cancel(false);
+            }
+            return;
+        }
+        try {
+            task.finish(action.get());
+        } catch (Throwable e) {
+            task.fail(e);
+        }
+    }
+
+    /**
+     * Constructs dependent task applying the function to the result of this task, which is submitted to the pool
+     * as a separate task once the result is decided
+     */
+    @Override
+    public <S> FreeFuture<S> thenApply(Function<? super R, S> function) throws IllegalStateException {
+        return thenApply(function, Continuation.RESUBMIT);
+    }
+
+    /**
+     * Constructs dependent task applying the function to the result of this task. No thread waits for the result,
+     * the function is started by the thread deciding it. Failure and interruption are passed to the dependent task
      * @param function the function to apply
+     * @param continuation whether the function is applied inline or submitted to the pool
      * @param <S> the result type of the function
-     * @return New task corresponding to the function
+     * @return new task performing the function application to the result of current task
      */
-    private <S> FreeFuture<S> setUpApplicableTask(Function<? super R, S> function) {
-        return createDelayedTask(() -> {
-            R dependency;
-            try {
-                dependency = this.get();
+    @SuppressWarnings("unchecked")
+    public <S> FreeFuture<S> thenApply(Function<? super R, S> function, Continuation continuation) {
+        FreeFuture<S> task = createDependentTask(executor);
+        whenReady(() -> {
+            var outcome = outcome();
+            if (outcome.status == TaskStatus.DONE) {
+                perform(() -> function.apply((R) outcome.result), task, continuation);
+            } else {
+                task.decide(outcome);
             }
-            catch (LightExecutionException | InterruptedException e) {
-                throw new IllegalStateException("Dependency computation was not finished successfully");
+        });
+        return task;
+    }
+
+    /**
+     * Constructs dependent task which is decided the same way as the task produced by the function
+     * applied to the result of this task
+     * @param function the function producing the task
+     * @param continuation whether the function is applied inline or submitted to the pool
+     * @param <S> the result type of the produced task
+     * @return new task decided by the produced one
+     */
+    public <S> FreeFuture<S> thenCompose(Function<? super R, FreeFuture<S>> function, Continuation continuation) {
+        FreeFuture<S> task = createDependentTask(executor);
+        var produced = thenApply(function, continuation);
+        produced.whenReady(() -> {
+            var outcome = produced.outcome();
+            if (outcome.status != TaskStatus.DONE) {
+                task.decide(outcome);
+            } else if (outcome.result == null) {
+                task.fail(new NullPointerException("The function produced no task"));
+            } else {
+                var inner = (FreeFuture<?>) outcome.result;
+                inner.whenReady(() -> propagate(inner, task));
             }
+        });
+        return task;
+    }
 
-            return function.apply(dependency);
-        }, executor);
+    /**
+     * Constructs dependent task applying the function to the results of this and the other task.
+     * It fails or is interrupted as soon as one of them does
+     * @param other the other task
+     * @param function the function to apply
+     * @param continuation whether the function is applied inline or submitted to the pool
+     * @param <U> the result type of the other task
+     * @param <S> the result type of the function
+     * @return new task performing the function application
+     */
+    @SuppressWarnings("unchecked")
+    public <U, S> FreeFuture<S> thenCombine(FreeFuture<U> other, BiFunction<? super R, ? super U, S> function,
+                                            Continuation continuation) {
+        FreeFuture<S> task = createDependentTask(executor);
+        var remaining = new AtomicInteger(2);
+        whenReady(() -> {
+            if (outcome().status != TaskStatus.DONE) {
+                propagate(this, task);
+            } else if (remaining.decrementAndGet() == 0) {
+                perform(() -> function.apply((R) outcome().result, (U) other.outcome().result), task, continuation);
+            }
+        });
+        other.whenReady(() -> {
+            if (other.outcome().status != TaskStatus.DONE) {
+                propagate(other, task);
+            } else if (remaining.decrementAndGet() == 0) {
+                perform(() -> function.apply((R) outcome().result, (U) other.outcome().result), task, continuation);
+            }
+        });
+        return task;
     }
 
-    @Override
-    public synchronized <S> FreeFuture<S> thenApply(Function<? super R, S> function) throws IllegalStateException {
-        var task = setUpApplicableTask(function);
-        if (status == TaskStatus.DONE) {
-            task.submit();
+    /**
+     * Constructs the task which is done when all the tasks are done.
+     * It fails or is interrupted as soon as one of them does
+     * @param tasks the tasks to wait for
+     * @return new task with null result
+     */
+    public static FreeFuture<Void> allOf(FreeFuture<?>... tasks) {
+        FreeFuture<Void> task = createDependentTask(tasks.length > 0 ? tasks[0].executor : null);
+        var remaining = new AtomicInteger(tasks.length);
+        for (var source : tasks) {
+            source.whenReady(() -> {
+                if (source.outcome().status != TaskStatus.DONE) {
+                    propagate(source, task);
+                } else if (remaining.decrementAndGet() == 0) {
+                    task.finish(null);
+                }
+            });
         }
-        else {
-            applicableTasks.add(task);
+        if (tasks.length == 0) {
+            task.finish(null);
         }
+        return task;
+    }
 
+    /**
+     * Constructs the task which is decided the same way as the first decided of the tasks
+     * @param tasks the tasks to wait for
+     * @return new task with the result of the first decided one
+     */
+    public static FreeFuture<Object> anyOf(FreeFuture<?>... tasks) {
+        FreeFuture<Object> task = createDependentTask(tasks.length > 0 ? tasks[0].executor : null);
+        for (var source : tasks) {
+            source.whenReady(() -> propagate(source, task));
+        }
         return task;
     }
 
+    /** Considers the task done with the result unless its result is decided already, then nothing happens */
     @Override
-    public synchronized void finish(R result) {
-        status = TaskStatus.DONE;
-        this.result = result;
-        this.notifyAll();
-        for (var task : applicableTasks) {
-            task.submit();
-        }
+    public void finish(R result) {
+        decide(new Outcome(TaskStatus.DONE, result, null));
     }
 
+    /** Considers the task failed unless its result is decided already, then nothing happens */
     @Override
-    public synchronized void fail(Throwable thrownException) {
-        status = TaskStatus.FAILED;
-        this.thrownException = thrownException;
-        this.notifyAll();
-        for (var task : applicableTasks) {
-            task.fail(thrownException);
-        }
+    public void fail(Throwable thrownException) {
+        decide(new Outcome(TaskStatus.FAILED, null, thrownException));
     }
 
+    /** Considers the task interrupted unless its result is decided already, then nothing happens */
     @Override
-    public synchronized void interrupt() {
-        status = TaskStatus.INTERRUPTED;
-        this.notifyAll();
-        for (var task : applicableTasks) {
-            task.interrupt();
+    public void interrupt() {
+        decide(Outcome.INTERRUPTED);
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterrupt) {
+        if (!decide(Outcome.CANCELLED)) {
+            return false;
+        }
+        var submitted = threadTask;
+        if (mayInterrupt && submitted != null) {
+            submitted.interruptRunner();
         }
+        return true;
+    }
+
+    /**
+     * The way a dependent function is applied once the result it depends on is decided. Possible values:
+     * INLINE -- the function is applied by the thread which decided the result
+     * RESUBMIT -- the function is submitted to the pool as a separate task
+     */
+    public enum Continuation {
+        INLINE, RESUBMIT
     }
 
     /**
-     * Represents a status of the task. Possible values:
-     * NOT_STARTED -- when the task has not yet been submitted to thread pool
-     * SUBMITTED -- the task has been submitted, but decision about result has not been made
+     * Represents a decided status of the task. Possible values:
      * DONE -- the task successfully done with a result
      * FAILED -- the task failed with an exception
      * INTERRUPTED -- the task has been interrupted
+     * CANCELLED -- the task has been cancelled
      */
     private enum TaskStatus {
-        NOT_STARTED, SUBMITTED, DONE, FAILED, INTERRUPTED;
+        DONE, FAILED, INTERRUPTED, CANCELLED;
+    }
+
+    /** Decided result of the task, never changes */
+    private static final class Outcome {
+        private static final Outcome INTERRUPTED = new Outcome(TaskStatus.INTERRUPTED, null, null);
+        private static final Outcome CANCELLED = new Outcome(TaskStatus.CANCELLED, null, null);
+
+        private final TaskStatus status;
+        /** Task result */
+        private final Object result;
+        /** null if no exception was thrown during execution, otherwise it's one which was */
+        private final Throwable thrownException;
+
+        private Outcome(TaskStatus status, Object result, Throwable thrownException) {
+            this.status = status;
+            this.result = result;
+            this.thrownException = thrownException;
+        }
+    }
+
+    /** Element of the stack: either a thread waiting for the result or a callback */
+    private static final class Node {
+        /** The waiting thread, null if it is a callback or the thread has stopped waiting */
+        private volatile Thread waiter;
+        private final Runnable callback;
+        private volatile Node next;
+
+        private Node(Thread waiter, Runnable callback) {
+            this.waiter = waiter;
+            this.callback = callback;
+        }
     }
 }
@@ -1,5 +1,7 @@
 package fr.ladybug.team.lightfuture;
 
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 
 /**
@@ -23,6 +25,26 @@ public interface LightFuture<T> {
      */
     T get() throws LightExecutionException, InterruptedException;
 
+    /**
+     * Lock until the result of the task is decided, but no longer than the timeout
+     * @param timeout the maximal time to wait
+     * @param unit the unit of the timeout
+     * @return the result value in case of successful finish
+     * @throws LightExecutionException the LightExecutionException is thrown when there's some exception thrown
+     * in task's body, one is suppressed inside LightExecutionException
+     * @throws InterruptedException the InterruptedException is thrown when it's detected that executing thread was interrupted
+     * @throws TimeoutException the TimeoutException is thrown when the result is not decided within the timeout
+     */
+    T get(long timeout, TimeUnit unit) throws LightExecutionException, InterruptedException, TimeoutException;
+
+    /**
+     * Considers the task cancelled unless its result is decided already, then get throws
+     * {@link java.util.concurrent.CancellationException}. The task which is not started yet is never started
+     * @param mayInterrupt whether the thread performing the task is to be interrupted
+     * @return true if the task is cancelled by this call
+     */
+    boolean cancel(boolean mayInterrupt);
+
     /**
      * Constructs dependent tasks performing a function application to the result of current task
      * @param function the function to apply
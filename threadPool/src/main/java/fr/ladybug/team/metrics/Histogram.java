@@ -0,0 +1,106 @@
+package fr.ladybug.team.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of non-negative values with bounded relative error, in the manner of HdrHistogram.
+ * Values below 256 are counted exactly, larger ones fall into buckets splitting every power of two into 128 parts,
+ * so a value is reported with error below 1%. Values above 2^40 are counted as 2^40.
+ * Recording is one atomic increment and may be done by many threads at once
+ */
+public class Histogram {
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAXIMAL_BITS = 40;
+    private static final long MAXIMAL_VALUE = (1L << MAXIMAL_BITS) - 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(index(MAXIMAL_VALUE) + 1);
+    private final AtomicLong max = new AtomicLong();
+
+    /** Number of the bucket the value falls into */
+    private static int index(long value) {
+        if (value < 2 * SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift << SUB_BITS) + (int) (value >>> shift);
+    }
+
+    /** The largest value which falls into the bucket */
+    private static long highestValue(int index) {
+        if (index < 2 * SUB_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_COUNT) >>> SUB_BITS;
+        long sub = index - ((long) shift << SUB_BITS);
+        return ((sub + 1) << shift) - 1;
+    }
+
+    /** The smallest value which falls into the bucket */
+    private static long lowestValue(int index) {
+        return index == 0 ? 0 : highestValue(index - 1) + 1;
+    }
+
+    /**
+     * Counts the value
+     * @param value the value, negative ones are counted as 0
+     */
+    public void record(long value) {
+        value = Math.min(Math.max(value, 0), MAXIMAL_VALUE);
+        counts.incrementAndGet(index(value));
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /** Number of recorded values */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /** The largest recorded value, 0 if there are none */
+    public long getMax() {
+        return max.get();
+    }
+
+    /** Mean of recorded values computed by the middles of the buckets, 0 if there are none */
+    public double getMean() {
+        long count = 0;
+        double sum = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            long bucketCount = counts.get(i);
+            count += bucketCount;
+            sum += bucketCount * ((lowestValue(i) + highestValue(i)) / 2.0);
+        }
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Value which the percentage of recorded values does not exceed
+     * @param percentile the percentage from 0 to 100
+     * @return the largest value of the bucket the percentile falls into, 0 if there are no values
+     */
+    public long getValueAtPercentile(double percentile) {
+        long count = getCount();
+        long rank = Math.max(1, (long) Math.ceil(count * Math.min(percentile, 100) / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestValue(i), getMax());
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count %d, mean %.0f, 50%% %d, 99%% %d, 99.9%% %d, max %d", getCount(), getMean(),
+                getValueAtPercentile(50), getValueAtPercentile(99), getValueAtPercentile(99.9), getMax());
+    }
+}
@@ -0,0 +1,104 @@
+package fr.ladybug.team.metrics;
+
+import fr.ladybug.team.ThreadPool;
+import fr.ladybug.team.ThreadPool.ThreadTask;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the pool: histograms of time tasks wait in the queue and are performed in nanoseconds,
+ * counts of tasks by their fate, and sizes of the pool at the moment. Created by {@link ThreadPool#enableMetrics()}.
+ * Counts cover all tasks, while histograms cover only timed ones. Counts of performed tasks are kept by the pool itself,
+ * so tasks which neither fail nor are interrupted cost no shared write
+ */
+public class PoolMetrics implements TaskListener {
+    private final ThreadPool pool;
+    private final Histogram waitTimes = new Histogram();
+    private final Histogram runTimes = new Histogram();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder interruptedCount = new LongAdder();
+
+    /** Constructs empty metrics of the pool, which are to be set as its listener */
+    public PoolMetrics(ThreadPool pool) {
+        this.pool = pool;
+    }
+
+    /** Does nothing, submitted tasks are either started, interrupted or waiting in the queue */
+    @Override
+    public void onSubmit(ThreadTask<?> task) {
+    }
+
+    @Override
+    public void onStart(ThreadTask<?> task, long waitNanos) {
+        if (waitNanos >= 0) {
+            waitTimes.record(waitNanos);
+        }
+    }
+
+    @Override
+    public void onFinish(ThreadTask<?> task, long runNanos, Throwable failure) {
+        if (runNanos >= 0) {
+            runTimes.record(runNanos);
+        }
+        if (failure != null) {
+            failedCount.increment();
+        }
+    }
+
+    @Override
+    public void onInterrupt(ThreadTask<?> task) {
+        interruptedCount.increment();
+    }
+
+    /** Time from submission to start of tasks in nanoseconds */
+    public Histogram getWaitTimes() {
+        return waitTimes;
+    }
+
+    /** Time from start to finish of tasks in nanoseconds */
+    public Histogram getRunTimes() {
+        return runTimes;
+    }
+
+    /** Number of tasks performed by the pool since it was constructed, not only since metrics are enabled */
+    public long getFinishedCount() {
+        return pool.getCompletedTaskCount();
+    }
+
+    public long getFailedCount() {
+        return failedCount.sum();
+    }
+
+    public long getInterruptedCount() {
+        return interruptedCount.sum();
+    }
+
+    /** Number of threads performing tasks now */
+    public long getActiveCount() {
+        return pool.getActiveCount();
+    }
+
+    /** Number of threads of the pool without a task now */
+    public long getIdleCount() {
+        return Math.max(0, pool.getThreadCount() - getActiveCount());
+    }
+
+    /** Number of tasks waiting in the queue now */
+    public int getQueueSize() {
+        return pool.getQueueSize();
+    }
+
+    /** Number of tasks taken by threads from the deques of the other ones */
+    public long getStealCount() {
+        return pool.getStealCount();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("finished %d, failed %d, interrupted %d%n"
+                        + "threads: active %d, idle %d; queue %d, steals %d%n"
+                        + "wait ns: %s%nrun ns:  %s",
+                getFinishedCount(), getFailedCount(), getInterruptedCount(),
+                getActiveCount(), getIdleCount(), getQueueSize(), getStealCount(), waitTimes, runTimes);
+    }
+}
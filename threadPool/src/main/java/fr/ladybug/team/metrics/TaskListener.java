@@ -0,0 +1,29 @@
+package fr.ladybug.team.metrics;
+
+import fr.ladybug.team.ThreadPool;
+import fr.ladybug.team.ThreadPool.ThreadTask;
+
+/**
+ * Hooks called by {@link ThreadPool} during the life of every task. They are called by the threads
+ * submitting and performing tasks, so they are to be thread-safe and cheap
+ */
+public interface TaskListener {
+    /** The task is submitted to the pool */
+    void onSubmit(ThreadTask<?> task);
+
+    /**
+     * The task is started by a thread
+     * @param waitNanos time since the submission, -1 if the task is not timed
+     */
+    void onStart(ThreadTask<?> task, long waitNanos);
+
+    /**
+     * The started task is finished
+     * @param runNanos time since the start, -1 if the task is not timed
+     * @param failure the exception the task failed with, null if it is done or interrupted by shutdown
+     */
+    void onFinish(ThreadTask<?> task, long runNanos, Throwable failure);
+
+    /** The task is interrupted by shutdown of the pool, either while it waits or while it is performed */
+    void onInterrupt(ThreadTask<?> task);
+}
@@ -0,0 +1,100 @@
+package fr.ladybug.team;
+
+import fr.ladybug.team.ThreadPool.ThreadTask;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FairTaskQueueTest {
+
+    private ThreadTask<Integer> task(Tenant tenant, int priority) {
+        var task = new ThreadTask<Integer>(() -> priority, null);
+        task.tenant = tenant;
+        task.priority = priority;
+        return task;
+    }
+
+    @Test
+    void testTenantOrderIsFifo() throws InterruptedException {
+        var queue = new FairTaskQueue();
+        var tasks = new ThreadTask<?>[10];
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i] = task(Tenant.DEFAULT, ThreadPool.NORM_PRIORITY);
+            queue.add(tasks[i], -1);
+        }
+        assertEquals(10, queue.size());
+        for (var task : tasks) {
+            assertSame(task, queue.take(0));
+        }
+    }
+
+    @Test
+    void testTenantsShareByWeights() throws InterruptedException {
+        var queue = new FairTaskQueue();
+        var heavy = new Tenant("heavy", 3);
+        var light = new Tenant("light", 1);
+        var idle = new Tenant("idle", 1);
+        for (int i = 0; i < 1000; i++) {
+            queue.add(task(light, ThreadPool.NORM_PRIORITY), -1);
+        }
+        for (int i = 0; i < 1000; i++) {
+            queue.add(task(heavy, ThreadPool.NORM_PRIORITY), -1);
+        }
+
+        var counts = new HashMap<Tenant, Integer>();
+        for (int i = 0; i < 400; i++) {
+            counts.merge(queue.take(0).tenant, 1, Integer::sum);
+        }
+        assertEquals(300, counts.get(heavy), 2);
+        assertEquals(100, counts.get(light), 2);
+
+        // a tenant coming after a long idle time gets its share at once, but not more
+        for (int i = 0; i < 100; i++) {
+            queue.add(task(idle, ThreadPool.NORM_PRIORITY), -1);
+        }
+        counts.clear();
+        for (int i = 0; i < 500; i++) {
+            counts.merge(queue.take(0).tenant, 1, Integer::sum);
+        }
+        assertEquals(300, counts.get(heavy), 2);
+        assertEquals(100, counts.get(light), 2);
+        assertEquals(100, counts.get(idle), 2);
+    }
+
+    @Test
+    void testHigherPriorityFirstWithoutStarvation() throws InterruptedException {
+        var queue = new FairTaskQueue();
+        for (int i = 0; i < 10; i++) {
+            queue.add(task(Tenant.DEFAULT, ThreadPool.MIN_PRIORITY), -1);
+        }
+        for (int i = 0; i < 1000; i++) {
+            queue.add(task(Tenant.DEFAULT, ThreadPool.MAX_PRIORITY), -1);
+        }
+        int low = 0;
+        for (int i = 0; i < 320; i++) {
+            if (queue.take(0).priority == ThreadPool.MIN_PRIORITY) {
+                low++;
+            }
+        }
+        assertEquals(10, low);
+
+        queue.add(task(Tenant.DEFAULT, ThreadPool.NORM_PRIORITY), -1);
+        assertEquals(ThreadPool.MAX_PRIORITY, queue.take(0).priority);
+    }
+
+    @Test
+    void testFinishAndClose() throws InterruptedException {
+        var queue = new FairTaskQueue();
+        queue.add(task(Tenant.DEFAULT, ThreadPool.NORM_PRIORITY), -1);
+        queue.finish();
+        assertNotNull(queue.take(0));
+        assertNull(queue.take(0));
+        queue.add(task(Tenant.DEFAULT, ThreadPool.MAX_PRIORITY), -1);
+        queue.close();
+        assertThrows(IllegalStateException.class, () -> queue.add(task(Tenant.DEFAULT, ThreadPool.NORM_PRIORITY), -1));
+        assertEquals(1, queue.drain().size());
+        assertEquals(0, queue.size());
+    }
+}
@@ -6,6 +6,14 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -134,4 +142,836 @@ class TPMainTest {
         }, pool).get());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testManyTasksWithEveryScheduling() throws LightExecutionException, InterruptedException {
+        for (var scheduling : ThreadPool.Scheduling.values()) {
+            var pool = new ThreadPool(4, scheduling);
+            var tasks = new ArrayList<FreeFuture<Integer>>();
+            for (int i = 0; i < 10000; i++) {
+                int finalI = i;
+                tasks.add(FreeFuture.createTask(() -> finalI, pool));
+            }
+            long sum = 0;
+            for (var task : tasks) {
+                sum += task.get();
+            }
+            assertEquals(9999L * 10000 / 2, sum);
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testTasksSubmittedFromWorkers() throws LightExecutionException, InterruptedException {
+        for (var scheduling : ThreadPool.Scheduling.values()) {
+            var pool = new ThreadPool(3, scheduling);
+            var children = new ConcurrentLinkedQueue<FreeFuture<Integer>>();
+            var parents = new ArrayList<FreeFuture<Integer>>();
+            for (int i = 0; i < 100; i++) {
+                parents.add(FreeFuture.createTask(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        children.add(FreeFuture.createTask(() -> 1, pool));
+                    }
+                    return 0;
+                }, pool));
+            }
+            for (var task : parents) {
+                task.get();
+            }
+            int sum = 0;
+            for (var task : children) {
+                sum += task.get();
+            }
+            assertEquals(10000, sum);
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testFailedTaskDoesNotStopThread() throws LightExecutionException, InterruptedException {
+        for (var scheduling : ThreadPool.Scheduling.values()) {
+            var pool = new ThreadPool(1, scheduling);
+            var failed = FreeFuture.createTask(() -> {
+                throw new RuntimeException("Oops!");
+            }, pool);
+            assertThrows(LightExecutionException.class, failed::get);
+            assertEquals("A", FreeFuture.createTask(() -> "A", pool).get());
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testShutdownInterruptsWaitingTasks() throws InterruptedException {
+        for (var scheduling : ThreadPool.Scheduling.values()) {
+            var pool = new ThreadPool(1, scheduling);
+            var started = new AtomicInteger();
+            FreeFuture.createTask(() -> {
+                started.incrementAndGet();
+                while (!Thread.currentThread().isInterrupted()) {
+                    ;
+                }
+                return "";
+            }, pool);
+            var waiting = FreeFuture.createTask(() -> "A", pool);
+            while (started.get() == 0) {
+                Thread.sleep(10);
+            }
+            pool.shutdown();
+            assertThrows(InterruptedException.class, waiting::get);
+            assertThrows(IllegalStateException.class, () -> FreeFuture.createTask(() -> 1, pool));
+        }
+    }
+
+    /** Submitters pausing from time to time make the threads of the pool fall asleep and wake up again */
+    @Test
+    void testConcurrentSubmitters() throws InterruptedException {
+        for (var scheduling : ThreadPool.Scheduling.values()) {
+            var pool = new ThreadPool(4, scheduling);
+            var tasks = new ConcurrentLinkedQueue<FreeFuture<Integer>>();
+            var submitters = new ArrayList<Thread>();
+            for (int i = 0; i < 4; i++) {
+                submitters.add(new Thread(() -> {
+                    for (int j = 0; j < 2000; j++) {
+                        tasks.add(FreeFuture.createTask(() -> 1, pool));
+                        if (j % 500 == 0) {
+                            try {
+                                Thread.sleep(5);
+                            } catch (InterruptedException e) {
+                                return;
+                            }
+                        }
+                    }
+                }));
+                submitters.get(i).start();
+            }
+            for (var submitter : submitters) {
+                submitter.join();
+            }
+            assertEquals(8000, tasks.size());
+            assertAll(tasks.stream().map(task -> () -> assertEquals(1, (int) task.get())));
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testVirtualThreadPerTask() throws LightExecutionException, InterruptedException {
+        var pool = ThreadPool.createVirtual();
+        if (Runtime.version().feature() < 21) {
+            assertEquals(ThreadPool.PLATFORM_FALLBACK_SIZE, pool.getMaxSize());
+        }
+        var tasks = new ArrayList<FreeFuture<Integer>>();
+        long start = System.nanoTime();
+        for (int i = 0; i < 1000; i++) {
+            int finalI = i;
+            tasks.add(FreeFuture.createTask(() -> {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return finalI;
+            }, pool));
+        }
+        var dependent = tasks.get(42).thenApply(result -> result + 1);
+        long sum = 0;
+        for (var task : tasks) {
+            sum += task.get();
+        }
+        assertEquals(999L * 1000 / 2, sum);
+        assertEquals(43, (int) dependent.get());
+        assertTrue(System.nanoTime() - start < 20_000_000_000L, "Blocking tasks did not run concurrently");
+
+        var failed = FreeFuture.createTask(() -> {
+            throw new RuntimeException("Oops!");
+        }, pool);
+        assertThrows(LightExecutionException.class, failed::get);
+        assertThrows(LightExecutionException.class, () -> failed.thenApply(result -> result).get());
+        pool.shutdown();
+    }
+
+    @Test
+    void testVirtualThreadPerTaskShutdown() throws InterruptedException {
+        var pool = ThreadPool.createVirtual();
+        var blocked = FreeFuture.createTask(() -> {
+            try {
+                Thread.sleep(100_000);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return 1;
+        }, pool);
+        Thread.sleep(100);
+        pool.shutdown();
+        assertThrows(InterruptedException.class, blocked::get);
+        assertThrows(IllegalStateException.class, () -> FreeFuture.createTask(() -> 1, pool));
+    }
+
+    @Test
+    void testDeepChainWithEveryContinuation() throws LightExecutionException, InterruptedException {
+        for (var continuation : FreeFuture.Continuation.values()) {
+            var pool = new ThreadPool(2);
+            var first = FreeFuture.createDelayedTask(() -> 0, pool);
+            var task = first;
+            for (int i = 0; i < 100_000; i++) {
+                task = task.thenApply(j -> j + 1, continuation);
+            }
+            first.submit();
+            assertEquals(100_000, (int) task.get());
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testChainOfDoneTask() throws LightExecutionException, InterruptedException {
+        var pool = new ThreadPool(1);
+        var task = FreeFuture.createTask(() -> 1, pool);
+        task.get();
+        assertEquals(2, (int) task.thenApply(j -> j + 1, FreeFuture.Continuation.INLINE).get());
+        assertEquals(3, (int) task.thenApply(j -> j + 2).get());
+        pool.shutdown();
+    }
+
+    @Test
+    void testFailurePassedThroughChain() throws InterruptedException {
+        var pool = new ThreadPool(2);
+        var failed = FreeFuture.createDelayedTask(() -> {
+            throw new RuntimeException("Oops!");
+        }, pool);
+        var dependent = failed.thenApply(j -> j, FreeFuture.Continuation.INLINE)
+                .thenApply(j -> j)
+                .thenCompose(j -> FreeFuture.createTask(() -> j, pool), FreeFuture.Continuation.INLINE);
+        failed.submit();
+        var exception = assertThrows(LightExecutionException.class, dependent::get);
+        assertEquals("Oops!", exception.getSuppressed()[0].getMessage());
+
+        var thrown = FreeFuture.createTask(() -> 1, pool).thenApply(j -> {
+            throw new IllegalStateException("Oops!");
+        }, FreeFuture.Continuation.INLINE);
+        assertThrows(LightExecutionException.class, thrown::get);
+        pool.shutdown();
+    }
+
+    @Test
+    void testThenCompose() throws LightExecutionException, InterruptedException {
+        var pool = new ThreadPool(2);
+        for (var continuation : FreeFuture.Continuation.values()) {
+            var task = FreeFuture.createTask(() -> 20, pool)
+                    .thenCompose(j -> FreeFuture.createTask(() -> j + 22, pool), continuation);
+            assertEquals(42, (int) task.get());
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    void testThenCombine() throws LightExecutionException, InterruptedException {
+        var pool = new ThreadPool(2);
+        for (var continuation : FreeFuture.Continuation.values()) {
+            var left = FreeFuture.createTask(() -> "A", pool);
+            var right = FreeFuture.createTask(() -> 1, pool);
+            assertEquals("A1", left.thenCombine(right, (a, b) -> a + b, continuation).get());
+        }
+
+        var blocked = FreeFuture.createDelayedTask(() -> 1, pool);
+        var failed = FreeFuture.createTask(() -> {
+            throw new RuntimeException("Oops!");
+        }, pool);
+        var combined = blocked.thenCombine(failed, (a, b) -> a, FreeFuture.Continuation.INLINE);
+        assertThrows(LightExecutionException.class, combined::get);
+        pool.shutdown();
+    }
+
+    @Test
+    void testAllOfAndAnyOf() throws LightExecutionException, InterruptedException {
+        var pool = new ThreadPool(3);
+        var counter = new AtomicInteger();
+        var tasks = new ArrayList<FreeFuture<Integer>>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(FreeFuture.createTask(counter::incrementAndGet, pool));
+        }
+        assertNull(FreeFuture.allOf(tasks.toArray(new FreeFuture<?>[0])).get());
+        assertEquals(100, counter.get());
+        assertNull(FreeFuture.allOf().get());
+
+        var never = FreeFuture.createDelayedTask(() -> "never", pool);
+        assertEquals("A", FreeFuture.anyOf(never, FreeFuture.createTask(() -> "A", pool)).get());
+        assertFalse(FreeFuture.allOf(never, tasks.get(0)).isReady());
+
+        var failed = FreeFuture.createTask(() -> {
+            throw new RuntimeException("Oops!");
+        }, pool);
+        assertThrows(LightExecutionException.class, () -> FreeFuture.allOf(never, failed).get());
+        pool.shutdown();
+    }
+
+    @Test
+    void testManyWaitersOfOneTask() throws InterruptedException {
+        var pool = new ThreadPool(1);
+        var task = FreeFuture.createDelayedTask(() -> 42, pool);
+        var results = new ConcurrentLinkedQueue<Integer>();
+        var waiters = new ArrayList<Thread>();
+        for (int i = 0; i < 16; i++) {
+            waiters.add(new Thread(() -> {
+                try {
+                    results.add(task.get());
+                } catch (LightExecutionException | InterruptedException e) {
+                    results.add(-1);
+                }
+            }));
+            waiters.get(i).start();
+        }
+        Thread.sleep(100);
+        assertFalse(task.isReady());
+        task.submit();
+        for (var waiter : waiters) {
+            waiter.join();
+        }
+        assertTrue(task.isReady());
+        assertEquals(16, results.size());
+        assertTrue(results.stream().allMatch(result -> result == 42));
+        pool.shutdown();
+    }
+
+    @Test
+    void testInterruptedWaiter() throws LightExecutionException, InterruptedException {
+        var pool = new ThreadPool(1);
+        var task = FreeFuture.createDelayedTask(() -> 42, pool);
+        var interrupted = new AtomicInteger();
+        var waiter = new Thread(() -> {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                interrupted.incrementAndGet();
+            } catch (LightExecutionException e) {
+                fail("Wrong throw");
+            }
+        });
+        waiter.start();
+        Thread.sleep(100);
+        waiter.interrupt();
+        waiter.join();
+        assertEquals(1, interrupted.get());
+        task.submit();
+        assertEquals(42, (int) task.get());
+        pool.shutdown();
+    }
+
+    @Test
+    void testTimedGet() throws LightExecutionException, InterruptedException, TimeoutException {
+        var pool = new ThreadPool(1);
+        var task = FreeFuture.createDelayedTask(() -> 42, pool);
+        long start = System.nanoTime();
+        assertThrows(TimeoutException.class, () -> task.get(50, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        task.submit();
+        assertEquals(42, (int) task.get(10, TimeUnit.SECONDS));
+        assertEquals(42, (int) task.get(0, TimeUnit.SECONDS));
+        pool.shutdown();
+    }
+
+    @Test
+    void testCancelNotStartedTask() throws LightExecutionException, InterruptedException {
+        var pool = new ThreadPool(1);
+        var started = new AtomicInteger();
+        var blocker = FreeFuture.createTask(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return 0;
+        }, pool);
+        var task = FreeFuture.createTask(started::incrementAndGet, pool);
+        var dependent = task.thenApply(j -> j + 1, FreeFuture.Continuation.INLINE);
+        assertTrue(task.cancel(false));
+        assertFalse(task.cancel(false));
+        assertTrue(task.isReady());
+        assertThrows(CancellationException.class, task::get);
+        assertThrows(CancellationException.class, dependent::get);
+        blocker.get();
+        assertEquals(1, (int) FreeFuture.createTask(() -> 1, pool).get());
+        assertEquals(0, started.get());
+        assertFalse(blocker.cancel(true));
+        pool.shutdown();
+    }
+
+    @Test
+    void testCancelRunningTask() throws LightExecutionException, InterruptedException {
+        for (var scheduling : ThreadPool.Scheduling.values()) {
+            var pool = new ThreadPool(1, scheduling);
+            var started = new AtomicInteger();
+            var task = FreeFuture.createTask(() -> {
+                started.incrementAndGet();
+                while (!Thread.currentThread().isInterrupted()) {
+                    ;
+                }
+                return 0;
+            }, pool);
+            while (started.get() == 0) {
+                Thread.sleep(10);
+            }
+            assertTrue(task.cancel(true));
+            assertThrows(CancellationException.class, task::get);
+            assertEquals("A", FreeFuture.createTask(() -> Thread.currentThread().isInterrupted() ? "" : "A", pool).get());
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testDeadline() throws LightExecutionException, InterruptedException {
+        var pool = new ThreadPool(1);
+        var blocker = FreeFuture.createTask(() -> {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return 0;
+        }, pool);
+        var late = FreeFuture.createTaskWithDeadline(() -> 1, pool, 50, TimeUnit.MILLISECONDS);
+        var inTime = FreeFuture.createTaskWithDeadline(() -> 2, pool, 10, TimeUnit.SECONDS);
+        var exception = assertThrows(LightExecutionException.class, late::get);
+        assertTrue(exception.getSuppressed()[0] instanceof TimeoutException);
+        assertEquals(2, (int) inTime.get());
+        blocker.get();
+        pool.shutdown();
+    }
+
+    @Test
+    void testScheduledTasks() throws LightExecutionException, InterruptedException {
+        for (var pool : new ThreadPool[] {new ThreadPool(2), ThreadPool.createVirtual()}) {
+            long start = System.nanoTime();
+            var later = FreeFuture.createScheduledTask(System::nanoTime, pool, 100, TimeUnit.MILLISECONDS);
+            var sooner = FreeFuture.createScheduledTask(System::nanoTime, pool, 20, TimeUnit.MILLISECONDS);
+            var now = FreeFuture.createScheduledTask(() -> 1L, pool, 0, TimeUnit.MILLISECONDS);
+            assertEquals(1L, (long) now.get());
+            assertTrue(later.get() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+            assertTrue(sooner.get() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+            assertTrue(sooner.get() < later.get());
+
+            var cancelled = FreeFuture.createScheduledTask(() -> 1, pool, 50, TimeUnit.MILLISECONDS);
+            assertTrue(cancelled.cancel(false));
+            assertThrows(CancellationException.class, cancelled::get);
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testManyScheduledTasks() throws LightExecutionException, InterruptedException {
+        var pool = new ThreadPool(2);
+        var random = new Random(42);
+        var tasks = new ArrayList<FreeFuture<Long>>();
+        var times = new ArrayList<Long>();
+        for (int i = 0; i < 10000; i++) {
+            long delay = random.nextInt(300);
+            long time = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+            times.add(time);
+            tasks.add(FreeFuture.createScheduledTask(System::nanoTime, pool, delay, TimeUnit.MILLISECONDS));
+        }
+        for (int i = 0; i < tasks.size(); i++) {
+            assertTrue(tasks.get(i).get() >= times.get(i), "The task started too early");
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    void testPeriodicTask() throws InterruptedException {
+        var pool = new ThreadPool(2);
+        var counter = new AtomicInteger();
+        var task = FreeFuture.createPeriodicTask(counter::incrementAndGet, pool, 0, 10, TimeUnit.MILLISECONDS);
+        Thread.sleep(300);
+        assertTrue(task.cancel(false));
+        int performed = counter.get();
+        assertTrue(performed >= 10 && performed <= 32, "Performed " + performed + " times");
+        Thread.sleep(100);
+        assertTrue(counter.get() <= performed + 1);
+
+        var failing = FreeFuture.createPeriodicTask(() -> {
+            if (counter.incrementAndGet() > performed + 5) {
+                throw new RuntimeException("Oops!");
+            }
+        }, pool, 0, 1, TimeUnit.MILLISECONDS);
+        assertThrows(LightExecutionException.class, failing::get);
+        assertThrows(IllegalArgumentException.class,
+                () -> FreeFuture.createPeriodicTask(() -> {}, pool, 0, 0, TimeUnit.MILLISECONDS));
+        pool.shutdown();
+    }
+
+    @Test
+    void testShutdownInterruptsScheduledTasks() throws InterruptedException {
+        var pool = new ThreadPool(1);
+        var scheduled = FreeFuture.createScheduledTask(() -> 1, pool, 1, TimeUnit.HOURS);
+        var periodic = FreeFuture.createPeriodicTask(() -> {}, pool, 0, 5, TimeUnit.MILLISECONDS);
+        Thread.sleep(50);
+        pool.shutdown();
+        assertThrows(InterruptedException.class, scheduled::get);
+        assertThrows(InterruptedException.class, periodic::get);
+        assertThrows(IllegalStateException.class, () -> FreeFuture.createScheduledTask(() -> 1, pool, 1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testGracefulShutdownLosesNoTasks() throws InterruptedException {
+        var pools = new ArrayList<ThreadPool>();
+        for (var scheduling : ThreadPool.Scheduling.values()) {
+            pools.add(new ThreadPool(3, scheduling));
+        }
+        pools.add(ThreadPool.createElastic(1, 4, 1, TimeUnit.SECONDS, 100, ThreadPool.Overflow.BLOCK));
+        for (var pool : pools) {
+            var performed = new AtomicInteger();
+            var accepted = new ConcurrentLinkedQueue<FreeFuture<Integer>>();
+            var submitters = new ArrayList<Thread>();
+            for (int i = 0; i < 4; i++) {
+                submitters.add(new Thread(() -> {
+                    try {
+                        while (true) {
+                            accepted.add(FreeFuture.createTask(() -> {
+                                performed.incrementAndGet();
+                                return 1;
+                            }, pool));
+                        }
+                    } catch (IllegalStateException e) {
+                        // the pool is shutdown
+                    }
+                }));
+                submitters.get(i).start();
+            }
+            Thread.sleep(20);
+            var left = pool.shutdownGracefully(10, TimeUnit.SECONDS);
+            for (var submitter : submitters) {
+                submitter.join();
+            }
+            assertTrue(pool.awaitTermination(1, TimeUnit.SECONDS));
+            for (var task : left) {
+                task.perform();
+            }
+            assertTrue(accepted.size() > 0);
+            assertEquals(accepted.size(), performed.get());
+            assertAll(accepted.stream().map(task -> () -> assertEquals(1, (int) task.get())));
+        }
+    }
+
+    @Test
+    void testGracefulShutdownReturnsTasksLeft() throws LightExecutionException, InterruptedException {
+        var pool = new ThreadPool(1);
+        var latch = new CountDownLatch(1);
+        var blocked = createBlockedTask(pool, latch);
+        var waiting = new ArrayList<FreeFuture<Integer>>();
+        for (int i = 0; i < 5; i++) {
+            waiting.add(FreeFuture.createTask(() -> 2, pool));
+        }
+        var scheduled = FreeFuture.createScheduledTask(() -> 3, pool, 1, TimeUnit.HOURS);
+        Thread.sleep(20);
+
+        var left = pool.shutdownGracefully(50, TimeUnit.MILLISECONDS);
+        assertEquals(6, left.size());
+        assertFalse(pool.awaitTermination(10, TimeUnit.MILLISECONDS));
+        assertFalse(blocked.isReady());
+        for (var task : waiting) {
+            assertFalse(task.isReady());
+        }
+        assertFalse(scheduled.isReady());
+        assertThrows(IllegalStateException.class, () -> FreeFuture.createTask(() -> 4, pool));
+
+        latch.countDown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, (int) blocked.get());
+        for (var task : left) {
+            task.perform();
+        }
+        for (var task : waiting) {
+            assertEquals(2, (int) task.get());
+        }
+        assertEquals(3, (int) scheduled.get());
+    }
+
+    @Test
+    void testGracefulShutdownPerformsTasksOfTasks() throws LightExecutionException, InterruptedException {
+        var pools = new ArrayList<ThreadPool>();
+        for (var scheduling : ThreadPool.Scheduling.values()) {
+            pools.add(new ThreadPool(2, scheduling));
+        }
+        pools.add(ThreadPool.createVirtual());
+        for (var pool : pools) {
+            var latch = new CountDownLatch(1);
+            var parent = createBlockedTask(pool, latch);
+            var child = parent.thenApply(x -> x + 1);
+            var grandchild = child.thenCompose(x -> FreeFuture.createTask(() -> x + 1, pool),
+                    FreeFuture.Continuation.RESUBMIT);
+            new Thread(() -> {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+                latch.countDown();
+            }).start();
+
+            assertTrue(pool.shutdownGracefully(5, TimeUnit.SECONDS).isEmpty());
+            assertEquals(2, (int) child.get());
+            assertEquals(3, (int) grandchild.get());
+            assertTrue(pool.awaitTermination(0, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testPrioritiesAndTenantsOfFairPool() throws LightExecutionException, InterruptedException {
+        var pool = new ThreadPool(1, ThreadPool.Scheduling.FAIR_QUEUE);
+        var latch = new CountDownLatch(1);
+        var blocked = createBlockedTask(pool, latch);
+        Thread.sleep(20);
+        var order = new ConcurrentLinkedQueue<String>();
+        var bulk = new Tenant("bulk", 1);
+        var interactive = new Tenant("interactive", 4);
+        var tasks = new ArrayList<FreeFuture<Boolean>>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(FreeFuture.createTask(() -> order.add("bulk"), pool, bulk, ThreadPool.NORM_PRIORITY));
+        }
+        for (int i = 0; i < 4; i++) {
+            tasks.add(FreeFuture.createTask(() -> order.add("interactive"), pool, interactive, ThreadPool.NORM_PRIORITY));
+        }
+        tasks.add(FreeFuture.createTask(() -> order.add("urgent"), pool, bulk, ThreadPool.MAX_PRIORITY));
+        assertThrows(IllegalArgumentException.class,
+                () -> FreeFuture.createTask(() -> true, pool, bulk, ThreadPool.MAX_PRIORITY + 1));
+
+        latch.countDown();
+        assertEquals(1, (int) blocked.get());
+        for (var task : tasks) {
+            assertTrue(task.get());
+        }
+        // a task of the interactive tenant costs a quarter of the bulk one, so four of them go before the next bulk one
+        var expected = new ArrayList<String>();
+        expected.add("urgent");
+        expected.add("bulk");
+        for (int i = 0; i < 4; i++) {
+            expected.add("interactive");
+        }
+        for (int i = 0; i < 7; i++) {
+            expected.add("bulk");
+        }
+        assertEquals(expected, new ArrayList<>(order));
+        pool.shutdown();
+    }
+
+    /** Task which waits until the latch is opened */
+    private FreeFuture<Integer> createBlockedTask(ThreadPool pool, CountDownLatch latch) {
+        return FreeFuture.createTask(() -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return 1;
+        }, pool);
+    }
+
+    @Test
+    void testElasticPoolGrowsAndShrinks() throws LightExecutionException, InterruptedException {
+        var pool = ThreadPool.createElastic(1, 4, 100, TimeUnit.MILLISECONDS, 100, ThreadPool.Overflow.REJECT);
+        assertEquals(1, pool.getCoreSize());
+        assertEquals(4, pool.getMaxSize());
+        assertEquals(0, pool.getThreadCount());
+        var latch = new CountDownLatch(1);
+        var tasks = new ArrayList<FreeFuture<Integer>>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(createBlockedTask(pool, latch));
+        }
+        assertEquals(4, pool.getThreadCount());
+        assertEquals(6, pool.getQueueSize());
+        latch.countDown();
+        for (var task : tasks) {
+            assertEquals(1, (int) task.get());
+        }
+        long start = System.nanoTime();
+        while (pool.getThreadCount() > 1 && System.nanoTime() - start < 5_000_000_000L) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, pool.getThreadCount());
+        assertEquals(0, pool.getQueueSize());
+        assertEquals(2, (int) FreeFuture.createTask(() -> 2, pool).get());
+        pool.shutdown();
+        assertEquals(0, pool.getThreadCount());
+    }
+
+    @Test
+    void testFixedPoolSizes() throws InterruptedException {
+        var pool = new ThreadPool(3);
+        assertEquals(3, pool.getCoreSize());
+        assertEquals(3, pool.getMaxSize());
+        assertEquals(3, pool.getThreadCount());
+        assertEquals(0, pool.getQueueSize());
+        pool.shutdown();
+        assertThrows(IllegalArgumentException.class,
+                () -> ThreadPool.createElastic(2, 1, 1, TimeUnit.SECONDS, 10, ThreadPool.Overflow.BLOCK));
+        assertThrows(IllegalArgumentException.class,
+                () -> ThreadPool.createElastic(1, 1, 1, TimeUnit.SECONDS, 0, ThreadPool.Overflow.BLOCK));
+    }
+
+    @Test
+    void testOverflowReject() throws LightExecutionException, InterruptedException {
+        var pool = ThreadPool.createElastic(1, 1, 0, TimeUnit.SECONDS, 2, ThreadPool.Overflow.REJECT);
+        var latch = new CountDownLatch(1);
+        var tasks = new ArrayList<FreeFuture<Integer>>();
+        for (int i = 0; i < 3; i++) {
+            tasks.add(createBlockedTask(pool, latch));
+        }
+        assertThrows(RejectedExecutionException.class, () -> FreeFuture.createTask(() -> 1, pool));
+        latch.countDown();
+        for (var task : tasks) {
+            assertEquals(1, (int) task.get());
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    void testOverflowCallerRuns() throws LightExecutionException, InterruptedException {
+        var pool = ThreadPool.createElastic(1, 1, 0, TimeUnit.SECONDS, 1, ThreadPool.Overflow.CALLER_RUNS);
+        var latch = new CountDownLatch(1);
+        var blocked = createBlockedTask(pool, latch);
+        var queued = FreeFuture.createTask(() -> 1, pool);
+        var caller = Thread.currentThread();
+        var task = FreeFuture.createTask(() -> Thread.currentThread() == caller, pool);
+        assertTrue(task.isReady());
+        assertTrue(task.get());
+        latch.countDown();
+        assertEquals(1, (int) blocked.get());
+        assertEquals(1, (int) queued.get());
+        pool.shutdown();
+    }
+
+    @Test
+    void testOverflowDropOldest() throws LightExecutionException, InterruptedException {
+        var pool = ThreadPool.createElastic(1, 1, 0, TimeUnit.SECONDS, 2, ThreadPool.Overflow.DROP_OLDEST);
+        var latch = new CountDownLatch(1);
+        var blocked = createBlockedTask(pool, latch);
+        var oldest = FreeFuture.createTask(() -> 1, pool);
+        var older = FreeFuture.createTask(() -> 2, pool);
+        var newest = FreeFuture.createTask(() -> 3, pool);
+        assertThrows(CancellationException.class, oldest::get);
+        latch.countDown();
+        assertEquals(1, (int) blocked.get());
+        assertEquals(2, (int) older.get());
+        assertEquals(3, (int) newest.get());
+        pool.shutdown();
+    }
+
+    @Test
+    void testOverflowBlock() throws LightExecutionException, InterruptedException {
+        var pool = ThreadPool.createElastic(2, 2, 0, TimeUnit.SECONDS, 4, ThreadPool.Overflow.BLOCK);
+        var counter = new AtomicInteger();
+        var maximalQueue = new AtomicInteger();
+        var tasks = new ArrayList<FreeFuture<Integer>>();
+        for (int i = 0; i < 1000; i++) {
+            maximalQueue.accumulateAndGet(pool.getQueueSize(), Math::max);
+            tasks.add(FreeFuture.createTask(() -> {
+                Thread.yield();
+                return counter.incrementAndGet();
+            }, pool));
+        }
+        for (var task : tasks) {
+            task.get();
+        }
+        assertEquals(1000, counter.get());
+        assertTrue(maximalQueue.get() <= 4);
+
+        var nested = FreeFuture.createTask(() -> {
+            var children = new ArrayList<FreeFuture<Integer>>();
+            for (int i = 0; i < 100; i++) {
+                children.add(FreeFuture.createTask(() -> 1, pool));
+            }
+            return children.size();
+        }, pool);
+        assertEquals(100, (int) nested.get());
+        pool.shutdown();
+    }
+
+    @Test
+    void testMetrics() throws InterruptedException {
+        for (var scheduling : ThreadPool.Scheduling.values()) {
+            var pool = new ThreadPool(2, scheduling);
+            var metrics = pool.enableMetrics(1);
+            var parents = new ArrayList<FreeFuture<Integer>>();
+            var children = new ConcurrentLinkedQueue<FreeFuture<Integer>>();
+            for (int i = 0; i < 100; i++) {
+                int finalI = i;
+                parents.add(FreeFuture.createTask(() -> {
+                    for (int j = 0; j < 10; j++) {
+                        children.add(FreeFuture.createTask(() -> {
+                            LockSupport.parkNanos(10_000);
+                            return 1;
+                        }, pool));
+                    }
+                    if (finalI % 10 == 0) {
+                        throw new RuntimeException("Oops!");
+                    }
+                    return 0;
+                }, pool));
+            }
+            int failed = 0;
+            for (var task : parents) {
+                try {
+                    task.get();
+                } catch (LightExecutionException e) {
+                    failed++;
+                }
+            }
+            assertEquals(10, failed);
+            for (var task : children) {
+                assertDoesNotThrow(() -> task.get());
+            }
+            long start = System.nanoTime();
+            while (metrics.getFinishedCount() < 1100 && System.nanoTime() - start < 5_000_000_000L) {
+                Thread.sleep(1);
+            }
+
+            assertEquals(1100, metrics.getFinishedCount());
+            assertEquals(10, metrics.getFailedCount());
+            assertEquals(0, metrics.getActiveCount());
+            assertEquals(2, metrics.getIdleCount());
+            assertEquals(0, metrics.getQueueSize());
+            assertEquals(1100, metrics.getRunTimes().getCount());
+            assertTrue(metrics.getRunTimes().getValueAtPercentile(99) >= 10_000);
+            assertTrue(metrics.getWaitTimes().getMax() > 0);
+            if (scheduling != ThreadPool.Scheduling.WORK_STEALING) {
+                assertEquals(0, metrics.getStealCount());
+            }
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testMetricsOfInterruptedTasks() throws InterruptedException {
+        var pool = new ThreadPool(1);
+        var metrics = pool.enableMetrics();
+        var started = new AtomicInteger();
+        FreeFuture.createTask(() -> {
+            started.incrementAndGet();
+            while (!Thread.currentThread().isInterrupted()) {
+                ;
+            }
+            throw new IllegalStateException("Interrupted");
+        }, pool);
+        FreeFuture.createTask(() -> 1, pool);
+        while (started.get() == 0) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, metrics.getActiveCount());
+        assertEquals(1, metrics.getQueueSize());
+        pool.shutdown();
+        assertEquals(2, metrics.getInterruptedCount());
+        assertEquals(0, metrics.getFailedCount());
+        assertTrue(metrics.toString().contains("interrupted 2"));
+    }
+
+    @Test
+    void testSampledMetrics() throws LightExecutionException, InterruptedException {
+        var pool = new ThreadPool(1);
+        var metrics = pool.enableMetrics(16);
+        var tasks = new ArrayList<FreeFuture<Integer>>();
+        for (int i = 0; i < 16000; i++) {
+            tasks.add(FreeFuture.createTask(() -> 1, pool));
+        }
+        for (var task : tasks) {
+            task.get();
+        }
+        pool.shutdown();
+        assertEquals(16000, metrics.getFinishedCount());
+        long timed = metrics.getWaitTimes().getCount();
+        assertTrue(timed > 500 && timed < 1500, "Timed " + timed + " tasks");
+        assertEquals(timed, metrics.getRunTimes().getCount());
+        assertThrows(IllegalArgumentException.class, () -> pool.enableMetrics(0));
+    }
+}
@@ -0,0 +1,97 @@
+package fr.ladybug.team;
+
+import fr.ladybug.team.ThreadPool.ThreadTask;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    private ThreadTask<Long> taskAt(long time) {
+        var task = new ThreadTask<Long>(() -> time, null);
+        task.time = time;
+        return task;
+    }
+
+    @Test
+    void testDueTaskIsNotAdded() {
+        var wheel = new TimingWheel(10, 0);
+        assertFalse(wheel.add(taskAt(-5)));
+        assertFalse(wheel.add(taskAt(0)));
+        assertTrue(wheel.add(taskAt(1)));
+        assertEquals(1, wheel.getSize());
+    }
+
+    @Test
+    void testTasksAreDueNotEarlierAndAtMostTickLater() {
+        var wheel = new TimingWheel(10, 0);
+        var random = new Random(42);
+        var times = new ArrayList<Long>();
+        for (int i = 0; i < 100_000; i++) {
+            long time = 1 + (long) (Math.pow(10, random.nextDouble() * 9));
+            times.add(time);
+            assertTrue(wheel.add(taskAt(time)));
+        }
+
+        var due = new ArrayList<ThreadTask<?>>();
+        long now = 0;
+        int found = 0;
+        while (wheel.getSize() > 0) {
+            now = Math.max(now + 1, wheel.nextTime());
+            wheel.advance(now, due);
+            for (var task : due) {
+                assertTrue(task.time <= now, "Task is due too early");
+                assertTrue(now - task.time < 10, "Task is due too late");
+            }
+            found += due.size();
+            due.clear();
+        }
+        assertEquals(times.size(), found);
+    }
+
+    @Test
+    void testTasksAddedWhileAdvancing() {
+        var wheel = new TimingWheel(1, 1000);
+        var due = new ArrayList<ThreadTask<?>>();
+        wheel.advance(5000, due);
+        assertTrue(wheel.add(taskAt(5000 + 64 * 64 + 3)));
+        assertTrue(wheel.add(taskAt(5001)));
+        wheel.advance(5001, due);
+        assertEquals(1, due.size());
+        wheel.advance(5000 + 64 * 64 + 2, due);
+        assertEquals(1, due.size());
+        wheel.advance(5000 + 64 * 64 + 3, due);
+        assertEquals(2, due.size());
+        assertEquals(0, wheel.getSize());
+    }
+
+    @Test
+    void testFarTask() {
+        var wheel = new TimingWheel(1, 0);
+        long far = 1L << 40;
+        wheel.add(taskAt(far));
+        var due = new ArrayList<ThreadTask<?>>();
+        long now = 0;
+        while (due.isEmpty()) {
+            now = wheel.nextTime();
+            wheel.advance(now, due);
+        }
+        assertEquals(far, now);
+    }
+
+    @Test
+    void testDrain() {
+        var wheel = new TimingWheel(1, 0);
+        for (int i = 1; i <= 1000; i++) {
+            wheel.add(taskAt(i * 1000L));
+        }
+        assertEquals(1000, wheel.drain().size());
+        assertEquals(0, wheel.getSize());
+        var due = new ArrayList<ThreadTask<?>>();
+        wheel.advance(1_000_000, due);
+        assertTrue(due.isEmpty());
+    }
+}
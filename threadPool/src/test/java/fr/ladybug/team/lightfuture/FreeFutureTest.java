@@ -0,0 +1,68 @@
+package fr.ladybug.team.lightfuture;
+
+import fr.ladybug.team.ThreadPool;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FreeFutureTest {
+
+    @Test
+    void testPollingWaitersDoNotPileUp() throws InterruptedException, LightExecutionException {
+        var pool = new ThreadPool(1);
+        var task = FreeFuture.createDelayedTask(() -> 42, pool);
+        var derived = task.thenApply(result -> result + 1);
+        // a waiter which keeps waiting lies at the bottom, so dead nodes above it are not on the top
+        var steady = new Thread(() -> {
+            try {
+                task.get();
+            } catch (LightExecutionException | InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        steady.start();
+        while (task.getStackSize() < 2) {
+            Thread.onSpinWait();
+        }
+
+        int threadCount = 8;
+        var done = new CountDownLatch(threadCount);
+        var pollers = new ArrayList<Thread>();
+        for (int i = 0; i < threadCount; i++) {
+            var poller = new Thread(() -> {
+                for (int j = 0; j < 2000; j++) {
+                    try {
+                        task.get(10, TimeUnit.MICROSECONDS);
+                    } catch (TimeoutException e) {
+                        // polled again
+                    } catch (LightExecutionException | InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                done.countDown();
+            });
+            poller.start();
+            pollers.add(poller);
+        }
+        // each poller has at most one node in the stack, dead nodes of the previous polls are unlinked
+        while (!done.await(0, TimeUnit.MILLISECONDS)) {
+            assertTrue(task.getStackSize() <= threadCount + 2);
+        }
+        for (var poller : pollers) {
+            poller.join();
+        }
+        assertEquals(2, task.getStackSize());
+
+        task.submit();
+        assertEquals(42, (int) task.get());
+        steady.join();
+        assertEquals(0, task.getStackSize());
+        assertEquals(43, (int) derived.get());
+        pool.shutdown();
+    }
+}
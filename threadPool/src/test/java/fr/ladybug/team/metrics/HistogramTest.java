@@ -0,0 +1,82 @@
+package fr.ladybug.team.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramTest {
+
+    @Test
+    void testEmpty() {
+        var histogram = new Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        var histogram = new Histogram();
+        for (int i = 0; i < 256; i++) {
+            histogram.record(i);
+        }
+        assertEquals(256, histogram.getCount());
+        assertEquals(255, histogram.getMax());
+        assertEquals(127.5, histogram.getMean(), 1e-9);
+        assertEquals(127, histogram.getValueAtPercentile(50));
+        assertEquals(0, histogram.getValueAtPercentile(0));
+        assertEquals(255, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    void testPercentilesWithinOnePercent() {
+        var histogram = new Histogram();
+        var random = new Random(42);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 25);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double percentile : new double[] {1, 10, 50, 90, 99, 99.9}) {
+            long expected = values[(int) Math.ceil(values.length * percentile / 100) - 1];
+            long actual = histogram.getValueAtPercentile(percentile);
+            assertTrue(actual >= expected && actual <= expected * 1.01 + 1,
+                    percentile + "%: expected " + expected + ", got " + actual);
+        }
+        assertEquals(values[values.length - 1], histogram.getMax());
+    }
+
+    @Test
+    void testOutOfRangeValues() {
+        var histogram = new Histogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(2, histogram.getCount());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+        assertEquals((1L << 40) - 1, histogram.getMax());
+    }
+
+    @Test
+    void testConcurrentRecording() throws InterruptedException {
+        var histogram = new Histogram();
+        var threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 100_000; j++) {
+                    histogram.record(j);
+                }
+            });
+            threads[i].start();
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+        assertEquals(400_000, histogram.getCount());
+        assertEquals(99_999, histogram.getMax());
+    }
+}